@@ -0,0 +1,115 @@
+package lostcrown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// --- Per-Hit Combat Benchmarks ---
+// Cost of one hit through the character classes. "disabled" is how simulations run (the
+// shared DISABLED bus, nothing is built or printed). "rendered" goes through the same
+// ConsoleCombatRenderer the game uses, flushed once per operation like once per turn,
+// into a stream that discards the bytes so the console never shows up in the numbers.
+// Every operation restores health and cooldowns first so each invocation measures the
+// same path instead of hitting a dead target or a special on cooldown.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CombatBenchmarks {
+    @Param({"disabled", "rendered"})
+    public String events;
+
+    @Param({"Knight", "Mage", "Archer", "Assassin", "Dwarf"})
+    public String characterClass;
+
+    private CombatEventBus bus;
+    private PlayerCharacter player;
+    private Monster monster;
+    private Weapon weapon;
+
+    @Setup
+    public void setUp() {
+        bus = "rendered".equals(events)
+                ? new CombatEventBus(new ConsoleCombatRenderer(new PrintStream(OutputStream.nullOutputStream())))
+                : CombatEventBus.DISABLED;
+        player = Campaign.newCharacter(classIndex(characterClass), "Bench");
+        player.setEquippedWeapon(new Weapon("Stormbringer Edge", 120, 0.12, "Stun"));
+        player.setEquippedArmor(new Armor("Obsidian Plate", 40));
+        player.setEvents(bus);
+        monster = Campaign.generateMonsters(DifficultyTable.DEFAULT, 10)[0];
+        monster.setEvents(bus);
+        weapon = player.getEquippedWeapon();
+    }
+
+    @Benchmark
+    public int monsterTakeDamage() {
+        monster.setHealth(monster.getMaxHealth());
+        monster.takeDamage(player.getBaseAttack());
+        bus.flush();
+        return monster.getHealth();
+    }
+
+    @Benchmark
+    public int playerTakeDamage() {
+        player.setHealth(player.getMaxHealth());
+        player.takeDamage(monster.getBaseAttack());
+        bus.flush();
+        return player.getHealth();
+    }
+
+    @Benchmark
+    public int basicAttack() {
+        int damage = player.basicAttack();
+        bus.flush();
+        return damage;
+    }
+
+    @Benchmark
+    public int playerSpecialAttack() {
+        monster.setHealth(monster.getMaxHealth());
+        player.setSpecialCooldown(0);
+        player.setHealCooldown(0);
+        player.getStatusEffects().remove(StatusEffect.STONE_SKIN);
+        player.specialAttack(monster);
+        player.endTurn();
+        bus.flush();
+        return monster.getHealth();
+    }
+
+    @Benchmark
+    public int monsterSpecialAttack() {
+        player.setHealth(player.getMaxHealth());
+        monster.setSpecialCooldown(0);
+        monster.specialAttack(player);
+        bus.flush();
+        return player.getHealth();
+    }
+
+    @Benchmark
+    public String weaponToString() {
+        return weapon.toString();
+    }
+
+    private static int classIndex(String characterClass) {
+        switch (characterClass) {
+            case "Knight": return 1;
+            case "Mage": return 2;
+            case "Archer": return 3;
+            case "Assassin": return 4;
+            default: return 5;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package lostcrown;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// --- Batch Damage Benchmarks ---
+// One area hit on a horde-sized batch through DamageKernel, scalar loop against whatever
+// apply() picks. The forks add the Vector API module, so apply() runs VectorDamageKernel;
+// a quarter of the targets defend so the halving is not uniform. Health is reset first so
+// every operation hits live targets.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class DamageKernelBenchmarks {
+    @Param({"1000", "100000"})
+    public int targets;
+
+    private int[] damage;
+    private int[] defense;
+    private long[] defending;
+    private long[] invulnerable;
+    private int[] health;
+    private int[] effective;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        damage = new int[targets];
+        defense = new int[targets];
+        defending = new long[(targets + 63) >>> 6];
+        invulnerable = new long[(targets + 63) >>> 6];
+        health = new int[targets];
+        effective = new int[targets];
+        for (int i = 0; i < targets; i++) {
+            damage[i] = 50 + random.nextInt(200);
+            defense[i] = Horde.MONSTER_DEFENSE;
+            if (random.nextInt(4) == 0) defending[i >>> 6] |= 1L << i;
+        }
+    }
+
+    @Benchmark
+    public int scalar() {
+        Arrays.fill(health, 1_000_000);
+        return DamageKernel.applyScalar(damage, defense, defending, invulnerable, health, effective, 0, targets);
+    }
+
+    @Benchmark
+    public int kernel() {
+        Arrays.fill(health, 1_000_000);
+        return DamageKernel.apply(damage, defense, defending, invulnerable, health, effective, 0, targets);
+    }
+}
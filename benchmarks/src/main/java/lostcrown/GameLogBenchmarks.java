@@ -0,0 +1,74 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+// --- Game Log Benchmarks ---
+// One logged move per operation, each thread a session of its own, all sharing one GameLog
+// in a temporary file. Every append waits for its fsync, so the throughput across threads
+// shows how many turns the group commit folds into each force().
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GameLogBenchmarks {
+    @State(Scope.Benchmark)
+    public static class SharedLog {
+        final AtomicLong codes = new AtomicLong();
+        Path file;
+        GameLog log;
+
+        @Setup(Level.Trial)
+        public void open() throws IOException {
+            file = Files.createTempFile("lostcrown", ".log");
+            log = new GameLog(file);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            log.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Run {
+        GameLog.Session session;
+        int move;
+
+        @Setup(Level.Trial)
+        public void start(SharedLog shared) {
+            session = shared.log.session(shared.codes.incrementAndGet());
+            session.save(Campaign.newCharacter(1, "Bench"), 1, 42, 0);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void oneSession(Run run) {
+        run.session.recordInt(ReplayJournal.MOVE, 1 + (run.move++ & 3));
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void sixtyFourSessions(Run run) {
+        run.session.recordInt(ReplayJournal.MOVE, 1 + (run.move++ & 3));
+    }
+}
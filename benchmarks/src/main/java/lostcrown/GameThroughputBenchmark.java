@@ -0,0 +1,356 @@
+package lostcrown;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// --- Whole-Game Throughput Benchmark ---
+// Plays complete adventures through FinalProjectGame.startGame exactly like a console
+// player would: class menu, name, every battle move, the equip prompts, the quizzes and the
+// final "new adventure?" prompt all come from a scripted input stream. The scripts are
+// prepared up front by running the same seeded campaign headless with a SimulatedPlayer and
+// writing its decisions out as input lines, so the timed loop only measures the game.
+// Output goes through the real ConsoleCombatRenderer into a stream that discards it.
+//
+// Reports completed games per second, turn latency percentiles (prompt to prompt, i.e. one
+// input line fully processed) and bytes allocated per game as JSON, and compares them with
+// a stored baseline. The exit code is 1 when a metric got worse by more than the tolerance.
+// Usage: java -cp benchmarks/target/benchmarks.jar lostcrown.GameThroughputBenchmark
+//            [--games n] [--warmup n] [--policy masher|casual|expert|optimizer|autopilot...] [--seed n]
+//            [--report file] [--baseline file] [--tolerance percent]
+public class GameThroughputBenchmark {
+    static final Path DEFAULT_BASELINE = Paths.get("benchmarks", "baseline", "game-throughput.json");
+
+    // Metrics compared against the baseline; true when a higher value is better. The p99.9
+    // and max latencies are reported only: a single GC pause moves them by several times.
+    private static final Map<String, Boolean> COMPARED = new LinkedHashMap<>();
+    static {
+        COMPARED.put("gamesPerSecond", true);
+        COMPARED.put("turnLatencyP50Nanos", false);
+        COMPARED.put("turnLatencyP90Nanos", false);
+        COMPARED.put("turnLatencyP99Nanos", false);
+        COMPARED.put("bytesPerGame", false);
+    }
+
+    // One prepared adventure: the seed the game is started with and the console input for it
+    private static final class Script {
+        final long seed;
+        final byte[] input;
+        final int playerTurns;
+        final boolean victory;
+
+        Script(long seed, byte[] input, int playerTurns, boolean victory) {
+            this.seed = seed;
+            this.input = input;
+            this.playerTurns = playerTurns;
+            this.victory = victory;
+        }
+    }
+
+    // Writes every decision of a policy as the line the console would have read
+    private static final class ScriptWriter implements CampaignPlayer {
+        private final CampaignPlayer policy;
+        private final StringBuilder input;
+
+        ScriptWriter(CampaignPlayer policy, StringBuilder input) {
+            this.policy = policy;
+            this.input = input;
+        }
+
+        @Override
+        public void battleStarted(PlayerCharacter player, Monster[] monsters) {
+            policy.battleStarted(player, monsters);
+        }
+
+        @Override
+        public int chooseMove(PlayerCharacter player, Monster target) {
+            int move = policy.chooseMove(player, target);
+            input.append(move).append('\n');
+            return move;
+        }
+
+        @Override
+        public boolean equipWeapon(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Weapon found) {
+            boolean equip = policy.equipWeapon(nextLevel, difficulty, player, found);
+            input.append(equip ? "Y\n" : "N\n");
+            return equip;
+        }
+
+        @Override
+        public boolean equipArmor(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Armor found) {
+            boolean equip = policy.equipArmor(nextLevel, difficulty, player, found);
+            input.append(equip ? "Y\n" : "N\n");
+            return equip;
+        }
+
+        // The console only offers the advisor's pick, so the policy's choice is played when
+        // it is that one and declined otherwise
+        @Override
+        public int storedWeapon(int level, DifficultyTable difficulty, PlayerCharacter player) {
+            return offered(policy.storedWeapon(level, difficulty, player), EquipOptimizer.SHARED.bestWeaponSlot(difficulty, player, level));
+        }
+
+        @Override
+        public int storedArmor(int level, DifficultyTable difficulty, PlayerCharacter player) {
+            return offered(policy.storedArmor(level, difficulty, player), EquipOptimizer.SHARED.bestArmorSlot(difficulty, player, level));
+        }
+
+        private int offered(int chosen, int offered) {
+            if (offered < 0) return -1;
+            input.append(chosen == offered ? "Y\n" : "N\n");
+            return chosen == offered ? offered : -1;
+        }
+
+        @Override
+        public String answerQuiz(int level, String question) {
+            String answer = policy.answerQuiz(level, question);
+            input.append(answer).append('\n');
+            return answer;
+        }
+    }
+
+    // Times the gap between consecutive batches (the game flushes before every prompt)
+    // and counts player turns so a script that drifted from the game is caught
+    private static final class TurnTimer implements CombatEventSink {
+        private long[] samples = new long[1 << 16];
+        private int count;
+        private long lastBatch;
+        private boolean recording;
+        private int playerTurns;
+
+        void startGame() { lastBatch = 0; }
+        void setRecording(boolean recording) { this.recording = recording; }
+        int getPlayerTurns() { return playerTurns; }
+        int getCount() { return count; }
+
+        @Override
+        public void accept(CombatEvent event) {
+            if (event.type == CombatEvent.Type.PLAYER_TURN) playerTurns++;
+        }
+
+        @Override
+        public void endOfBatch() {
+            long now = System.nanoTime();
+            if (recording && lastBatch != 0) {
+                if (count == samples.length) samples = Arrays.copyOf(samples, count * 2);
+                samples[count++] = now - lastBatch;
+            }
+            lastBatch = now;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    static Script prepare(long seed, int classChoice, CampaignPlayer policy) {
+        // Same seed derivation as FinalProjectGame.startGame for its first adventure
+        long runSeed = new SplittableRandom(seed).nextLong();
+        StringBuilder input = new StringBuilder(1024);
+        input.append(classChoice).append('\n').append("Bench\n");
+        Campaign campaign = new Campaign(new ScriptWriter(policy, input), CombatEventBus.DISABLED, new RandomStreams(runSeed), DifficultyTable.current());
+        int result = campaign.run(Campaign.newCharacter(classChoice, "Bench"));
+        input.append("N\n");
+
+        int turns = 0;
+        for (int level = 1; level <= Campaign.MAX_LEVELS; level++) {
+            turns += campaign.getLevelTurns(level);
+        }
+        return new Script(seed, input.toString().getBytes(StandardCharsets.UTF_8), turns, result == Campaign.VICTORY);
+    }
+
+    private static void play(Script script, PrintStream out, CombatEventSink output, TurnTimer timer) {
+        int turnsBefore = timer.getPlayerTurns();
+        timer.startGame();
+        FinalProjectGame game = new FinalProjectGame(new ByteArrayInputStream(script.input), out, output, CombatEventBus.DEFAULT_CAPACITY);
+        game.setSeed(script.seed);
+        game.startGame();
+        if (timer.getPlayerTurns() - turnsBefore != script.playerTurns) {
+            throw new IllegalStateException("Game with seed " + script.seed + " played " + (timer.getPlayerTurns() - turnsBefore)
+                    + " turns but its script has " + script.playerTurns + "; the script no longer matches the game");
+        }
+    }
+
+    static Map<String, Object> run(int games, int warmup, String policyName, long seed) {
+        CampaignPlayer policy = SimulatedPlayer.policies(policyName, seed).get();
+        Script[] scripts = new Script[games];
+        long totalTurns = 0;
+        int victories = 0;
+        for (int i = 0; i < games; i++) {
+            scripts[i] = prepare(seed + i, i % 5 + 1, policy);
+            totalTurns += scripts[i].playerTurns;
+            if (scripts[i].victory) victories++;
+        }
+
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8);
+        TurnTimer timer = new TurnTimer();
+        CombatEventSink output = CombatEventSink.tee(new ConsoleCombatRenderer(discard), timer);
+
+        for (int i = 0; i < warmup; i++) {
+            play(scripts[i % games], discard, output, timer);
+        }
+
+        timer.setRecording(true);
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (Script script : scripts) {
+            play(script, discard, output, timer);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+
+        long[] latencies = timer.sorted();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("benchmark", "game-throughput");
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("policy", policyName);
+        report.put("seed", seed);
+        report.put("games", games);
+        report.put("warmupGames", warmup);
+        report.put("victories", victories);
+        report.put("turnsPerGame", round((double) totalTurns / games));
+        report.put("gamesPerSecond", round(games / (elapsed / 1e9)));
+        report.put("turnLatencySamples", timer.getCount());
+        report.put("turnLatencyP50Nanos", percentile(latencies, 0.50));
+        report.put("turnLatencyP90Nanos", percentile(latencies, 0.90));
+        report.put("turnLatencyP99Nanos", percentile(latencies, 0.99));
+        report.put("turnLatencyP999Nanos", percentile(latencies, 0.999));
+        report.put("turnLatencyMaxNanos", latencies.length == 0 ? 0 : latencies[latencies.length - 1]);
+        report.put("bytesPerGame", allocatedBefore < 0 ? -1 : (allocatedAfter - allocatedBefore) / games);
+        return report;
+    }
+
+    // Bytes allocated by this thread so far, or -1 when the JVM cannot tell
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    // --- Report and Baseline ---
+    static String toJson(Map<String, Object> report) {
+        StringBuilder json = new StringBuilder("{\n");
+        int i = 0;
+        for (Map.Entry<String, Object> entry : report.entrySet()) {
+            json.append("  \"").append(entry.getKey()).append("\": ");
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                json.append('"').append(value).append('"');
+            } else {
+                json.append(value);
+            }
+            json.append(++i < report.size() ? ",\n" : "\n");
+        }
+        return json.append("}\n").toString();
+    }
+
+    // Numeric fields of a report written by toJson
+    static Map<String, Double> readNumbers(Path file) throws IOException {
+        Map<String, Double> numbers = new LinkedHashMap<>();
+        Matcher field = Pattern.compile("\"(\\w+)\"\\s*:\\s*(-?[0-9.]+(?:[eE][-+]?[0-9]+)?)").matcher(Files.readString(file));
+        while (field.find()) {
+            numbers.put(field.group(1), Double.parseDouble(field.group(2)));
+        }
+        return numbers;
+    }
+
+    // Prints one line per compared metric and returns true if any got worse than the tolerance allows
+    static boolean compare(Map<String, Object> report, Map<String, Double> baseline, double tolerancePercent, PrintStream out) {
+        boolean regressed = false;
+        out.printf("%-22s %14s %14s %9s%n", "metric", "baseline", "current", "change");
+        for (Map.Entry<String, Boolean> metric : COMPARED.entrySet()) {
+            Double before = baseline.get(metric.getKey());
+            Object current = report.get(metric.getKey());
+            if (before == null || !(current instanceof Number) || before <= 0 || ((Number) current).doubleValue() < 0) continue;
+            double now = ((Number) current).doubleValue();
+            double change = (now - before) / before * 100;
+            double improvement = metric.getValue() ? change : -change;
+            String verdict = improvement > tolerancePercent ? "better" : (improvement < -tolerancePercent ? "WORSE" : "same");
+            if (improvement < -tolerancePercent) regressed = true;
+            out.printf("%-22s %14.2f %14.2f %+8.1f%% %s%n", metric.getKey(), before, now, change, verdict);
+        }
+        return regressed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 2000;
+        int warmup = 1000;
+        String policy = "casual";
+        long seed = 42;
+        Path reportFile = null;
+        Path baselineFile = DEFAULT_BASELINE;
+        double tolerance = 10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+                case "--policy":
+                    policy = args[++i];
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--report":
+                    reportFile = Paths.get(args[++i]);
+                    break;
+                case "--baseline":
+                    baselineFile = Paths.get(args[++i]);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+            }
+        }
+
+        Map<String, Object> report = run(games, warmup, policy, seed);
+        String json = toJson(report);
+        System.out.print(json);
+        if (reportFile != null) {
+            Files.writeString(reportFile, json);
+        }
+
+        if (Files.exists(baselineFile)) {
+            System.out.println("\nCompared with " + baselineFile + " (tolerance " + tolerance + "%):");
+            if (compare(report, readNumbers(baselineFile), tolerance, System.out)) {
+                System.exit(1);
+            }
+        } else {
+            System.out.println("\nNo baseline at " + baselineFile + "; save this report there to start comparing.");
+        }
+    }
+}
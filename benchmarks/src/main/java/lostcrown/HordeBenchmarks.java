@@ -0,0 +1,123 @@
+package lostcrown;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// --- Horde Benchmarks ---
+// Large hordes. hitThenTarget is player targeting: one member is hit, then the strategy picks
+// the next target, as in a turn of the player phase. monsterPhase is one whole monster phase,
+// through Horde.actAll on pools of each size and one by one as BattleEngine runs it below
+// Horde.PARALLEL_THRESHOLD or with events on. Health is far above the hits on both sides, so
+// nobody dies and every operation sees the full horde.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HordeBenchmarks {
+    @State(Scope.Thread)
+    public static class Targets {
+        @Param({"10000", "100000"})
+        public int members;
+
+        @Param({"LOWEST_HP", "HIGHEST_THREAT"})
+        public String targeting;
+
+        final SplittableRandom random = new SplittableRandom(42);
+        TargetingStrategy strategy;
+        Horde horde;
+
+        @Setup
+        public void setUp() {
+            strategy = TargetingStrategy.valueOf(targeting);
+            horde = horde(random, members);
+            horde.bestTarget(strategy);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Phase {
+        @Param({"10000", "100000"})
+        public int members;
+
+        Horde horde;
+        int[] all;
+        PlayerCharacter player;
+
+        @Setup
+        public void setUp() {
+            horde = horde(new SplittableRandom(42), members);
+            all = new int[members];
+            for (int i = 0; i < members; i++) all[i] = i;
+            player = Campaign.newCharacter(1, "Bench");
+            player.setMaxHealth(Integer.MAX_VALUE);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PooledPhase extends Phase {
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        ForkJoinPool pool;
+
+        @Setup
+        public void startPool() {
+            pool = new ForkJoinPool(threads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int hitThenTarget(Targets state) {
+        state.horde.takeDamage(state.random.nextInt(state.members), 30 + state.random.nextInt(100));
+        return state.horde.bestTarget(state.strategy);
+    }
+
+    @Benchmark
+    public int monsterPhase(PooledPhase state) {
+        state.player.setHealth(Integer.MAX_VALUE);
+        return state.horde.actAll(state.all, state.members, state.player, state.pool);
+    }
+
+    @Benchmark
+    public int monsterPhaseOneByOne(Phase state) {
+        Horde horde = state.horde;
+        state.player.setHealth(Integer.MAX_VALUE);
+        for (int i = 0; i < state.members; i++) {
+            if (horde.wantsSpecial(i)) {
+                horde.specialAttack(i, state.player);
+            } else {
+                horde.defend(i);
+            }
+            horde.endTurn(i);
+        }
+        return state.player.getHealth();
+    }
+
+    private static Horde horde(SplittableRandom random, int members) {
+        Monster[] monsters = new Monster[members];
+        for (int i = 0; i < members; i++) {
+            monsters[i] = new Monster("Ghoul", 1_000_000 + random.nextInt(1000), 10 + random.nextInt(90));
+            monsters[i].setSpecialCooldown(random.nextInt(Horde.SPECIAL_COOLDOWN_TIME + 1));
+        }
+        return Horde.of(monsters);
+    }
+}
@@ -0,0 +1,61 @@
+package lostcrown;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// --- Per-Level Generation Benchmarks ---
+// What the campaign pays between battles: building the roster and rolling the loot.
+// Levels 1, 7 and 12 cover the one, two and three monster rosters; 15 is King Chaus.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LevelGenerationBenchmarks {
+    @Param({"1", "7", "12", "15"})
+    public int level;
+
+    private SplittableRandom random;
+
+    @Setup
+    public void setUp() {
+        random = new SplittableRandom(42);
+    }
+
+    @Benchmark
+    public Monster[] generateMonsters() {
+        return Campaign.generateMonsters(DifficultyTable.DEFAULT, level);
+    }
+
+    @Benchmark
+    public Monster[] levelRoster() {
+        return Campaign.levelRoster(DifficultyTable.DEFAULT, level);
+    }
+
+    @Benchmark
+    public Weapon generateWeapon() {
+        return Campaign.generateWeapon(level, random);
+    }
+
+    @Benchmark
+    public Armor generateArmor() {
+        return Campaign.generateArmor(level, random);
+    }
+
+    @Benchmark
+    public String generateWeaponAndDescribe() {
+        return Campaign.generateWeapon(level, random).toString();
+    }
+}
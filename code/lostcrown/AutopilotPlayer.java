@@ -0,0 +1,383 @@
+package lostcrown;
+
+// --- Autopilot Player ---
+// A CampaignPlayer bot for soak tests. Battle moves come from a look-ahead over
+// CharacterSnapshot positions: every legal move (Attack, Heal, Defend, Special) is tried,
+// the weapon effect roll is a chance node, the monsters answer with MonsterAI.RULES and
+// later player turns target the first live monster. Positions are memoized per battle in a
+// table keyed by a hash of the snapshots and the turns left to search, and the next turn's
+// search finds most of its positions there already.
+//
+// Skill sets how many player turns are searched (0 plays MoveSelector.SPECIAL_WHEN_READY),
+// how often a move is replaced by a random legal one, how often quizzes are answered right
+// and whether gear is chosen with the EquipOptimizer. Blunders and quiz guesses are hashed
+// from the seed, the position and the turn rather than drawn from a Random, so a run is
+// reproducible and the campaign's own rolls are untouched.
+// The memo table makes an instance single-threaded: use one per worker.
+class AutopilotPlayer implements CampaignPlayer {
+    enum Skill {
+        WEAK(0, 0.10, 0.5, false),   // no look-ahead: MoveSelector.SPECIAL_WHEN_READY
+        AVERAGE(1, 0.05, 0.8, false),
+        STRONG(2, 0.0, 1.0, true);
+
+        final int turnsAhead;
+        final double blunderRate;
+        final double quizAccuracy;
+        final boolean optimizeGear;
+
+        Skill(int turnsAhead, double blunderRate, double quizAccuracy, boolean optimizeGear) {
+            this.turnsAhead = turnsAhead;
+            this.blunderRate = blunderRate;
+            this.quizAccuracy = quizAccuracy;
+            this.optimizeGear = optimizeGear;
+        }
+    }
+
+    static final int MAX_TURNS_AHEAD = 8;
+    private static final int[] MOVES = {BattleEngine.SPECIAL, BattleEngine.ATTACK, BattleEngine.HEAL, BattleEngine.DEFEND};
+    private static final int TABLE_SIZE = 1 << 16;
+    private static final double LOSS = -2.0;
+
+    private final int turnsAhead;
+    private final double blunderRate;
+    private final double quizAccuracy;
+    private final boolean optimizeGear;
+    private final long seed;
+
+    // Memo table
+    private final long[] keys = new long[TABLE_SIZE];
+    private final double[] values = new double[TABLE_SIZE];
+
+    // Battle constants, set by battleStarted
+    private Monster[] monsters;
+    private int count;
+    private int[] monsterMaxHealth;
+    private int[] monsterSpecial;
+    private int[] monsterDefense;
+    private int[] monsterCooldownTime;
+    private long totalMonsterHealth;
+    private int playerMaxHealth;
+    private int playerAttack;
+    private int playerSpecial;
+    private int playerHits;
+    private int playerCooldownTime;
+    private int playerArmor;
+    private boolean stoneSkin;
+    private double effectChance;
+    private long salt;
+    private int turn; // player turns so far this battle
+
+    // Look-ahead stack: the player's and the monsters' snapshots per ply
+    private final long[] players = new long[MAX_TURNS_AHEAD + 2];
+    private long[][] monsterStates;
+
+    public AutopilotPlayer(Skill skill, long seed) {
+        this(skill.turnsAhead, skill.blunderRate, skill.quizAccuracy, skill.optimizeGear, seed);
+    }
+
+    public AutopilotPlayer(int turnsAhead, double blunderRate, double quizAccuracy, boolean optimizeGear, long seed) {
+        if (turnsAhead < 0 || turnsAhead > MAX_TURNS_AHEAD) {
+            throw new IllegalArgumentException("turnsAhead must be 0-" + MAX_TURNS_AHEAD + ": " + turnsAhead);
+        }
+        this.turnsAhead = turnsAhead;
+        this.blunderRate = blunderRate;
+        this.quizAccuracy = quizAccuracy;
+        this.optimizeGear = optimizeGear;
+        this.seed = seed;
+    }
+
+    // "autopilot" (average), "autopilot-weak" or "autopilot-strong"; null for other names
+    static Skill skillByName(String name) {
+        switch (name.toLowerCase()) {
+            case "autopilot": return Skill.AVERAGE;
+            case "autopilot-weak": return Skill.WEAK;
+            case "autopilot-strong": return Skill.STRONG;
+            default: return null;
+        }
+    }
+
+    // --- Battle ---
+    @Override
+    public void battleStarted(PlayerCharacter player, Monster[] monsters) {
+        this.monsters = monsters;
+        count = monsters.length;
+        monsterMaxHealth = new int[count];
+        monsterSpecial = new int[count];
+        monsterDefense = new int[count];
+        monsterCooldownTime = new int[count];
+        totalMonsterHealth = 0;
+        for (int m = 0; m < count; m++) {
+            monsterMaxHealth[m] = monsters[m].getMaxHealth();
+            monsterSpecial[m] = (int) (monsters[m].getBaseAttack() * 1.8); // Monster.specialAttack
+            monsterDefense[m] = monsters[m].getTotalDefense();
+            monsterCooldownTime[m] = monsters[m].getSpecialCooldownTime();
+            totalMonsterHealth += monsterMaxHealth[m];
+        }
+        playerMaxHealth = player.getMaxHealth();
+        playerAttack = player.getBaseAttack() + player.getEquippedWeapon().getAttackModifier();
+        playerSpecial = (int) (playerAttack * player.getSpecialMultiplier());
+        playerHits = player.getSpecialHits();
+        playerCooldownTime = player.getSpecialCooldownTime();
+        playerArmor = player.getEquippedArmor().getDefenseModifier();
+        stoneSkin = player instanceof Dwarf;
+        effectChance = Math.min(1.0, player.getEquippedWeapon().getSpecialEffectChance());
+        salt = mix(salt + 0x9E3779B97F4A7C15L);
+        turn = 0;
+        if (monsterStates == null || monsterStates[0].length != count) {
+            monsterStates = new long[players.length][count];
+        }
+    }
+
+    @Override
+    public int chooseMove(PlayerCharacter player, Monster target) {
+        // Horde battles do not announce a roster
+        if (monsters == null) return MoveSelector.SPECIAL_WHEN_READY.chooseMove(player, target);
+
+        players[0] = CharacterSnapshot.of(player);
+        int rootTarget = -1;
+        for (int m = 0; m < count; m++) {
+            monsterStates[0][m] = CharacterSnapshot.of(monsters[m]);
+            settle(0, m);
+            if (monsters[m] == target) rootTarget = m;
+        }
+        if (rootTarget < 0) rootTarget = firstLive(0);
+
+        // The turn number keeps a repeated position from repeating the same blunder forever
+        long position = positionHash(0, seed + turn++);
+        if (blunderRate > 0 && fraction(position) < blunderRate) {
+            int legal = legalMoves(players[0]) | 1 << BattleEngine.DEFEND;
+            int pick = (int) (mix(position + 1) >>> 33) % Integer.bitCount(legal);
+            for (int move : MOVES) {
+                if ((legal & 1 << move) != 0 && pick-- == 0) return move;
+            }
+        }
+
+        if (turnsAhead == 0) return MoveSelector.SPECIAL_WHEN_READY.chooseMove(player, target);
+
+        int best = BattleEngine.ATTACK;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        int legal = legalMoves(players[0]);
+        for (int move : MOVES) {
+            if ((legal & 1 << move) == 0) continue;
+            double value = moveValue(0, move, rootTarget, turnsAhead);
+            if (value > bestValue) {
+                bestValue = value;
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    // --- Look-ahead ---
+    // Best value for the player at ply, with the player to move and turns player turns to search
+    private double search(int ply, int turns) {
+        if (turns == 0) return evaluate(ply);
+        long key = hash(ply, turns);
+        int slot = (int) key & (TABLE_SIZE - 1);
+        if (keys[slot] == key) return values[slot];
+
+        int target = firstLive(ply);
+        int legal = legalMoves(players[ply]);
+        double best = Double.NEGATIVE_INFINITY;
+        for (int move : MOVES) {
+            if ((legal & 1 << move) != 0) best = Math.max(best, moveValue(ply, move, target, turns));
+        }
+        keys[slot] = key;
+        values[slot] = best;
+        return best;
+    }
+
+    // Expected value of a move, over the weapon effect roll
+    private double moveValue(int ply, int move, int target, int turns) {
+        copy(ply);
+        playerMove(ply + 1, move, target);
+        if (firstLive(ply + 1) < 0) return win(ply + 1);
+        // A stun only matters to a monster that will special again
+        boolean rollMatters = effectChance > 0 && !settle(ply + 1, target);
+        double miss = monstersAndEndTurn(ply + 1, turns);
+        if (!rollMatters) return miss;
+
+        copy(ply);
+        playerMove(ply + 1, move, target);
+        long[] monsterState = monsterStates[ply + 1];
+        monsterState[target] = CharacterSnapshot.withSpecialCooldown(monsterState[target], monsterCooldownTime[target] + 1);
+        double hit = monstersAndEndTurn(ply + 1, turns);
+        return effectChance * hit + (1 - effectChance) * miss;
+    }
+
+    // MonsterAI.RULES for every live monster, then the player's endTurn and the next turn
+    private double monstersAndEndTurn(int ply, int turns) {
+        long player = players[ply];
+        long[] monsterState = monsterStates[ply];
+        for (int m = 0; m < count; m++) {
+            long monster = monsterState[m];
+            if (CharacterSnapshot.isDefeated(monster)) continue;
+            if (CharacterSnapshot.specialCooldown(monster) == 0 && CharacterSnapshot.health(monster) > monsterMaxHealth[m] * 0.5) {
+                player = hitPlayer(player, monsterSpecial[m]);
+                monster = CharacterSnapshot.withSpecialCooldown(monster, monsterCooldownTime[m]);
+                if (CharacterSnapshot.isDefeated(player)) return LOSS;
+            }
+            monsterState[m] = CharacterSnapshot.endTurn(monster);
+        }
+        players[ply] = CharacterSnapshot.endTurn(player);
+        return search(ply, turns - 1);
+    }
+
+    // Winning with more health left is better, since health carries over to the next level
+    private double win(int ply) {
+        return 1.0 + (double) CharacterSnapshot.health(players[ply]) / playerMaxHealth;
+    }
+
+    private double evaluate(int ply) {
+        long monsterHealth = 0;
+        for (int m = 0; m < count; m++) {
+            monsterHealth += CharacterSnapshot.health(monsterStates[ply][m]);
+        }
+        return (double) CharacterSnapshot.health(players[ply]) / playerMaxHealth - (double) monsterHealth / totalMonsterHealth;
+    }
+
+    // --- Rules (same as AbstractCharacter and the character classes) ---
+    // Defend is only searched when Heal is not ready: a heal makes the player invulnerable,
+    // which beats halving the damage
+    private static int legalMoves(long player) {
+        int legal = 1 << BattleEngine.ATTACK;
+        if (CharacterSnapshot.specialCooldown(player) == 0) legal |= 1 << BattleEngine.SPECIAL;
+        if (CharacterSnapshot.healCooldown(player) == 0) {
+            legal |= 1 << BattleEngine.HEAL;
+        } else {
+            legal |= 1 << BattleEngine.DEFEND;
+        }
+        return legal;
+    }
+
+    private void playerMove(int ply, int move, int target) {
+        long player = players[ply];
+        switch (move) {
+            case BattleEngine.ATTACK:
+                hitMonster(ply, target, playerAttack);
+                break;
+            case BattleEngine.HEAL:
+                player = heal(player);
+                break;
+            case BattleEngine.DEFEND:
+                player = CharacterSnapshot.defending(player);
+                break;
+            case BattleEngine.SPECIAL:
+                if (stoneSkin) {
+                    player = heal(player);
+                    player = CharacterSnapshot.withBaseDefense(player, CharacterSnapshot.baseDefense(player) + 50);
+                } else {
+                    for (int h = 0; h < playerHits; h++) {
+                        hitMonster(ply, target, playerSpecial);
+                    }
+                }
+                player = CharacterSnapshot.withSpecialCooldown(player, playerCooldownTime);
+                break;
+        }
+        players[ply] = player;
+    }
+
+    private long heal(long player) {
+        if (CharacterSnapshot.healCooldown(player) > 0) return player;
+        player = CharacterSnapshot.withHealth(player, Math.min(playerMaxHealth, CharacterSnapshot.health(player) + (int) (playerMaxHealth * 0.15)));
+        return CharacterSnapshot.withHealCooldown(CharacterSnapshot.invulnerable(player), 1);
+    }
+
+    // A monster's stance and invulnerability always end before the player's turn
+    private void hitMonster(int ply, int m, int damage) {
+        long monster = monsterStates[ply][m];
+        int effective = Math.max(1, damage - monsterDefense[m]);
+        monsterStates[ply][m] = CharacterSnapshot.withHealth(monster, CharacterSnapshot.health(monster) - effective);
+    }
+
+    private long hitPlayer(long player, int damage) {
+        if (CharacterSnapshot.isInvulnerable(player)) return player;
+        double reductionFactor = CharacterSnapshot.isDefending(player) ? 0.5 : 1.0;
+        int defense = CharacterSnapshot.baseDefense(player) + playerArmor;
+        int effective = Math.max(1, (int) (damage * reductionFactor) - defense);
+        return CharacterSnapshot.withHealth(player, CharacterSnapshot.health(player) - effective);
+    }
+
+    // Under MonsterAI.RULES a monster at half health or less never specials again (monsters do
+    // not heal), so its cooldown is cleared to let equivalent positions share memo entries.
+    // Returns true if the monster is settled that way or defeated.
+    private boolean settle(int ply, int m) {
+        long monster = monsterStates[ply][m];
+        if (CharacterSnapshot.health(monster) > monsterMaxHealth[m] * 0.5) return false;
+        monsterStates[ply][m] = CharacterSnapshot.withSpecialCooldown(monster, 0);
+        return true;
+    }
+
+    private int firstLive(int ply) {
+        for (int m = 0; m < count; m++) {
+            if (!CharacterSnapshot.isDefeated(monsterStates[ply][m])) return m;
+        }
+        return -1;
+    }
+
+    private void copy(int ply) {
+        players[ply + 1] = players[ply];
+        System.arraycopy(monsterStates[ply], 0, monsterStates[ply + 1], 0, count);
+    }
+
+    private long hash(int ply, int turns) {
+        return positionHash(ply, salt + turns);
+    }
+
+    // Same for the same snapshots in any battle when start is fixed
+    private long positionHash(int ply, long start) {
+        long h = mix(start ^ players[ply]);
+        for (int m = 0; m < count; m++) {
+            h = mix(h ^ monsterStates[ply][m]);
+        }
+        return h;
+    }
+
+    // --- Between Levels ---
+    @Override
+    public boolean equipWeapon(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Weapon found) {
+        if (optimizeGear) return EquipOptimizer.SHARED.shouldEquip(difficulty, player, nextLevel, found);
+        return found.getAttackModifier() > player.getEquippedWeapon().getAttackModifier();
+    }
+
+    @Override
+    public boolean equipArmor(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Armor found) {
+        if (optimizeGear) return EquipOptimizer.SHARED.shouldEquip(difficulty, player, nextLevel, found);
+        return found.getDefenseModifier() > player.getEquippedArmor().getDefenseModifier();
+    }
+
+    @Override
+    public int storedWeapon(int level, DifficultyTable difficulty, PlayerCharacter player) {
+        if (optimizeGear) return EquipOptimizer.SHARED.bestWeaponSlot(difficulty, player, level);
+        Inventory inventory = player.getInventory();
+        int best = inventory.bestWeapon();
+        return inventory.getWeapon(best).getAttackModifier() > player.getEquippedWeapon().getAttackModifier() ? best : -1;
+    }
+
+    @Override
+    public int storedArmor(int level, DifficultyTable difficulty, PlayerCharacter player) {
+        if (optimizeGear) return EquipOptimizer.SHARED.bestArmorSlot(difficulty, player, level);
+        Inventory inventory = player.getInventory();
+        int best = inventory.bestArmor();
+        return inventory.getArmor(best).getDefenseModifier() > player.getEquippedArmor().getDefenseModifier() ? best : -1;
+    }
+
+    @Override
+    public String answerQuiz(int level, String question) {
+        String answer = Campaign.quizAnswer(level);
+        if (fraction(mix(seed + level) ^ question.hashCode() ^ players[0]) < quizAccuracy) return answer;
+        return answer.equals("A") ? "B" : "A";
+    }
+
+    // Uniform in [0, 1) from a hash
+    private static double fraction(long key) {
+        return (mix(key) >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
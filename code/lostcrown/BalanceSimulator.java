@@ -0,0 +1,162 @@
+package lostcrown;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+// --- Monte Carlo Balance Runner ---
+// Plays complete headless campaigns for every class under a SimulatedPlayer policy, split
+// across all cores with fork/join, and reports win rate, death levels and battle length.
+// Usage: java lostcrown.BalanceSimulator [campaignsPerClass] [masher|casual|expert|optimizer|autopilot-weak|autopilot|autopilot-strong] [seed] [rules|search]
+class BalanceSimulator {
+    static final String[] CLASS_NAMES = {"Knight", "Mage", "Archer", "Assassin", "Dwarf"};
+    static final int LEAF_SIZE = 2048; // campaigns per fork/join leaf
+    private static final int MAX_TRACKED_TURNS = 256; // longer battles share the last histogram bucket
+
+    private final Supplier<CampaignPlayer> policies; // one policy per worker range
+    private final long seed;
+    private final ForkJoinPool pool;
+    private Supplier<MonsterAI> monsterAI = () -> MonsterAI.RULES; // one AI per worker range
+    private DifficultyTable difficulty = DifficultyTable.DEFAULT;
+
+    public BalanceSimulator(CampaignPlayer policy, long seed, ForkJoinPool pool) {
+        this(() -> policy, seed, pool);
+    }
+
+    public BalanceSimulator(Supplier<CampaignPlayer> policies, long seed, ForkJoinPool pool) {
+        this.policies = policies;
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    public void setMonsterAI(Supplier<MonsterAI> monsterAI) { this.monsterAI = monsterAI; }
+    public void setDifficulty(DifficultyTable difficulty) { this.difficulty = difficulty; }
+
+    // classChoice uses the character menu numbering (1-5)
+    public Stats run(int classChoice, int campaigns) {
+        return run(classChoice, 0, campaigns);
+    }
+
+    // Campaigns from..to-1 of the seed's sequence, so consecutive ranges extend one sample
+    public Stats run(int classChoice, int from, int to) {
+        return run(difficulty, classChoice, from, to);
+    }
+
+    // The same range against another table; the simulator's own table is left alone
+    public Stats run(DifficultyTable difficulty, int classChoice, int from, int to) {
+        return pool.invoke(new SweepTask(difficulty, classChoice, from, to));
+    }
+
+    // Aggregated results for one class; merged bottom-up by the fork/join tasks
+    static class Stats {
+        long campaigns;
+        long wins;
+        final long[] deathsByLevel = new long[Campaign.MAX_LEVELS + 1];
+        final long[] turnHistogram = new long[MAX_TRACKED_TURNS + 1];
+        long battles;
+
+        void merge(Stats other) {
+            campaigns += other.campaigns;
+            wins += other.wins;
+            battles += other.battles;
+            for (int i = 0; i < deathsByLevel.length; i++) deathsByLevel[i] += other.deathsByLevel[i];
+            for (int i = 0; i < turnHistogram.length; i++) turnHistogram[i] += other.turnHistogram[i];
+        }
+
+        double winRate() {
+            return campaigns == 0 ? 0 : (double) wins / campaigns;
+        }
+
+        // Turns-per-battle percentile, p in [0, 1]
+        int turnPercentile(double p) {
+            long rank = (long) Math.ceil(p * battles);
+            long seen = 0;
+            for (int turns = 0; turns < turnHistogram.length; turns++) {
+                seen += turnHistogram[turns];
+                if (seen >= rank && seen > 0) return turns;
+            }
+            return MAX_TRACKED_TURNS;
+        }
+    }
+
+    private class SweepTask extends RecursiveTask<Stats> {
+        private final DifficultyTable difficulty;
+        private final int classChoice;
+        private final int from;
+        private final int to;
+
+        SweepTask(DifficultyTable difficulty, int classChoice, int from, int to) {
+            this.difficulty = difficulty;
+            this.classChoice = classChoice;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= LEAF_SIZE) {
+                return playRange();
+            }
+            int mid = (from + to) >>> 1;
+            SweepTask left = new SweepTask(difficulty, classChoice, from, mid);
+            left.fork();
+            Stats stats = new SweepTask(difficulty, classChoice, mid, to).compute();
+            stats.merge(left.join());
+            return stats;
+        }
+
+        private Stats playRange() {
+            Stats stats = new Stats();
+            RandomStreams classStreams = new RandomStreams(seed).child(classChoice);
+            Campaign campaign = new Campaign(policies.get(), CombatEventBus.DISABLED, classStreams, difficulty);
+            campaign.getBattleEngine().setMonsterAI(monsterAI.get());
+            for (int i = from; i < to; i++) {
+                // Streams per campaign so results do not depend on how the range was split
+                campaign.setStreams(classStreams.child(i));
+                int result = campaign.run(Campaign.newCharacter(classChoice, "Sim"));
+
+                stats.campaigns++;
+                int lastLevel = result == Campaign.VICTORY ? Campaign.MAX_LEVELS : result;
+                if (result == Campaign.VICTORY) {
+                    stats.wins++;
+                } else {
+                    stats.deathsByLevel[result]++;
+                }
+                for (int level = 1; level <= lastLevel; level++) {
+                    stats.turnHistogram[Math.min(campaign.getLevelTurns(level), MAX_TRACKED_TURNS)]++;
+                    stats.battles++;
+                }
+            }
+            return stats;
+        }
+    }
+
+    static void printReport(String className, Stats stats) {
+        System.out.printf("%-9s win %6.2f%% | turns p50 %3d p90 %3d p99 %3d | deaths by level:",
+                className, stats.winRate() * 100, stats.turnPercentile(0.50), stats.turnPercentile(0.90), stats.turnPercentile(0.99));
+        for (int level = 1; level <= Campaign.MAX_LEVELS; level++) {
+            System.out.printf(" %d:%.1f%%", level, 100.0 * stats.deathsByLevel[level] / Math.max(1, stats.campaigns));
+        }
+        System.out.println();
+    }
+
+    public static void main(String[] args) {
+        int campaignsPerClass = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        Supplier<CampaignPlayer> policy = SimulatedPlayer.policies(args.length > 1 ? args[1] : "casual", seed);
+        String monsterAI = args.length > 3 ? args[3] : "rules";
+        MonsterAI.byName(monsterAI); // reject a bad name before starting
+
+        BalanceSimulator simulator = new BalanceSimulator(policy, seed, ForkJoinPool.commonPool());
+        simulator.setMonsterAI(() -> MonsterAI.byName(monsterAI));
+        System.out.println("Simulating " + campaignsPerClass + " campaigns per class on "
+                + ForkJoinPool.commonPool().getParallelism() + " worker(s), seed " + seed);
+
+        long start = System.nanoTime();
+        for (int choice = 1; choice <= CLASS_NAMES.length; choice++) {
+            printReport(CLASS_NAMES[choice - 1], simulator.run(choice, campaignsPerClass));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Done: %d campaigns in %.2f s%n", (long) campaignsPerClass * CLASS_NAMES.length, seconds);
+    }
+}
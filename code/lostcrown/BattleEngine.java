@@ -0,0 +1,370 @@
+package lostcrown;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.ForkJoinPool;
+
+// --- Headless Battle Engine ---
+// Resolves a full battle with the same rules as the interactive game. Player moves come
+// from a MoveSelector and monster moves from a MonsterAI. All combat output is published as
+// CombatEvents, so the console is just one front-end and simulations can run with
+// MoveSelector policies and a disabled bus.
+//
+// Status effects run on one TimingWheel per engine that ticks once per round, after the
+// player's endTurn. Every decision an effect can change is taken on the player's turn or on
+// the affected monster's own turn, so expiring at the round boundary gives the same battles
+// as clearing each character's effects at its own endTurn.
+//
+// Turn order comes from a TurnScheduler: the player is actor 0 and monster i is actor i + 1.
+// At the standard speed everyone acts once per round, the player first and the monsters in
+// array order, which is the classic loop; faster or slower characters act more or less often.
+// Speeds are read with status effects applied: a Freeze landing on the player's turn halves
+// the target's speed at once, pushing back the turn it has booked, and the speed is restored
+// from its next turn on once the Freeze wears off at a round's end. Knight's Shield Bash
+// staggers its target, which then loses its turns for the rest of the round.
+class BattleEngine {
+    static final int ATTACK = 1;
+    static final int HEAL = 2;
+    static final int DEFEND = 3;
+    static final int SPECIAL = 4;
+    static final int FORCED_ATTACK = -1; // input could not be read, attack without a weapon effect roll
+    private static final int PLAYER = 0;  // TurnScheduler id; monster i is i + 1
+
+    private final MoveSelector moves;
+    private final CombatEventBus events;
+    private RandomGenerator random; // weapon effect rolls
+    private final TimingWheel statusClock = new TimingWheel();
+    private final TurnScheduler turns = new TurnScheduler();
+    private TargetingStrategy targeting = TargetingStrategy.FIRST;
+    private MonsterAI monsterAI = MonsterAI.RULES;
+    private ForkJoinPool hordePool = ForkJoinPool.commonPool(); // null: horde phases run one by one
+    private int lastTurnCount;
+
+    // Per battle: actors whose speed an effect has changed, until it is back to their own
+    private IntUnaryOperator baseSpeed;
+    private IntUnaryOperator currentSpeed;
+    private int actorCount;
+    private int[] changed = new int[8];
+    private int changedCount;
+    private boolean[] isChanged = new boolean[0];
+
+    public BattleEngine(MoveSelector moves, CombatEventBus events, RandomGenerator random) {
+        this.moves = moves;
+        this.events = events;
+        this.random = random;
+    }
+
+    public int getLastTurnCount() { return lastTurnCount; }
+    public TargetingStrategy getTargeting() { return targeting; }
+    public void setTargeting(TargetingStrategy targeting) { this.targeting = targeting; }
+    public MonsterAI getMonsterAI() { return monsterAI; }
+    public void setMonsterAI(MonsterAI monsterAI) { this.monsterAI = monsterAI; }
+    public ForkJoinPool getHordePool() { return hordePool; }
+    public void setHordePool(ForkJoinPool hordePool) { this.hordePool = hordePool; }
+    public void setRandom(RandomGenerator random) { this.random = random; }
+
+    // Returns true if the player wins
+    public boolean fight(PlayerCharacter player, Monster[] monsters) {
+        player.setEvents(events);
+        player.setStatusClock(statusClock);
+        for (Monster monster : monsters) {
+            monster.setEvents(events);
+            monster.setStatusClock(statusClock);
+        }
+        lastTurnCount = 0;
+        events.publish(CombatEvent.Type.BATTLE_START, null, monsters.length, 0);
+        moves.battleStarted(player, monsters);
+        monsterAI.battleStarted(player, monsters);
+
+        LiveIndex live = LiveIndex.of(monsters);
+        startSpeeds(monsters.length + 1,
+                id -> id == PLAYER ? player.getSpeed() : monsters[id - 1].getSpeed(),
+                id -> id == PLAYER ? player.getCurrentSpeed() : monsters[id - 1].getCurrentSpeed());
+        turns.clear();
+        turns.add(PLAYER, player.getCurrentSpeed());
+        for (int i = live.first(); i >= 0; i = live.next(i + 1)) {
+            turns.add(i + 1, monsters[i].getCurrentSpeed());
+        }
+        int[] phase = new int[monsters.length];
+        int pending = -1; // the player, when gathering a monster phase ran into its turn
+        long round = 0;
+        while (!player.isDefeated() && !live.isEmpty()) {
+            int actor = pending >= 0 ? pending : turns.next();
+            pending = -1;
+            for (; round < turns.round(); round++) {
+                endRound(player);
+            }
+
+            if (actor == PLAYER) {
+                // 1. Player Turn
+                lastTurnCount++;
+                if (staggered(player)) continue;
+                int targetIndex = targeting.select(live, monsters);
+                Monster target = monsters[targetIndex];
+                publishTurnHeader(player, target);
+                playerTurn(player, target, moves.chooseMove(player, target));
+                if (target.isDefeated()) {
+                    live.remove(targetIndex);
+                    turns.remove(targetIndex + 1);
+                } else {
+                    speedChanged(targetIndex + 1, target.getCurrentSpeed());
+                }
+
+                if (player.isDefeated()) return lost(player, monsters);
+            } else {
+                // 2. Monster Turn: every monster due now, as one phase for the MonsterAI
+                int count = 0;
+                do {
+                    phase[count++] = actor - 1;
+                } while ((actor = turns.nextIfDue()) > PLAYER);
+                pending = actor;
+                monsterAI.phaseStarted(count);
+                for (int k = 0; k < count; k++) {
+                    int i = phase[k];
+                    Monster monster = monsters[i];
+                    if (!staggered(monster)) {
+                        events.publish(CombatEvent.Type.MONSTER_TURN, monster.getName(), monster.getHealth(), 0);
+                        monsterTurn(monster, player, monsterAI.chooseMove(player, monsters, live, i));
+                    }
+
+                    monster.endTurn();
+                    if (player.isDefeated()) return lost(player, monsters);
+                }
+            }
+        }
+        if (lastTurnCount > 0) endRound(player); // the winning round still ends
+
+        endBattle(player, monsters);
+        events.narrate("\n*** BATTLE WON! ***");
+        events.flush();
+        return true;
+    }
+
+    // Same rules against a structure-of-arrays horde. Monsters always use the MonsterAI.RULES
+    // rule here: hordes are far too large to search within a turn budget. All members due at
+    // the same moment act as one monster phase, which large hordes resolve across hordePool
+    // (see Horde.actAll) with the same outcome as acting one by one.
+    public boolean fight(PlayerCharacter player, Horde horde) {
+        player.setEvents(events);
+        horde.setEvents(events);
+        player.setStatusClock(statusClock);
+        horde.setStatusClock(statusClock);
+        lastTurnCount = 0;
+        events.publish(CombatEvent.Type.BATTLE_START, null, horde.size(), 0);
+
+        Horde.Member target = horde.new Member();
+        target.setEvents(events);
+        LiveIndex live = LiveIndex.of(horde);
+        startSpeeds(horde.size() + 1,
+                id -> id == PLAYER ? player.getSpeed() : horde.getSpeed(id - 1),
+                id -> id == PLAYER ? player.getCurrentSpeed() : horde.getCurrentSpeed(id - 1));
+        turns.clear();
+        turns.add(PLAYER, player.getCurrentSpeed());
+        for (int i = live.first(); i >= 0; i = live.next(i + 1)) {
+            turns.add(i + 1, horde.getCurrentSpeed(i));
+        }
+        int[] phase = new int[horde.size()];
+        int pending = -1; // the player, when gathering a monster phase ran into its turn
+        long round = 0;
+        while (!player.isDefeated() && !live.isEmpty()) {
+            int actor = pending >= 0 ? pending : turns.next();
+            pending = -1;
+            for (; round < turns.round(); round++) {
+                endRound(player);
+            }
+
+            if (actor == PLAYER) {
+                // 1. Player Turn
+                lastTurnCount++;
+                if (staggered(player)) continue;
+                int targetIndex = targeting.select(live, horde);
+                target.bind(targetIndex);
+                publishTurnHeader(player, target);
+                playerTurn(player, target, moves.chooseMove(player, target));
+                if (horde.isDefeated(targetIndex)) {
+                    live.remove(targetIndex);
+                    turns.remove(targetIndex + 1);
+                } else {
+                    speedChanged(targetIndex + 1, horde.getCurrentSpeed(targetIndex));
+                }
+
+                if (player.isDefeated()) return lost(player, horde);
+            } else {
+                // 2. Monster Turn: every member due now; staggered members lose their action
+                int count = 0;
+                do {
+                    phase[count++] = actor - 1;
+                } while ((actor = turns.nextIfDue()) > PLAYER);
+                pending = actor;
+                if (monsterPhase(player, horde, phase, count)) return lost(player, horde);
+            }
+        }
+        if (lastTurnCount > 0) endRound(player);
+
+        endBattle(player, horde);
+        events.narrate("\n*** BATTLE WON! ***");
+        events.flush();
+        return true;
+    }
+
+    // Members act in order until the player falls; returns true if it did. Split across the
+    // pool only when there is more than one worker: on a single core the extra pass costs more
+    // than the one-by-one loop.
+    private boolean monsterPhase(PlayerCharacter player, Horde horde, int[] members, int count) {
+        if (hordePool != null && hordePool.getParallelism() > 1 && count >= Horde.PARALLEL_THRESHOLD && !events.isEnabled()) {
+            horde.actAll(members, count, player, hordePool);
+            return player.isDefeated();
+        }
+        for (int k = 0; k < count; k++) {
+            int i = members[k];
+            if (horde.isStaggered(i)) {
+                if (events.isEnabled()) events.narrate("-> " + horde.getName(i) + " is staggered and loses the turn.");
+            } else {
+                if (events.isEnabled()) events.publish(CombatEvent.Type.MONSTER_TURN, horde.getName(i), horde.getHealth(i), 0);
+                if (horde.wantsSpecial(i)) {
+                    horde.specialAttack(i, player);
+                } else {
+                    horde.defend(i);
+                }
+            }
+
+            horde.endTurn(i);
+            if (player.isDefeated()) return true;
+        }
+        return false;
+    }
+
+    // 3. End Turn Cleanup, once per round that passed: the player's cooldowns, then the
+    // status clock, then the speeds of actors whose slowing effect may have worn off. The
+    // player's stance has to last through the monsters' turns, so unlike a monster's its
+    // endTurn waits for the round to end.
+    private void endRound(PlayerCharacter player) {
+        player.endTurn();
+        statusClock.tick();
+        for (int k = changedCount - 1; k >= 0; k--) {
+            int actor = changed[k];
+            int speed = currentSpeed.applyAsInt(actor);
+            if (turns.contains(actor)) speedChanged(actor, speed);
+            if (!turns.contains(actor) || speed == baseSpeed.applyAsInt(actor)) {
+                isChanged[actor] = false;
+                changed[k] = changed[--changedCount];
+            }
+        }
+    }
+
+    // --- Speed ---
+
+    private void startSpeeds(int actors, IntUnaryOperator base, IntUnaryOperator current) {
+        for (int k = 0; k < changedCount; k++) {
+            if (changed[k] < isChanged.length) isChanged[changed[k]] = false;
+        }
+        changedCount = 0;
+        actorCount = actors;
+        baseSpeed = base;
+        currentSpeed = current;
+    }
+
+    // Forward the actor's current speed to the scheduler. Slowing down pushes the turn it has
+    // booked back by the extra ticks; speeding up takes effect from its next turn.
+    private void speedChanged(int actor, int speed) {
+        int before = turns.intervalOf(actor);
+        int after = TurnScheduler.interval(speed);
+        if (after == before) return;
+        turns.setSpeed(actor, speed);
+        turns.delay(actor, after - before);
+        if (isChanged.length < actorCount) isChanged = new boolean[actorCount];
+        if (isChanged[actor]) return;
+        if (changedCount == changed.length) changed = Arrays.copyOf(changed, changedCount * 2);
+        isChanged[actor] = true;
+        changed[changedCount++] = actor;
+    }
+
+    // A turn-skipping effect (STAGGERED) costs the character its action; time still passes
+    private boolean staggered(AbstractCharacter character) {
+        if (!character.getStatusEffects().skipsTurn()) return false;
+        events.narrate("-> " + character.getName() + " is staggered and loses the turn.");
+        return true;
+    }
+
+    private boolean lost(PlayerCharacter player, Monster[] monsters) {
+        endBattle(player, monsters);
+        events.flush();
+        return false;
+    }
+
+    private boolean lost(PlayerCharacter player, Horde horde) {
+        endBattle(player, horde);
+        events.flush();
+        return false;
+    }
+
+    // Timed effects do not outlast the battle; permanent ones (Stone Skin) stay
+    private void endBattle(PlayerCharacter player, Monster[] monsters) {
+        statusClock.expireAll();
+        player.setStatusClock(null);
+        for (Monster monster : monsters) {
+            monster.setStatusClock(null);
+        }
+    }
+
+    private void endBattle(PlayerCharacter player, Horde horde) {
+        statusClock.expireAll();
+        player.setStatusClock(null);
+        horde.setStatusClock(null);
+    }
+
+    private void publishTurnHeader(PlayerCharacter player, Monster target) {
+        if (!events.isEnabled()) return;
+        events.publish(CombatEvent.Type.PLAYER_TURN, player.getName(), player.getHealth(), player.getMaxHealth());
+        events.publish(CombatEvent.Type.PLAYER_STATUS, null, null, player.getTotalDefense(), 0, player.getEquippedWeapon().getName(), null);
+        events.publish(CombatEvent.Type.TARGET, null, target.getName(), target.getHealth(), 0, null, null);
+    }
+
+    private void playerTurn(PlayerCharacter player, Monster target, int choice) {
+        if (choice == FORCED_ATTACK) {
+            events.narrate("🚨 Invalid input. Forcing Attack.");
+            target.takeDamage(player.basicAttack());
+            return;
+        }
+
+        switch (choice) {
+            case ATTACK:
+                target.takeDamage(player.basicAttack());
+                break;
+            case HEAL:
+                player.heal();
+                break;
+            case DEFEND:
+                player.defend();
+                break;
+            case SPECIAL:
+                player.specialAttack(target);
+                break;
+            default:
+                events.narrate("-> Invalid move, attacking instead.");
+                target.takeDamage(player.basicAttack());
+        }
+
+        // Check for weapon special effects
+        Weapon weapon = player.getEquippedWeapon();
+        if (weapon.getSpecialEffectChance() > random.nextDouble() && !target.isDefeated()) {
+            if (events.isEnabled()) events.publish(CombatEvent.Type.EFFECT_APPLIED, null, target.getName(), 0, 0, weapon.getSpecialEffect(), null);
+            target.applyEffect(StatusEffect.ofWeapon(weapon), target.getSpecialCooldownTime() + 1);
+        }
+    }
+
+    private void monsterTurn(Monster monster, PlayerCharacter player, int choice) {
+        switch (choice) {
+            case SPECIAL:
+                monster.specialAttack(player);
+                break;
+            case ATTACK:
+                if (events.isEnabled()) events.publish(CombatEvent.Type.BASIC_ATTACK, monster.getName(), 0, 0);
+                player.takeDamage(monster.basicAttack());
+                break;
+            default:
+                monster.defend();
+        }
+    }
+}
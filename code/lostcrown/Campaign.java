@@ -0,0 +1,309 @@
+package lostcrown;
+
+import java.util.random.RandomGenerator;
+
+// --- Campaign (Level Progression) ---
+// Headless version of the 15-level run: battles, loot and quizzes. Decisions come from a
+// CampaignPlayer and narration goes to a CombatEventBus, so the same rules drive the console
+// game and the balance simulator. Each level's battle rolls and loot come from their own
+// RandomStreams substreams, so a run resumed at a level plays the same dice as one that got
+// there without stopping. Loot the player passes on goes to the inventory, and before each
+// battle the player may swap in a stored weapon or armor (without the +50 Max Health that
+// newly found armor gives).
+class Campaign {
+    static final int MAX_LEVELS = 15;
+    static final int VICTORY = 0; // run() result when the crown is retrieved
+
+    // Arrays updated with more names
+    static final String[] WEAPON_PREFIXES = {"Rusty", "Iron", "Sharp", "Ancient", "Obsidian", "Mythic", "Vicious", "Grim", "Shadow", "Holy"};
+    static final String[] WEAPON_SUFFIXES = {"Blade", "Dagger", "Axe", "Saber", "Reaver", "Longsword", "Cutter", "Katana"};
+    static final String[] ARMOR_PREFIXES = {"Leather", "Plate", "Scaled", "Mythril", "Steel", "Draconic", "Worn", "Reinforced"};
+    static final String[] ARMOR_SUFFIXES = {"Vest", "Cuirass", "Chestplate", "Tunic", "Mail", "Robe"};
+
+    private final CampaignPlayer controller;
+    private final CombatEventBus events;
+    private final DifficultyTable difficulty; // rosters for every level of this campaign
+    private RandomStreams streams;
+    private final BattleEngine battleEngine;
+    private final int[] levelTurns = new int[MAX_LEVELS + 1]; // turns taken by each level's battle in the last run
+    private Checkpoint checkpoint;
+
+    // Called after a level's rewards and quiz, before the next level starts
+    interface Checkpoint {
+        void levelCompleted(PlayerCharacter player, int nextLevel);
+    }
+
+    public Campaign(CampaignPlayer controller, CombatEventBus events, RandomStreams streams, DifficultyTable difficulty) {
+        this.controller = controller;
+        this.events = events;
+        this.difficulty = difficulty;
+        this.streams = streams;
+        this.battleEngine = new BattleEngine(controller, events, streams.stream(RandomStreams.BATTLE));
+    }
+
+    public BattleEngine getBattleEngine() { return battleEngine; }
+    public int getLevelTurns(int level) { return levelTurns[level]; }
+    public void setCheckpoint(Checkpoint checkpoint) { this.checkpoint = checkpoint; }
+    public RandomStreams getStreams() { return streams; }
+    public DifficultyTable getDifficulty() { return difficulty; }
+    public void setStreams(RandomStreams streams) { this.streams = streams; }
+
+    // Character classes by menu choice (1-5), or null for an invalid choice
+    static PlayerCharacter newCharacter(int choice, String name) {
+        switch (choice) {
+            case 1: return new Knight(name);
+            case 2: return new Mage(name);
+            case 3: return new Archer(name);
+            case 4: return new Assassin(name);
+            case 5: return new Dwarf(name);
+            default: return null;
+        }
+    }
+
+    // Inverse of newCharacter
+    static int classChoice(PlayerCharacter player) {
+        switch (player.getCharType()) {
+            case "Knight": return 1;
+            case "Mage": return 2;
+            case "Archer": return 3;
+            case "Assassin": return 4;
+            case "Dwarf": return 5;
+            default: throw new IllegalArgumentException("Unknown class " + player.getCharType());
+        }
+    }
+
+    // Returns VICTORY, or the level the player was defeated at
+    public int run(PlayerCharacter player) {
+        return run(player, 1);
+    }
+
+    // Continue a run (e.g. from a save) starting at firstLevel
+    public int run(PlayerCharacter player, int firstLevel) {
+        for (int level = firstLevel; level <= MAX_LEVELS; level++) {
+            if (events.isEnabled()) {
+                events.narrate("\n========================================");
+                events.narrate("--- Entering Level " + level + " of " + MAX_LEVELS + " ---");
+                events.narrate("========================================");
+
+                // 1. Story Introduction
+                events.narrate(getLevelStory(level));
+            }
+
+            // 2. Gear from the Inventory
+            equipStored(player, level);
+
+            // 3. Battle
+            RandomStreams levelStreams = streams.child(level);
+            battleEngine.setRandom(levelStreams.stream(RandomStreams.BATTLE));
+            boolean won = battleEngine.fight(player, levelRoster(difficulty, level));
+            levelTurns[level] = battleEngine.getLastTurnCount();
+            if (!won) {
+                if (events.isEnabled()) events.narrate("GAME OVER! You were defeated at Level " + level + ".");
+                events.flush();
+                return level;
+            }
+
+            // 4. Post-Battle Rewards and Quiz (If not final level)
+            if (level < MAX_LEVELS) {
+                RandomGenerator loot = levelStreams.stream(RandomStreams.LOOT);
+                Weapon newWeapon = generateWeapon(level, loot);
+                Armor newArmor = generateArmor(level, loot);
+
+                // Weapon choice
+                if (events.isEnabled()) {
+                    events.narrate("\n🎉 You found a new weapon: **" + newWeapon.toString() + "**");
+                    events.narrate("Currently equipped: " + player.getEquippedWeapon().toString());
+                }
+                if (controller.equipWeapon(level + 1, difficulty, player, newWeapon)) {
+                    stow(player, player.getEquippedWeapon());
+                    player.setEquippedWeapon(newWeapon);
+                    events.narrate("-> Weapon equipped.");
+                } else {
+                    player.getInventory().add(newWeapon);
+                    events.narrate("-> Weapon stored in your inventory.");
+                }
+
+                // Armor choice
+                if (events.isEnabled()) {
+                    events.narrate("\n🎉 You found new armor: **" + newArmor.toString() + "**");
+                    events.narrate("Currently equipped: " + player.getEquippedArmor().toString());
+                }
+                if (controller.equipArmor(level + 1, difficulty, player, newArmor)) {
+                    stow(player, player.getEquippedArmor());
+                    player.setEquippedArmor(newArmor);
+                    player.setMaxHealth(player.getMaxHealth() + 50);
+                    player.setHealth(player.getHealth() + 50);
+                    events.narrate("-> Armor equipped. Max Health increased by 50!");
+                } else {
+                    player.getInventory().add(newArmor);
+                    events.narrate("-> Armor stored in your inventory.");
+                }
+
+                runQuiz(player, level);
+                if (checkpoint != null) checkpoint.levelCompleted(player, level + 1);
+            }
+        }
+        events.flush();
+        return VICTORY;
+    }
+
+    // Offers each stored item kind to the controller; the gear taken off is stored instead
+    private void equipStored(PlayerCharacter player, int level) {
+        Inventory inventory = player.getInventory();
+        if (inventory.getWeaponCount() > 0) {
+            int slot = controller.storedWeapon(level, difficulty, player);
+            if (slot >= 0) {
+                if (!inventory.isWeapon(slot)) throw new IllegalStateException("Inventory slot " + slot + " holds no weapon");
+                Weapon stored = new Weapon(inventory.remove(slot));
+                stow(player, player.getEquippedWeapon());
+                player.setEquippedWeapon(stored);
+                events.narrate("-> Equipped " + stored.getName() + " from your inventory.");
+            }
+        }
+        if (inventory.getArmorCount() > 0) {
+            int slot = controller.storedArmor(level, difficulty, player);
+            if (slot >= 0) {
+                if (!inventory.contains(slot) || inventory.isWeapon(slot)) throw new IllegalStateException("Inventory slot " + slot + " holds no armor");
+                Armor stored = new Armor(inventory.remove(slot));
+                stow(player, player.getEquippedArmor());
+                player.setEquippedArmor(stored);
+                events.narrate("-> Equipped " + stored.getName() + " from your inventory.");
+            }
+        }
+    }
+
+    // Gear taken off goes to the inventory; the starting Fists and Clothes are not items
+    private static void stow(PlayerCharacter player, Weapon weapon) {
+        if (!ItemCatalog.isStarterGear(weapon.getItem())) player.getInventory().add(weapon);
+    }
+
+    private static void stow(PlayerCharacter player, Armor armor) {
+        if (!ItemCatalog.isStarterGear(armor.getItem())) player.getInventory().add(armor);
+    }
+
+    private void runQuiz(PlayerCharacter player, int level) {
+        events.narrate("\n🧠 A Quiz Master appears! Answer correctly for a reward!");
+
+        String answer = quizAnswer(level);
+        String response = controller.answerQuiz(level, quizQuestion(level)).toUpperCase().trim();
+
+        if (response.equals(answer)) {
+            events.narrate("✅ Correct! You gain 100 HP!");
+            player.setHealth(player.getHealth() + 100);
+        } else {
+            events.narrate("❌ Incorrect! You lose 50 HP for your mistake.");
+            player.setHealth(player.getHealth() - 50);
+            if (player.isDefeated()) {
+                if (events.isEnabled()) events.narrate("-> " + player.getName() + " has been defeated by the Quiz Master's penalty!");
+            }
+        }
+    }
+
+    static String quizQuestion(int level) {
+        return quiz(level)[0];
+    }
+
+    static String quizAnswer(int level) {
+        return quiz(level)[1];
+    }
+
+    private static String[] quiz(int level) {
+        String question;
+        String answer;
+
+        // Unique Quiz Questions for each level (1-14)
+        switch (level) {
+            case 1: 
+                question = "Which OOP principle hides the internal implementation details from the user? (A: Abstraction, B: Inheritance): ";
+                answer = "A";
+                break;
+            case 2:
+                question = "What keyword is necessary to create a custom exception class in Java? (A: throws, B: extends): ";
+                answer = "B";
+                break;
+            case 3:
+                question = "If a parent class reference holds an object of a subclass (e.g., AbstractCharacter c = new Knight()), what is this dynamic behavior called? (A: Polymorphism, B: Encapsulation): ";
+                answer = "A";
+                break;
+            case 4:
+                question = "What is the standard naming convention for Java variables? (A: PascalCase, B: camelCase): ";
+                answer = "B";
+                break;
+            case 5:
+                question = "Which access modifier allows access only within the same class? (A: default, B: private): ";
+                answer = "B";
+                break;
+            case 6:
+                question = "Which block is used to ensure a cleanup code runs whether an exception occurs or not? (A: finally, B: catch): ";
+                answer = "A";
+                break;
+            case 7:
+                question = "Can a class implement multiple interfaces in Java? (A: Yes, B: No): ";
+                answer = "A";
+                break;
+            case 8:
+                question = "What does the 'super' keyword refer to in a constructor? (A: The subclass, B: The superclass): ";
+                answer = "B";
+                break;
+            case 9:
+                question = "Which type of polymorphism is achieved at runtime through method overriding? (A: Compile-time, B: Run-time): ";
+                answer = "B";
+                break;
+            case 10:
+                question = "What must a concrete subclass do if it extends an abstract class? (A: Define all abstract methods, B: Define only abstract classes): ";
+                answer = "A";
+                break;
+            case 11:
+                question = "In Java, arrays are objects. (A: True, B: False): ";
+                answer = "A";
+                break;
+            case 12:
+                question = "Which OOP principle ensures that fields are kept private and accessed only through public methods (getters/setters)? (A: Encapsulation, B: Abstraction): ";
+                answer = "A";
+                break;
+            case 13:
+                question = "What kind of block is used to handle checked exceptions in Java? (A: try-catch, B: if-else): ";
+                answer = "A";
+                break;
+            case 14:
+                question = "Is a Java interface required to define constructors? (A: Yes, B: No): ";
+                answer = "B";
+                break;
+            default:
+                // Safety net fallback
+                question = "Who prepared the CS 211 Final Project Guidelines? (A: Ms. Fatima Marie P. Agdon, B: Demon King Chaus): ";
+                answer = "A";
+                break;
+        }
+
+        return new String[]{question, answer};
+    }
+
+    // --- Generation Methods ---
+    static Monster[] levelRoster(DifficultyTable difficulty, int level) {
+        if (level == MAX_LEVELS) {
+            return new Monster[]{difficulty.king()};
+        }
+        return generateMonsters(difficulty, level);
+    }
+
+    static Monster[] generateMonsters(DifficultyTable difficulty, int level) {
+        return difficulty.ghouls(level);
+    }
+
+    static String getLevelStory(int level) {
+        if (level == MAX_LEVELS) {
+            return "The final chamber opens. Before you stands **King Chaus**, guardian of the lost crown!";
+        }
+        return "The air is thick with old magic. Level " + level + " is guarded by ancient forces.";
+    }
+
+    // Loot is rolled as packed catalog items; see ItemCatalog
+    static Weapon generateWeapon(int level, RandomGenerator random) {
+        return new Weapon(ItemCatalog.rollWeapon(level, random));
+    }
+
+    static Armor generateArmor(int level, RandomGenerator random) {
+        return new Armor(ItemCatalog.rollArmor(level, random));
+    }
+}
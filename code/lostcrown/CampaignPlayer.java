@@ -0,0 +1,17 @@
+package lostcrown;
+
+// Decision maker for a whole campaign: battle moves plus the between-level choices
+interface CampaignPlayer extends MoveSelector {
+    // nextLevel is the level the gear would be used in, against difficulty's roster for it
+    boolean equipWeapon(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Weapon found);
+
+    boolean equipArmor(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Armor found);
+
+    // Asked before level's battle while the inventory holds that kind of item: the Inventory
+    // slot to equip in place of the current gear, or -1 to keep it
+    int storedWeapon(int level, DifficultyTable difficulty, PlayerCharacter player);
+
+    int storedArmor(int level, DifficultyTable difficulty, PlayerCharacter player);
+
+    String answerQuiz(int level, String question);
+}
@@ -0,0 +1,74 @@
+package lostcrown;
+
+// --- Character Snapshots ---
+// The battle state of an AbstractCharacter packed into one long, so look-ahead code can copy,
+// compare and hash positions without allocating:
+//   bits 0-19 health, 20-23 special cooldown, 24-27 heal cooldown, 28 defending,
+//   29 invulnerable, 30-49 base defense
+// The special cooldown is the turns until the special is usable, so a stun shows up there, and
+// base defense includes status bonuses such as Stone Skin. Fixed stats (max health, attack,
+// cooldown time, gear) are not included; they do not change during a battle. Snapshots are
+// values: the with* methods return a new snapshot.
+final class CharacterSnapshot {
+    private static final long HEALTH_MASK = (1L << 20) - 1;
+    private static final int SPECIAL_SHIFT = 20;
+    private static final int HEAL_SHIFT = 24;
+    private static final long DEFENDING = 1L << 28;
+    private static final long INVULNERABLE = 1L << 29;
+    private static final int DEFENSE_SHIFT = 30;
+    private static final long DEFENSE_MASK = (1L << 20) - 1;
+
+    private CharacterSnapshot() { }
+
+    static long of(AbstractCharacter character) {
+        long snapshot = of(character.getHealth(), Math.min(character.getSpecialReadyIn(), 15), character.getHealCooldown(), character.getNaturalDefense());
+        if (character.isDefending()) snapshot |= DEFENDING;
+        if (character.isInvulnerable()) snapshot |= INVULNERABLE;
+        return snapshot;
+    }
+
+    static long of(int health, int specialCooldown, int healCooldown, int baseDefense) {
+        return check(health, HEALTH_MASK) | check(specialCooldown, 15) << SPECIAL_SHIFT
+                | check(healCooldown, 15) << HEAL_SHIFT | check(baseDefense, DEFENSE_MASK) << DEFENSE_SHIFT;
+    }
+
+    static int health(long snapshot) { return (int) (snapshot & HEALTH_MASK); }
+    static int specialCooldown(long snapshot) { return (int) (snapshot >>> SPECIAL_SHIFT) & 15; }
+    static int healCooldown(long snapshot) { return (int) (snapshot >>> HEAL_SHIFT) & 15; }
+    static boolean isDefending(long snapshot) { return (snapshot & DEFENDING) != 0; }
+    static boolean isInvulnerable(long snapshot) { return (snapshot & INVULNERABLE) != 0; }
+    static int baseDefense(long snapshot) { return (int) (snapshot >>> DEFENSE_SHIFT & DEFENSE_MASK); }
+    static boolean isDefeated(long snapshot) { return (snapshot & HEALTH_MASK) == 0; }
+
+    static long withHealth(long snapshot, int health) {
+        return snapshot & ~HEALTH_MASK | Math.max(0, Math.min(health, (int) HEALTH_MASK));
+    }
+
+    static long withSpecialCooldown(long snapshot, int cooldown) {
+        return snapshot & ~(15L << SPECIAL_SHIFT) | (long) Math.min(cooldown, 15) << SPECIAL_SHIFT;
+    }
+
+    static long withHealCooldown(long snapshot, int cooldown) {
+        return snapshot & ~(15L << HEAL_SHIFT) | (long) Math.min(cooldown, 15) << HEAL_SHIFT;
+    }
+
+    static long withBaseDefense(long snapshot, int baseDefense) {
+        return snapshot & ~(DEFENSE_MASK << DEFENSE_SHIFT) | Math.min(baseDefense, DEFENSE_MASK) << DEFENSE_SHIFT;
+    }
+
+    static long defending(long snapshot) { return snapshot | DEFENDING; }
+    static long invulnerable(long snapshot) { return snapshot | INVULNERABLE; }
+
+    // AbstractCharacter.endTurn
+    static long endTurn(long snapshot) {
+        snapshot &= ~(DEFENDING | INVULNERABLE);
+        if (specialCooldown(snapshot) > 0) snapshot -= 1L << SPECIAL_SHIFT;
+        if (healCooldown(snapshot) > 0) snapshot -= 1L << HEAL_SHIFT;
+        return snapshot;
+    }
+
+    private static long check(long value, long max) {
+        if (value < 0 || value > max) throw new IllegalArgumentException("Snapshot field out of range: " + value);
+        return value;
+    }
+}
@@ -0,0 +1,52 @@
+package lostcrown;
+
+// One combat event. Instances are preallocated slots in a CombatEventBus ring and are
+// overwritten once consumed, so sinks must copy anything they want to keep.
+final class CombatEvent {
+    enum Type {
+        BATTLE_START,        // amount = monster count
+        PLAYER_TURN,         // actor, amount = HP, value = max HP
+        PLAYER_STATUS,       // amount = total defense, detail = weapon name
+        TARGET,              // target, amount = target HP
+        MONSTER_TURN,        // actor, amount = HP
+        BASIC_ATTACK,        // actor, detail = weapon name (players only)
+        SPECIAL_USED,        // actor, target, special
+        SPECIAL_ON_COOLDOWN, // actor, value = turns remaining
+        DAMAGE_DEALT,        // target, amount = damage taken, value = remaining HP
+        DAMAGE_BLOCKED,      // target (invulnerable), value = HP
+        HEAL,                // actor, amount = HP healed, value = HP after
+        HEAL_ON_COOLDOWN,    // actor, value = turns remaining
+        STANCE,              // actor took a defensive stance
+        EFFECT_APPLIED,      // target, detail = effect name
+        DEFEAT,              // target reached 0 HP
+        NARRATION            // detail = text line
+    }
+
+    enum Special { SHIELD_BASH, FIREBALL, BARRAGE, BACKSTAB, STONE_SKIN, MONSTER_RAGE }
+
+    Type type;
+    String actor;
+    String target;
+    int amount;
+    int value;
+    String detail;
+    Special special;
+
+    void set(Type type, String actor, String target, int amount, int value, String detail, Special special) {
+        this.type = type;
+        this.actor = actor;
+        this.target = target;
+        this.amount = amount;
+        this.value = value;
+        this.detail = detail;
+        this.special = special;
+    }
+
+    public Type getType() { return type; }
+    public String getActor() { return actor; }
+    public String getTarget() { return target; }
+    public int getAmount() { return amount; }
+    public int getValue() { return value; }
+    public String getDetail() { return detail; }
+    public Special getSpecial() { return special; }
+}
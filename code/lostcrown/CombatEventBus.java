@@ -0,0 +1,159 @@
+package lostcrown;
+
+import java.util.concurrent.locks.LockSupport;
+
+// --- Combat Event Pipeline ---
+// Bounded single-producer ring of preallocated CombatEvent slots in front of a sink.
+// Publishing copies a few fields into the next slot, so it never allocates or does I/O.
+// In synchronous mode the producer drains the ring into the sink on flush() (or when
+// the ring fills up). In asynchronous mode a daemon consumer thread drains it and
+// flush() waits for that thread to reach the current event, so batch boundaries stay
+// where the producer put them; the console game uses it when it also writes a combat log
+// file, which keeps the file I/O off the game thread. close() drains the ring and stops the
+// consumer. A sink failure on the consumer thread is rethrown to the producer on its next
+// publish, flush or close. A bus belongs to one producer thread (one game session or one
+// simulation worker).
+class CombatEventBus implements AutoCloseable {
+    static final int DEFAULT_CAPACITY = 1024;
+
+    // Simulations publish into this: every publish returns immediately
+    static final CombatEventBus DISABLED = new CombatEventBus(CombatEventSink.NO_OP, 1, false);
+
+    private final CombatEvent[] ring;
+    private final int mask;
+    private final CombatEventSink sink;
+    private final boolean enabled;
+    private final Thread consumer; // null in synchronous mode
+
+    private volatile long published;      // events written by the producer
+    private volatile long consumed;       // events handed to the sink
+    private volatile long flushAt;        // async: sequence the producer wants the next batch boundary at
+    private volatile long flushRequested; // async: flushes requested so far (written after flushAt)
+    private volatile long flushed;        // async: flushes the consumer has delivered
+    private volatile boolean closed;
+    private volatile RuntimeException failure; // async: what stopped the consumer
+
+    public CombatEventBus(CombatEventSink sink) {
+        this(sink, DEFAULT_CAPACITY, false);
+    }
+
+    public CombatEventBus(CombatEventSink sink, int capacity, boolean async) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.ring = new CombatEvent[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new CombatEvent();
+        }
+        this.mask = size - 1;
+        this.sink = sink;
+        this.enabled = sink != CombatEventSink.NO_OP;
+        if (async && enabled) {
+            consumer = new Thread(this::consumeLoop, "combat-events");
+            consumer.setDaemon(true);
+            consumer.start();
+        } else {
+            consumer = null;
+        }
+    }
+
+    // Publishers check this before building names or text, so a disabled bus costs nothing
+    public boolean isEnabled() { return enabled; }
+
+    public void publish(CombatEvent.Type type, String actor, String target, int amount, int value, String detail, CombatEvent.Special special) {
+        if (!enabled) return;
+        long seq = published;
+        while (seq - consumed >= ring.length) {
+            if (consumer == null) {
+                drain();
+            } else {
+                checkConsumer();
+                LockSupport.unpark(consumer);
+                Thread.onSpinWait();
+            }
+        }
+        ring[(int) seq & mask].set(type, actor, target, amount, value, detail, special);
+        published = seq + 1;
+    }
+
+    public void publish(CombatEvent.Type type, String actor, int amount, int value) {
+        publish(type, actor, null, amount, value, null, null);
+    }
+
+    public void narrate(String line) {
+        publish(CombatEvent.Type.NARRATION, null, null, 0, 0, line, null);
+    }
+
+    // Deliver everything published so far and end the batch
+    public void flush() {
+        if (!enabled) return;
+        if (consumer == null) {
+            drain();
+            sink.endOfBatch();
+            return;
+        }
+        long request = flushRequested + 1; // one at a time: flush() waits for it
+        flushAt = published;
+        flushRequested = request;
+        while (flushed < request) {
+            checkConsumer();
+            LockSupport.unpark(consumer);
+            Thread.onSpinWait();
+        }
+    }
+
+    private void checkConsumer() {
+        if (failure != null) throw new IllegalStateException("Combat event sink failed", failure);
+        if (!consumer.isAlive()) throw new IllegalStateException("Combat event consumer has stopped");
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        try {
+            flush();
+        } finally {
+            closed = true;
+            if (consumer != null) {
+                LockSupport.unpark(consumer);
+                try {
+                    consumer.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (sink instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) sink).close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not close combat event sink", e);
+            }
+        }
+    }
+
+    private void drain() {
+        long seq = consumed;
+        long end = published;
+        while (seq < end) {
+            sink.accept(ring[(int) seq & mask]);
+            seq++;
+            consumed = seq;
+        }
+    }
+
+    private void consumeLoop() {
+        try {
+            while (!closed || consumed < published) {
+                drain();
+                long request = flushRequested;
+                if (request > flushed && consumed >= flushAt) {
+                    sink.endOfBatch();
+                    flushed = request;
+                } else if (consumed == published) {
+                    LockSupport.parkNanos(100_000L);
+                }
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+}
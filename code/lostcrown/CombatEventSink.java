@@ -0,0 +1,27 @@
+package lostcrown;
+
+// Consumer side of a CombatEventBus. Events arrive in publish order; endOfBatch marks the
+// end of a turn (or whatever the bus was flushed for).
+interface CombatEventSink {
+    CombatEventSink NO_OP = event -> { };
+
+    void accept(CombatEvent event);
+
+    default void endOfBatch() { }
+
+    static CombatEventSink tee(CombatEventSink first, CombatEventSink second) {
+        return new CombatEventSink() {
+            @Override
+            public void accept(CombatEvent event) {
+                first.accept(event);
+                second.accept(event);
+            }
+
+            @Override
+            public void endOfBatch() {
+                first.endOfBatch();
+                second.endOfBatch();
+            }
+        };
+    }
+}
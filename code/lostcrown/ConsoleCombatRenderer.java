@@ -0,0 +1,104 @@
+package lostcrown;
+
+import java.io.PrintStream;
+
+// Renders combat events as the game's console text. Lines are collected per batch and
+// written to the stream in one go when the bus is flushed (once per turn).
+class ConsoleCombatRenderer implements CombatEventSink {
+    private final PrintStream out;
+    private final StringBuilder batch = new StringBuilder(256);
+
+    public ConsoleCombatRenderer(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void accept(CombatEvent e) {
+        StringBuilder line = batch;
+        switch (e.type) {
+            case BATTLE_START:
+                line.append("\n*** BATTLE STARTED against ").append(e.amount).append(" monster(s)! ***");
+                break;
+            case PLAYER_TURN:
+                line.append("\n--- Player Turn: ").append(e.actor).append(" (HP: ").append(e.amount).append('/').append(e.value).append(") ---");
+                break;
+            case PLAYER_STATUS:
+                line.append("Current Defense: ").append(e.amount).append(" | Weapon: ").append(e.detail);
+                break;
+            case TARGET:
+                line.append("Target: ").append(e.target).append(" (HP: ").append(e.amount).append(')');
+                break;
+            case MONSTER_TURN:
+                line.append("\n--- Monster Turn: ").append(e.actor).append(" (HP: ").append(e.amount).append(") ---");
+                break;
+            case BASIC_ATTACK:
+                if (e.detail != null) {
+                    line.append(e.actor).append(" uses Basic Attack with ").append(e.detail).append('.');
+                } else {
+                    line.append("-> ").append(e.actor).append(" uses Basic Attack.");
+                }
+                break;
+            case SPECIAL_USED:
+                appendSpecial(line, e);
+                break;
+            case SPECIAL_ON_COOLDOWN:
+                line.append("-> Special Attack is on cooldown (").append(e.value).append(" turns remaining).");
+                break;
+            case DAMAGE_DEALT:
+                line.append("-> ").append(e.target).append(" takes **").append(e.amount).append("** damage. Remaining HP: ").append(e.value);
+                break;
+            case DAMAGE_BLOCKED:
+                line.append("-> ").append(e.target).append(" shrugs off the attack (Invulnerable)!");
+                break;
+            case HEAL:
+                line.append("-> ").append(e.actor).append(" heals for ").append(e.amount).append(" HP and becomes **invulnerable** for the next turn!");
+                break;
+            case HEAL_ON_COOLDOWN:
+                line.append("-> Heal is on cooldown (").append(e.value).append(" turns remaining).");
+                break;
+            case STANCE:
+                line.append("-> ").append(e.actor).append(" takes a **defensive stance**.");
+                break;
+            case EFFECT_APPLIED:
+                line.append("✨ ").append(e.target).append(" is ").append(e.detail).append("ed! They skip their next turn.");
+                break;
+            case DEFEAT:
+                return; // the damage line already shows 0 HP
+            case NARRATION:
+                line.append(e.detail);
+                break;
+        }
+        line.append(System.lineSeparator());
+    }
+
+    private static void appendSpecial(StringBuilder line, CombatEvent e) {
+        switch (e.special) {
+            case SHIELD_BASH:
+                line.append("\n**KNIGHT'S SHIELD BASH!** ").append(e.actor).append(" slams their shield into ").append(e.target).append('.');
+                break;
+            case FIREBALL:
+                line.append("\n**MAGE'S FIREBALL!** ").append(e.actor).append(" casts a massive spell on ").append(e.target).append('.');
+                break;
+            case BARRAGE:
+                line.append("\n**ARCHER'S BARRAGE!** ").append(e.actor).append(" fires a volley of arrows.");
+                break;
+            case BACKSTAB:
+                line.append("\n**ASSASSIN'S BACKSTAB!** ").append(e.actor).append(" delivers a critical strike.");
+                break;
+            case STONE_SKIN:
+                line.append("\n**DWARF'S STONE SKIN!** ").append(e.actor).append(" heals and increases defense!");
+                break;
+            case MONSTER_RAGE:
+                line.append("-> **MONSTER RAGE!** ").append(e.actor).append(" unleashes a massive blow.");
+                break;
+        }
+    }
+
+    @Override
+    public void endOfBatch() {
+        if (batch.length() == 0) return;
+        out.print(batch);
+        out.flush();
+        batch.setLength(0);
+    }
+}
@@ -0,0 +1,57 @@
+package lostcrown;
+
+// --- Batch Damage Kernel ---
+// takeDamage for many targets at once, over primitive arrays indexed by target: raw damage,
+// defense, the defending and invulnerable flags as bitsets (the Horde layout), and health,
+// which is updated in place. Every target gets exactly what AbstractCharacter.takeDamage
+// would give it: nothing while invulnerable, otherwise the damage (halved when defending)
+// minus defense but at least 1, with health clamped at 0. The damage dealt to each target is
+// written to effective[].
+//
+// When the JVM runs with the incubating Vector API (java --add-modules jdk.incubator.vector)
+// the batch goes through VectorDamageKernel, a full vector of targets per step; otherwise
+// the scalar loop below does the same work.
+final class DamageKernel {
+    static final boolean VECTORIZED = vectorAvailable();
+
+    private DamageKernel() { }
+
+    // Targets from..to-1. Returns how many of them went from above 0 health to 0.
+    static int apply(int[] damage, int[] defense, long[] defending, long[] invulnerable,
+                     int[] health, int[] effective, int from, int to) {
+        if (VECTORIZED) return VectorDamageKernel.apply(damage, defense, defending, invulnerable, health, effective, from, to);
+        return applyScalar(damage, defense, defending, invulnerable, health, effective, from, to);
+    }
+
+    static int applyScalar(int[] damage, int[] defense, long[] defending, long[] invulnerable,
+                           int[] health, int[] effective, int from, int to) {
+        int defeated = 0;
+        for (int i = from; i < to; i++) {
+            if (bit(invulnerable, i)) {
+                effective[i] = 0;
+                continue;
+            }
+            int raw = bit(defending, i) ? (int) (damage[i] * 0.5) : damage[i];
+            int hit = Math.max(raw - defense[i], 1);
+            int before = health[i];
+            health[i] = Math.max(before - hit, 0);
+            effective[i] = hit;
+            if (before > 0 && health[i] == 0) defeated++;
+        }
+        return defeated;
+    }
+
+    private static boolean bit(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    // The module has to be resolved at startup; without it loading the vector class fails
+    private static boolean vectorAvailable() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return false;
+        try {
+            return VectorDamageKernel.LANES > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
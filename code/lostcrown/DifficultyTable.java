@@ -0,0 +1,173 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+// --- Difficulty Table ---
+// The monster curves behind Campaign.levelRoster: Ghoul health and attack grow linearly with
+// the level, the roster grows from one Ghoul to two and three at threshold levels, and the
+// last level is King Chaus. DEFAULT is the original hand-written curve; DifficultyTuner fits
+// the parameters to target win rates and writes them out with write().
+//
+// The file is one "name = value" line per parameter, followed by the per-level rosters it
+// generates as comments for review. The game loads DEFAULT_FILE at startup when it exists
+// (see loadIfPresent). Replay journals record the table their run was played with; older
+// journals without one replay with the current table.
+final class DifficultyTable {
+    static final Path DEFAULT_FILE = Paths.get("difficulty.table");
+
+    // Parameters, by index
+    static final String[] PARAMETERS = {
+            "ghoulHealth", "ghoulHealthPerLevel", "ghoulAttack", "ghoulAttackPerLevel",
+            "twoGhoulsFrom", "threeGhoulsFrom", "kingHealth", "kingAttack"};
+    static final int GHOUL_HEALTH = 0;
+    static final int GHOUL_HEALTH_PER_LEVEL = 1;
+    static final int GHOUL_ATTACK = 2;
+    static final int GHOUL_ATTACK_PER_LEVEL = 3;
+    static final int TWO_GHOULS_FROM = 4;
+    static final int THREE_GHOULS_FROM = 5;
+    static final int KING_HEALTH = 6;
+    static final int KING_ATTACK = 7;
+
+    static final DifficultyTable DEFAULT = new DifficultyTable(new int[]{500, 150, 100, 10, 5, 10, 3500, 300});
+
+    private static volatile DifficultyTable current = DEFAULT;
+
+    private final int[] values;
+
+    DifficultyTable(int[] values) {
+        if (values.length != PARAMETERS.length) throw new IllegalArgumentException("Expected " + PARAMETERS.length + " parameters");
+        for (int p = 0; p < values.length; p++) {
+            if (values[p] < minimum(p)) throw new IllegalArgumentException(PARAMETERS[p] + " must be at least " + minimum(p) + ": " + values[p]);
+        }
+        this.values = values.clone();
+    }
+
+    // The table loaded at startup. Campaigns are given their table when built and never read this
+    static DifficultyTable current() { return current; }
+    static void setCurrent(DifficultyTable table) { current = table; }
+
+    int get(int parameter) { return values[parameter]; }
+
+    // A copy with one parameter changed
+    DifficultyTable with(int parameter, int value) {
+        int[] changed = values.clone();
+        changed[parameter] = value;
+        return new DifficultyTable(changed);
+    }
+
+    static int minimum(int parameter) {
+        switch (parameter) {
+            case GHOUL_HEALTH:
+            case KING_HEALTH:
+            case TWO_GHOULS_FROM:
+            case THREE_GHOULS_FROM:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    // --- Rosters ---
+
+    int ghoulHealth(int level) { return values[GHOUL_HEALTH] + level * values[GHOUL_HEALTH_PER_LEVEL]; }
+    int ghoulAttack(int level) { return values[GHOUL_ATTACK] + level * values[GHOUL_ATTACK_PER_LEVEL]; }
+
+    int ghoulCount(int level) {
+        if (level >= values[THREE_GHOULS_FROM]) return 3;
+        return level >= values[TWO_GHOULS_FROM] ? 2 : 1;
+    }
+
+    Monster[] ghouls(int level) {
+        int health = ghoulHealth(level);
+        int attack = ghoulAttack(level);
+        Monster[] monsters = new Monster[ghoulCount(level)];
+        for (int i = 0; i < monsters.length; i++) {
+            monsters[i] = new Monster("Ghoul " + (i + 1), health, attack);
+        }
+        return monsters;
+    }
+
+    Monster king() {
+        return new Monster("King Chaus", values[KING_HEALTH], values[KING_ATTACK]);
+    }
+
+    // --- File Format ---
+
+    static DifficultyTable read(Path file) throws IOException {
+        int[] values = DEFAULT.values.clone();
+        boolean[] seen = new boolean[PARAMETERS.length];
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            int eq = line.indexOf('=');
+            int p = eq < 0 ? -1 : indexOf(line.substring(0, eq).trim());
+            if (p < 0) throw new IOException(file + ":" + (n + 1) + ": expected <parameter> = <value>, got: " + line);
+            try {
+                values[p] = Integer.parseInt(line.substring(eq + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException(file + ":" + (n + 1) + ": not a number: " + line);
+            }
+            seen[p] = true;
+        }
+        for (int p = 0; p < seen.length; p++) {
+            if (!seen[p]) throw new IOException(file + ": missing " + PARAMETERS[p]);
+        }
+        try {
+            return new DifficultyTable(values);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(file + ": " + e.getMessage());
+        }
+    }
+
+    // Makes the file's table current if it exists; returns whether it did
+    static boolean loadIfPresent(Path file) throws IOException {
+        if (!Files.exists(file)) return false;
+        setCurrent(read(file));
+        return true;
+    }
+
+    void write(Path file, String comment) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(toFileString(comment));
+        }
+    }
+
+    String toFileString(String comment) {
+        StringBuilder out = new StringBuilder("# Lost Crown difficulty table\n");
+        if (comment != null) {
+            for (String line : comment.split("\n")) out.append("# ").append(line).append('\n');
+        }
+        for (int p = 0; p < PARAMETERS.length; p++) {
+            out.append(PARAMETERS[p]).append(" = ").append(values[p]).append('\n');
+        }
+        out.append("#\n# level  monsters  health  attack\n");
+        for (int level = 1; level < Campaign.MAX_LEVELS; level++) {
+            out.append(String.format("# %5d  %8d  %6d  %6d\n", level, ghoulCount(level), ghoulHealth(level), ghoulAttack(level)));
+        }
+        out.append(String.format("# %5d  King Chaus %6d  %6d\n", Campaign.MAX_LEVELS, values[KING_HEALTH], values[KING_ATTACK]));
+        return out.toString();
+    }
+
+    private static int indexOf(String name) {
+        for (int p = 0; p < PARAMETERS.length; p++) {
+            if (PARAMETERS[p].equals(name)) return p;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof DifficultyTable && Arrays.equals(values, ((DifficultyTable) other).values);
+    }
+
+    @Override
+    public int hashCode() { return Arrays.hashCode(values); }
+}
@@ -0,0 +1,223 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+// --- Difficulty Tuner ---
+// Fits the DifficultyTable parameters to target win rates: for every class and level, the
+// chance that a player who reaches the level wins its battle. A candidate table is scored by
+// playing headless campaigns with the BalanceSimulator (fork/join across the pool) and summing
+// the squared misses, each weighted by the share of campaigns that reach the level, so a
+// level nobody gets to cannot dominate the fit.
+//
+// Campaigns are played in batches until the candidate is settled: every level that at least
+// MIN_REACH of the campaigns get to has a 95% Wilson interval no wider than +/- tolerance.
+// A candidate is dropped as soon as its error is worse than the best so far even at the
+// most favourable end of every interval. All candidates replay the same campaign seeds
+// (common random numbers), so differences between them come from the table, not the dice.
+//
+// The search is a pattern search from a start table: step each parameter up and down, keep
+// any improvement, and halve the steps once a full pass finds none, until the steps are at
+// their minimum or the candidate budget is spent.
+// Usage: java lostcrown.DifficultyTuner [policy] [firstTarget] [lastTarget] [maxCampaigns] [seed] [outFile]
+class DifficultyTuner {
+    static final double Z = 1.96;        // 95% intervals
+    static final double MIN_REACH = 0.01; // levels reached less often than this never hold a candidate back
+    private static final int[] START_STEPS = {100, 40, 20, 5, 2, 2, 500, 50};
+    private static final int[] MIN_STEPS = {10, 5, 2, 1, 1, 1, 50, 5};
+
+    private final BalanceSimulator simulator;
+    private final double[][] targets; // [class choice][level]
+    private final int batchSize;
+    private int maxCampaigns = 20_000;
+    private double tolerance = 0.02;
+    private int maxCandidates = 300;
+    private int candidates;
+
+    public DifficultyTuner(Supplier<CampaignPlayer> policies, long seed, ForkJoinPool pool, double[][] targets) {
+        this.simulator = new BalanceSimulator(policies, seed, pool);
+        this.targets = targets;
+        this.batchSize = BalanceSimulator.LEAF_SIZE * pool.getParallelism(); // one leaf per worker
+    }
+
+    public int getCandidates() { return candidates; }
+    public void setMaxCampaigns(int maxCampaigns) { this.maxCampaigns = maxCampaigns; }
+    public void setTolerance(double tolerance) { this.tolerance = tolerance; }
+    public void setMaxCandidates(int maxCandidates) { this.maxCandidates = maxCandidates; }
+
+    // The same target for every class, linear from the first level to the last
+    static double[][] linearTargets(double first, double last) {
+        double[][] targets = new double[BalanceSimulator.CLASS_NAMES.length + 1][Campaign.MAX_LEVELS + 1];
+        for (int choice = 1; choice < targets.length; choice++) {
+            for (int level = 1; level <= Campaign.MAX_LEVELS; level++) {
+                targets[choice][level] = first + (last - first) * (level - 1) / (Campaign.MAX_LEVELS - 1);
+            }
+        }
+        return targets;
+    }
+
+    // Center of the Wilson score interval for wins out of n
+    static double wilsonCenter(long wins, long n) {
+        double z2 = Z * Z;
+        return (wins + z2 / 2) / (n + z2);
+    }
+
+    // Its half-width
+    static double wilsonHalfWidth(long wins, long n) {
+        double p = (double) wins / n;
+        double z2 = Z * Z;
+        return Z * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / (1 + z2 / n);
+    }
+
+    // Per-level results of one candidate
+    static final class Evaluation {
+        final DifficultyTable table;
+        final long[][] reached = new long[BalanceSimulator.CLASS_NAMES.length + 1][Campaign.MAX_LEVELS + 1];
+        final long[][] won = new long[BalanceSimulator.CLASS_NAMES.length + 1][Campaign.MAX_LEVELS + 1];
+        long campaigns; // per class
+        double error;
+        double optimisticError;
+        boolean settled;
+        boolean dropped;
+
+        Evaluation(DifficultyTable table) {
+            this.table = table;
+        }
+
+        double winRate(int choice, int level) {
+            return reached[choice][level] == 0 ? 0 : (double) won[choice][level] / reached[choice][level];
+        }
+    }
+
+    public Evaluation evaluate(DifficultyTable table, double bestError) {
+        candidates++;
+        Evaluation evaluation = new Evaluation(table);
+        BalanceSimulator.Stats[] stats = new BalanceSimulator.Stats[targets.length];
+        while (evaluation.campaigns < maxCampaigns) {
+            int from = (int) evaluation.campaigns;
+            int to = Math.min(maxCampaigns, from + batchSize);
+            for (int choice = 1; choice < targets.length; choice++) {
+                BalanceSimulator.Stats batch = simulator.run(table, choice, from, to);
+                if (stats[choice] == null) {
+                    stats[choice] = batch;
+                } else {
+                    stats[choice].merge(batch);
+                }
+            }
+            evaluation.campaigns = to;
+            score(evaluation, stats);
+            if (evaluation.settled) break;
+            if (evaluation.optimisticError > bestError) {
+                evaluation.dropped = true;
+                break;
+            }
+        }
+        return evaluation;
+    }
+
+    private void score(Evaluation evaluation, BalanceSimulator.Stats[] stats) {
+        double error = 0;
+        double optimistic = 0;
+        boolean settled = true;
+        for (int choice = 1; choice < targets.length; choice++) {
+            BalanceSimulator.Stats s = stats[choice];
+            long reached = s.campaigns;
+            for (int level = 1; level <= Campaign.MAX_LEVELS; level++) {
+                long won = reached - s.deathsByLevel[level];
+                evaluation.reached[choice][level] = reached;
+                evaluation.won[choice][level] = won;
+                if (reached > 0) {
+                    double weight = (double) reached / s.campaigns;
+                    double target = targets[choice][level];
+                    double miss = (double) won / reached - target;
+                    double center = wilsonCenter(won, reached);
+                    double halfWidth = wilsonHalfWidth(won, reached);
+                    double gap = Math.max(0, Math.abs(center - target) - halfWidth);
+                    error += weight * miss * miss;
+                    optimistic += weight * gap * gap;
+                    if (weight >= MIN_REACH && halfWidth > tolerance) settled = false;
+                }
+                reached = won;
+            }
+        }
+        evaluation.error = error;
+        evaluation.optimisticError = optimistic;
+        evaluation.settled = settled;
+    }
+
+    public Evaluation tune(DifficultyTable start) {
+        Evaluation best = evaluate(start, Double.POSITIVE_INFINITY);
+        report("start", best);
+        int[] steps = START_STEPS.clone();
+        while (candidates < maxCandidates) {
+            boolean improved = false;
+            for (int p = 0; p < steps.length && candidates < maxCandidates; p++) {
+                for (int direction = 1; direction >= -1; direction -= 2) {
+                    int value = best.table.get(p) + direction * steps[p];
+                    if (value < DifficultyTable.minimum(p)) continue;
+                    Evaluation candidate = evaluate(best.table.with(p, value), best.error);
+                    if (!candidate.dropped && candidate.error < best.error) {
+                        best = candidate;
+                        improved = true;
+                        report(DifficultyTable.PARAMETERS[p] + " = " + value, best);
+                        break;
+                    }
+                }
+            }
+            if (improved) continue;
+            boolean refined = false;
+            for (int p = 0; p < steps.length; p++) {
+                if (steps[p] > MIN_STEPS[p]) {
+                    steps[p] = Math.max(MIN_STEPS[p], steps[p] / 2);
+                    refined = true;
+                }
+            }
+            if (!refined) break;
+        }
+        return best;
+    }
+
+    private void report(String change, Evaluation evaluation) {
+        System.out.printf("[%4d] %-28s error %.5f (%d campaigns per class)%n",
+                candidates, change, evaluation.error, evaluation.campaigns);
+    }
+
+    static void printFit(Evaluation evaluation, double[][] targets) {
+        for (int choice = 1; choice < targets.length; choice++) {
+            System.out.printf("%-9s", BalanceSimulator.CLASS_NAMES[choice - 1]);
+            for (int level = 1; level <= Campaign.MAX_LEVELS; level++) {
+                if (evaluation.reached[choice][level] == 0) {
+                    System.out.printf(" %d:--", level);
+                } else {
+                    System.out.printf(" %d:%.0f/%.0f", level, 100 * evaluation.winRate(choice, level), 100 * targets[choice][level]);
+                }
+            }
+            System.out.println();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String policyName = args.length > 0 ? args[0] : "casual";
+        double first = args.length > 1 ? Double.parseDouble(args[1]) : 0.99;
+        double last = args.length > 2 ? Double.parseDouble(args[2]) : 0.70;
+        int maxCampaigns = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : System.nanoTime();
+        Path out = args.length > 5 ? Paths.get(args[5]) : DifficultyTable.DEFAULT_FILE;
+
+        double[][] targets = linearTargets(first, last);
+        DifficultyTuner tuner = new DifficultyTuner(SimulatedPlayer.policies(policyName, seed), seed, ForkJoinPool.commonPool(), targets);
+        tuner.setMaxCampaigns(maxCampaigns);
+        System.out.println("Tuning for " + policyName + " players, level win rate " + first + " -> " + last
+                + ", up to " + maxCampaigns + " campaigns per class per candidate, seed " + seed);
+
+        long start = System.nanoTime();
+        Evaluation best = tuner.tune(DifficultyTable.DEFAULT);
+        printFit(best, targets);
+        best.table.write(out, String.format("Tuned for %s players, level win rate %.2f -> %.2f, seed %d\nerror %.5f after %d candidates",
+                policyName, first, last, seed, best.error, tuner.getCandidates()));
+        System.out.printf("Wrote %s: %d candidates in %.1f s%n", out, tuner.getCandidates(), (System.nanoTime() - start) / 1e9);
+    }
+}
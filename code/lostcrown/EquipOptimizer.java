@@ -0,0 +1,224 @@
+package lostcrown;
+
+import java.util.Arrays;
+
+// --- Expected-Value Equip Optimizer ---
+// Scores gear by the health the player is expected to have left after the next level's
+// battle. The battle is played out in expectation against the real roster from
+// Campaign.levelRoster for the given DifficultyTable, with the same rules as BattleEngine:
+// - the player specials whenever it is ready (class multiplier, hits and cooldown) and
+//   attacks otherwise, always at the first live monster
+// - damage goes through the takeDamage formula: flat defense and a minimum of 1. The player
+//   is assumed not to defend, and a monster's defend ends at its own endTurn, so the
+//   halving never applies
+// - a monster specials when its cooldown is 0 and it is above half health, and defends otherwise
+// - every player turn rolls the weapon effect on the target, which pushes its cooldown to
+//   cooldown time + 1
+//
+// Monster health drops the same way whatever happens, so the only randomness is the effect
+// rolls. Each monster's cooldown is tracked as a probability distribution, which gives the
+// exact expected number of monster specials for a weapon. That count depends only on (class,
+// level, weapon) for a DifficultyTable and is cached per that key. Armor only changes the
+// damage per special, so scoring it is a few multiplications. Dwarf's Stone Skin is modelled
+// too: its heal makes the player invulnerable for that turn, and specials are counted per
+// number of Stone Skins used so far, so the +50 defense each one adds applies to the later
+// hits.
+// Not modelled: heals and defends chosen by the player, Stone Skin's healing (so a longer
+// battle never looks better), Freeze's slow, Shield Bash's stagger and the player dying
+// mid-battle.
+class EquipOptimizer {
+    static final EquipOptimizer SHARED = new EquipOptimizer();
+
+    static final int ARMOR_HEALTH_BONUS = 50; // Campaign adds this whenever found armor is equipped
+    private static final int CACHE_SIZE = 1 << 14;
+    private static final int MAX_TURNS = 10_000;
+    private static final int STONE_SKIN_DEFENSE = 50; // Dwarf.specialAttack
+
+    // Expected special attacks each roster monster lands, for one (class, level, weapon),
+    // indexed by monster and then by Stone Skins used before the hit (always 0 for non-Dwarves)
+    private static final class Profile {
+        final DifficultyTable table; // the rosters it was computed against
+        final int classLevel;
+        final long weapon;
+        final double[][] specials;
+        final int[] monsterHits; // each roster monster's special damage before defense
+
+        Profile(DifficultyTable table, int classLevel, long weapon, double[][] specials, int[] monsterHits) {
+            this.table = table;
+            this.classLevel = classLevel;
+            this.weapon = weapon;
+            this.specials = specials;
+            this.monsterHits = monsterHits;
+        }
+    }
+
+    // Direct-mapped: a colliding key replaces the old entry. Entries are immutable, so
+    // simulation threads can share the cache without locking.
+    private final Profile[] cache = new Profile[CACHE_SIZE];
+
+    // --- Scores ---
+    public double expectedHealthAfter(DifficultyTable difficulty, PlayerCharacter player, int level, Weapon weapon, Armor armor) {
+        Profile profile = profile(difficulty, player, level, weapon.getItem());
+        int defense = player.getNaturalDefense() + armor.getDefenseModifier();
+        double expectedDamage = 0;
+        for (int m = 0; m < profile.specials.length; m++) {
+            double[] bySkins = profile.specials[m];
+            for (int skins = 0; skins < bySkins.length; skins++) {
+                expectedDamage += bySkins[skins] * Math.max(1, profile.monsterHits[m] - defense - skins * STONE_SKIN_DEFENSE);
+            }
+        }
+        return player.getHealth() - expectedDamage;
+    }
+
+    public double scoreWeapon(DifficultyTable difficulty, PlayerCharacter player, int level, Weapon weapon) {
+        return expectedHealthAfter(difficulty, player, level, weapon, player.getEquippedArmor());
+    }
+
+    public double scoreArmor(DifficultyTable difficulty, PlayerCharacter player, int level, Armor armor) {
+        double bonus = armor == player.getEquippedArmor() ? 0 : ARMOR_HEALTH_BONUS;
+        return expectedHealthAfter(difficulty, player, level, player.getEquippedWeapon(), armor) + bonus;
+    }
+
+    public boolean shouldEquip(DifficultyTable difficulty, PlayerCharacter player, int level, Weapon found) {
+        return scoreWeapon(difficulty, player, level, found) > scoreWeapon(difficulty, player, level, player.getEquippedWeapon());
+    }
+
+    public boolean shouldEquip(DifficultyTable difficulty, PlayerCharacter player, int level, Armor found) {
+        return scoreArmor(difficulty, player, level, found) > scoreArmor(difficulty, player, level, player.getEquippedArmor());
+    }
+
+    // Inventory slot of the weapon that scores best for the level, or -1 if the equipped one does
+    public int bestWeaponSlot(DifficultyTable difficulty, PlayerCharacter player, int level) {
+        Inventory inventory = player.getInventory();
+        double[] best = {scoreWeapon(difficulty, player, level, player.getEquippedWeapon())};
+        int[] bestSlot = {-1};
+        inventory.forEachWeapon(slot -> {
+            double score = scoreWeapon(difficulty, player, level, inventory.getWeapon(slot));
+            if (score > best[0]) {
+                best[0] = score;
+                bestSlot[0] = slot;
+            }
+        });
+        return bestSlot[0];
+    }
+
+    // Stored armor comes without the health bonus, so only the defense counts
+    public int bestArmorSlot(DifficultyTable difficulty, PlayerCharacter player, int level) {
+        Inventory inventory = player.getInventory();
+        Weapon weapon = player.getEquippedWeapon();
+        double[] best = {expectedHealthAfter(difficulty, player, level, weapon, player.getEquippedArmor())};
+        int[] bestSlot = {-1};
+        inventory.forEachArmor(slot -> {
+            double score = expectedHealthAfter(difficulty, player, level, weapon, inventory.getArmor(slot));
+            if (score > best[0]) {
+                best[0] = score;
+                bestSlot[0] = slot;
+            }
+        });
+        return bestSlot[0];
+    }
+
+    // --- Expected Battle ---
+    private Profile profile(DifficultyTable table, PlayerCharacter player, int level, long weapon) {
+        int classLevel = Campaign.classChoice(player) << 8 | level;
+        int index = (int) (mix(weapon * 31 + classLevel) & (CACHE_SIZE - 1));
+        Profile cached = cache[index];
+        if (cached != null && cached.table == table && cached.classLevel == classLevel && cached.weapon == weapon) return cached;
+        Monster[] roster = Campaign.levelRoster(table, level);
+        int[] monsterHits = new int[roster.length];
+        for (int m = 0; m < roster.length; m++) {
+            monsterHits[m] = (int) (roster[m].getBaseAttack() * 1.8); // Monster.specialAttack
+        }
+        Profile computed = new Profile(table, classLevel, weapon, expectedSpecials(player, roster, weapon), monsterHits);
+        cache[index] = computed;
+        return computed;
+    }
+
+    private static double[][] expectedSpecials(PlayerCharacter player, Monster[] roster, long weapon) {
+        int attack = player.getBaseAttack() + ItemCatalog.modifier(weapon);
+        int specialHit = (int) (attack * player.getSpecialMultiplier());
+        int hits = player.getSpecialHits();
+        int cooldownTime = player.getSpecialCooldownTime();
+        double effectChance = ItemCatalog.chance(weapon);
+        boolean stoneSkin = player instanceof Dwarf;
+
+        int[] health = new int[roster.length];
+        double[][] cooldown = new double[roster.length][]; // probability of each cooldown value
+        double[][] specials = new double[roster.length][1];
+        for (int m = 0; m < roster.length; m++) {
+            health[m] = roster[m].getHealth();
+            cooldown[m] = new double[roster[m].getSpecialCooldownTime() + 2];
+            cooldown[m][0] = 1.0;
+        }
+
+        int playerCooldown = 0;
+        int skins = 0;
+        int target = 0;
+        for (int turn = 0; turn < MAX_TURNS && target < roster.length; turn++) {
+            // Player turn
+            Monster monster = roster[target];
+            boolean invulnerable = false;
+            if (playerCooldown == 0) {
+                for (int h = 0; h < hits; h++) {
+                    health[target] = hitMonster(health[target], specialHit, monster);
+                }
+                playerCooldown = cooldownTime;
+                invulnerable = stoneSkin;
+            } else {
+                health[target] = hitMonster(health[target], attack, monster);
+            }
+            if (health[target] > 0 && effectChance > 0) {
+                stun(cooldown[target], monster.getSpecialCooldownTime() + 1, Math.min(1.0, effectChance));
+            }
+            while (target < roster.length && health[target] == 0) target++;
+
+            // Monster turns
+            for (int m = target; m < roster.length; m++) {
+                double[] dist = cooldown[m];
+                if (health[m] > roster[m].getMaxHealth() * 0.5) {
+                    double ready = dist[0];
+                    if (!invulnerable) {
+                        if (skins >= specials[m].length) specials[m] = Arrays.copyOf(specials[m], skins + 1);
+                        specials[m][skins] += ready;
+                    }
+                    dist[0] = 0;
+                    dist[roster[m].getSpecialCooldownTime()] += ready;
+                }
+                endTurn(dist);
+            }
+            if (invulnerable) skins++;
+            if (playerCooldown > 0) playerCooldown--;
+        }
+        return specials;
+    }
+
+    // AbstractCharacter.takeDamage against a monster that is not defending
+    private static int hitMonster(int health, int damage, Monster monster) {
+        int effective = Math.max(1, damage - monster.getTotalDefense());
+        return Math.max(0, health - effective);
+    }
+
+    private static void stun(double[] dist, int stunnedCooldown, double chance) {
+        for (int c = 0; c < dist.length; c++) {
+            if (c == stunnedCooldown) continue;
+            double moved = dist[c] * chance;
+            dist[c] -= moved;
+            dist[stunnedCooldown] += moved;
+        }
+    }
+
+    private static void endTurn(double[] dist) {
+        dist[0] += dist[1];
+        for (int c = 1; c < dist.length - 1; c++) {
+            dist[c] = dist[c + 1];
+        }
+        dist[dist.length - 1] = 0;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,47 @@
+package lostcrown;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Appends one tab-separated record per combat event:
+// type, actor, target, amount, value, detail, special
+class FileCombatEventSink implements CombatEventSink, AutoCloseable {
+    private final BufferedWriter writer;
+
+    public FileCombatEventSink(Path path) throws IOException {
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void accept(CombatEvent e) {
+        try {
+            writer.write(e.type.name());
+            writer.write('\t');
+            writer.write(e.actor == null ? "" : e.actor);
+            writer.write('\t');
+            writer.write(e.target == null ? "" : e.target);
+            writer.write('\t');
+            writer.write(Integer.toString(e.amount));
+            writer.write('\t');
+            writer.write(Integer.toString(e.value));
+            writer.write('\t');
+            writer.write(e.detail == null ? "" : e.detail.replace('\n', ' ').replace('\t', ' '));
+            writer.write('\t');
+            writer.write(e.special == null ? "" : e.special.name());
+            writer.newLine();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
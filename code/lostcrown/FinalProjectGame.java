@@ -0,0 +1,820 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.InputMismatchException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+
+// --- 1. Item Classes ---
+
+class Weapon {
+    private final long item; // packed ItemCatalog handle: template, modifier, effect and chance
+
+    public Weapon(String name, int modifier, double chance, String specialEffect) {
+        this(ItemCatalog.weapon(ItemCatalog.weaponTemplate(name), modifier, chance,
+                chance > 0 ? ItemCatalog.effectCode(specialEffect) : ItemCatalog.EFFECT_NONE));
+    }
+
+    public Weapon(long item) {
+        this.item = item;
+    }
+
+    public long getItem() { return item; }
+    public String getName() { return ItemCatalog.weaponName(item); }
+    public int getAttackModifier() { return ItemCatalog.modifier(item); }
+    public double getSpecialEffectChance() { return ItemCatalog.chance(item); }
+    public String getSpecialEffect() { return ItemCatalog.effectName(item); }
+
+    @Override
+    public String toString() {
+        return ItemCatalog.describeWeapon(item);
+    }
+}
+
+class Armor {
+    private final long item; // packed ItemCatalog handle: template and modifier
+
+    public Armor(String name, int modifier) {
+        this(ItemCatalog.armor(ItemCatalog.armorTemplate(name), modifier));
+    }
+
+    public Armor(long item) {
+        this.item = item;
+    }
+
+    public long getItem() { return item; }
+    public String getName() { return ItemCatalog.armorName(item); }
+    public int getDefenseModifier() { return ItemCatalog.modifier(item); }
+
+    @Override
+    public String toString() {
+        return ItemCatalog.describeArmor(item);
+    }
+}
+
+// --- 2. Abstract Base Class (Abstraction) ---
+abstract class AbstractCharacter {
+    private String name;
+    private int health;
+    private int maxHealth;
+    private int baseAttack;
+    private int baseDefense;
+    private final StatusEffects effects = new StatusEffects();
+    private int specialCooldown;
+    private int healCooldown;
+    private int specialCooldownTime;
+    private int speed = TurnScheduler.STANDARD_SPEED;
+    private CombatEventBus events = CombatEventBus.DISABLED;
+
+    public AbstractCharacter(String name, int health, int baseAttack, int specialCooldownTime) {
+        this.name = name;
+        this.health = health;
+        this.maxHealth = health;
+        this.baseAttack = baseAttack;
+        this.baseDefense = 0;
+        this.specialCooldown = 0;
+        this.healCooldown = 0; 
+        this.specialCooldownTime = specialCooldownTime;
+    }
+
+    // Getters and Setters (Encapsulation)
+    public String getName() { return name; }
+    public int getHealth() { return health; }
+    public int getMaxHealth() { return maxHealth; }
+    public int getBaseAttack() { return baseAttack; }
+    public int getBaseDefense() { return baseDefense; }
+    public int getSpecialCooldown() { return specialCooldown; }
+    public int getHealCooldown() { return healCooldown; }
+    public int getSpecialCooldownTime() { return specialCooldownTime; }
+    public int getSpeed() { return speed; }
+    public int getCurrentSpeed() { return effects.speed(speed); } // with Freeze applied; what the battle schedules
+    public boolean isDefending() { return effects.has(StatusEffect.DEFENDING); }
+    public boolean isInvulnerable() { return effects.has(StatusEffect.INVULNERABLE); }
+    public StatusEffects getStatusEffects() { return effects; }
+    public boolean isDefeated() { return health <= 0; }
+    public CombatEventBus getEvents() { return events; }
+    public void setEvents(CombatEventBus events) { this.events = events; }
+
+    public void setHealth(int health) { 
+        this.health = Math.min(health, maxHealth); 
+        this.health = Math.max(this.health, 0);
+    }
+    public void setMaxHealth(int maxHealth) { this.maxHealth = maxHealth; }
+    public void setSpecialCooldown(int specialCooldown) { this.specialCooldown = specialCooldown; }
+    public void setHealCooldown(int healCooldown) { this.healCooldown = healCooldown; }
+    public void setBaseDefense(int baseDefense) { this.baseDefense = baseDefense; }
+    public void setSpeed(int speed) { this.speed = speed; }
+
+    // Status effects (see StatusEffects). The battle clock is set for the length of a battle.
+    public void applyEffect(StatusEffect effect, int duration) { effects.apply(effect, duration); }
+    public void setStatusClock(TimingWheel clock) { effects.useClock(clock); }
+
+    // Base defense plus status effects such as Stone Skin, before gear
+    public int getNaturalDefense() { return baseDefense + effects.defenseBonus(); }
+
+    // A special needs the cooldown to be over and no effect (e.g. Stun) blocking it
+    public boolean isSpecialReady() { return specialCooldown == 0 && !effects.blocksSpecial(); }
+    public int getSpecialReadyIn() { return Math.max(specialCooldown, effects.specialBlockedFor()); }
+
+    // Core Actions
+    public int basicAttack() {
+        return baseAttack;
+    }
+    
+    public int getTotalDefense() {
+        return getNaturalDefense();
+    }
+
+    public void heal() {
+        if (healCooldown > 0) {
+            events.publish(CombatEvent.Type.HEAL_ON_COOLDOWN, name, 0, healCooldown);
+            return;
+        }
+        int healAmount = (int) (maxHealth * 0.15); 
+        setHealth(this.health + healAmount);
+        applyEffect(StatusEffect.INVULNERABLE, 1);
+        this.healCooldown = 1; // 1-turn cooldown
+        events.publish(CombatEvent.Type.HEAL, name, healAmount, this.health);
+    }
+
+    public void defend() {
+        applyEffect(StatusEffect.DEFENDING, 1);
+        events.publish(CombatEvent.Type.STANCE, name, 0, 0);
+    }
+    
+    public abstract void specialAttack(AbstractCharacter target);
+
+    // Damage handler
+    public void takeDamage(int damage) {
+        if (isInvulnerable()) {
+            events.publish(CombatEvent.Type.DAMAGE_BLOCKED, null, name, 0, this.health, null, null);
+            return;
+        }
+        
+        int effectiveDamage = damageFrom(damage);
+        boolean wasAlive = this.health > 0;
+        this.health -= effectiveDamage;
+        if (this.health < 0) this.health = 0;
+        events.publish(CombatEvent.Type.DAMAGE_DEALT, null, name, effectiveDamage, this.health, null, null);
+        if (wasAlive && this.health == 0) {
+            events.publish(CombatEvent.Type.DEFEAT, null, name, 0, 0, null, null);
+        }
+    }
+    
+    // Health a hit of damage would cost, without taking it: 0 while invulnerable, else at least 1
+    public int damageFrom(int damage) {
+        if (isInvulnerable()) return 0;
+
+        int totalDefense = getTotalDefense();
+        double reductionFactor = 1.0;
+        if (isDefending()) {
+            reductionFactor *= 0.5;
+        }
+        
+        int effectiveDamage = (int) (damage * reductionFactor) - totalDefense;
+        return Math.max(effectiveDamage, 1);
+    }
+
+    // Tick cooldowns. Stances and other status effects expire on the status clock.
+    public void endTurn() {
+        effects.endTurn();
+        if (specialCooldown > 0) {
+            specialCooldown--;
+        }
+        if (healCooldown > 0) {
+            healCooldown--;
+        }
+    }
+}
+
+// --- 3. Player Character (Abstract Base) ---
+abstract class PlayerCharacter extends AbstractCharacter {
+    private String charType;
+    private Weapon equippedWeapon;
+    private Armor equippedArmor; 
+    private final Inventory inventory = new Inventory();
+
+    public PlayerCharacter(String name, String charType, int baseHealth, int baseAttack, int specialCooldownTime) {
+        super(name, baseHealth, baseAttack, specialCooldownTime);
+        this.charType = charType;
+        this.equippedWeapon = new Weapon(ItemCatalog.FISTS); 
+        this.equippedArmor = new Armor(ItemCatalog.CLOTHES); 
+    }
+
+    @Override
+    public int getTotalDefense() {
+        return super.getTotalDefense() + equippedArmor.getDefenseModifier();
+    }
+
+    @Override
+    public int basicAttack() {
+        int totalAttack = super.basicAttack() + equippedWeapon.getAttackModifier();
+        getEvents().publish(CombatEvent.Type.BASIC_ATTACK, getName(), null, 0, 0, equippedWeapon.getName(), null);
+        return totalAttack;
+    }
+    
+    public String getCharType() { return charType; }
+    public Weapon getEquippedWeapon() { return equippedWeapon; }
+    public Armor getEquippedArmor() { return equippedArmor; }
+    public Inventory getInventory() { return inventory; }
+    public void setEquippedWeapon(Weapon equippedWeapon) { this.equippedWeapon = equippedWeapon; }
+    public void setEquippedArmor(Armor equippedArmor) { this.equippedArmor = equippedArmor; }
+
+    // Special attack damage is (int) (basicAttack() * multiplier), dealt in this many hits
+    public abstract double getSpecialMultiplier();
+    public int getSpecialHits() { return 1; }
+}
+
+// --- 4. Concrete Subclasses (Inheritance & Polymorphism) ---
+
+class Knight extends PlayerCharacter {
+    public Knight(String name) {
+        super(name, "Knight", 1200, 150, 2); 
+        setBaseDefense(50);
+    }
+
+    @Override
+    public double getSpecialMultiplier() { return 1.5; }
+
+    @Override
+    public void specialAttack(AbstractCharacter target) {
+        if (isSpecialReady()) {
+            int damage = (int) (basicAttack() * getSpecialMultiplier()); 
+            if (getEvents().isEnabled()) getEvents().publish(CombatEvent.Type.SPECIAL_USED, getName(), target.getName(), 0, 0, null, CombatEvent.Special.SHIELD_BASH);
+            target.takeDamage(damage);
+            // The bash staggers: the target loses its turns for the rest of the round
+            if (!target.isDefeated()) target.applyEffect(StatusEffect.STAGGERED, 1);
+            setSpecialCooldown(getSpecialCooldownTime()); 
+        } else {
+            getEvents().publish(CombatEvent.Type.SPECIAL_ON_COOLDOWN, getName(), 0, getSpecialReadyIn());
+        }
+    }
+}
+
+class Mage extends PlayerCharacter {
+    public Mage(String name) {
+        super(name, "Mage", 900, 250, 3);
+    }
+
+    @Override
+    public double getSpecialMultiplier() { return 2.5; }
+
+    @Override
+    public void specialAttack(AbstractCharacter target) {
+        if (isSpecialReady()) {
+            int damage = (int) (basicAttack() * getSpecialMultiplier()); 
+            if (getEvents().isEnabled()) getEvents().publish(CombatEvent.Type.SPECIAL_USED, getName(), target.getName(), 0, 0, null, CombatEvent.Special.FIREBALL);
+            target.takeDamage(damage);
+            setSpecialCooldown(getSpecialCooldownTime()); 
+        } else {
+            getEvents().publish(CombatEvent.Type.SPECIAL_ON_COOLDOWN, getName(), 0, getSpecialReadyIn());
+        }
+    }
+}
+
+class Archer extends PlayerCharacter {
+    public Archer(String name) {
+        super(name, "Archer", 1000, 200, 3);
+    }
+
+    @Override
+    public double getSpecialMultiplier() { return 0.8; }
+
+    @Override
+    public int getSpecialHits() { return 2; }
+
+    @Override
+    public void specialAttack(AbstractCharacter target) {
+        if (isSpecialReady()) {
+            int damage = (int) (basicAttack() * getSpecialMultiplier()); 
+            if (getEvents().isEnabled()) getEvents().publish(CombatEvent.Type.SPECIAL_USED, getName(), target.getName(), 0, 0, null, CombatEvent.Special.BARRAGE);
+            target.takeDamage(damage);
+            target.takeDamage(damage);
+            setSpecialCooldown(getSpecialCooldownTime()); 
+        } else {
+            getEvents().publish(CombatEvent.Type.SPECIAL_ON_COOLDOWN, getName(), 0, getSpecialReadyIn());
+        }
+    }
+}
+
+class Assassin extends PlayerCharacter {
+    public Assassin(String name) {
+        super(name, "Assassin", 800, 280, 2);
+    }
+
+    @Override
+    public double getSpecialMultiplier() { return 3.0; }
+
+    @Override
+    public void specialAttack(AbstractCharacter target) {
+        if (isSpecialReady()) {
+            int damage = (int) (basicAttack() * getSpecialMultiplier()); 
+            if (getEvents().isEnabled()) getEvents().publish(CombatEvent.Type.SPECIAL_USED, getName(), target.getName(), 0, 0, null, CombatEvent.Special.BACKSTAB);
+            target.takeDamage(damage);
+            setSpecialCooldown(getSpecialCooldownTime()); 
+        } else {
+            getEvents().publish(CombatEvent.Type.SPECIAL_ON_COOLDOWN, getName(), 0, getSpecialReadyIn());
+        }
+    }
+}
+
+class Dwarf extends PlayerCharacter {
+    public Dwarf(String name) {
+        super(name, "Dwarf", 1500, 100, 3);
+        setBaseDefense(75);
+    }
+
+    @Override
+    public double getSpecialMultiplier() { return 1.0; }
+
+    @Override
+    public int getSpecialHits() { return 0; } // Stone Skin heals and hardens instead
+
+    @Override
+    public void specialAttack(AbstractCharacter target) {
+        if (isSpecialReady()) {
+            int damage = (int) (basicAttack() * getSpecialMultiplier()); 
+            if (getEvents().isEnabled()) getEvents().publish(CombatEvent.Type.SPECIAL_USED, getName(), target.getName(), 0, 0, null, CombatEvent.Special.STONE_SKIN);
+            heal();
+            applyEffect(StatusEffect.STONE_SKIN, StatusEffect.PERMANENT);
+            setSpecialCooldown(getSpecialCooldownTime()); 
+        } else {
+            getEvents().publish(CombatEvent.Type.SPECIAL_ON_COOLDOWN, getName(), 0, getSpecialReadyIn());
+        }
+    }
+}
+
+
+// --- 5. Monster Class (Inheritance) ---
+class Monster extends AbstractCharacter {
+    public Monster(String name, int health, int baseAttack) {
+        super(name, health, baseAttack, 3);
+        setBaseDefense(20);
+    }
+
+    @Override
+    public void specialAttack(AbstractCharacter target) {
+        if (isSpecialReady()) {
+            int damage = (int) (basicAttack() * 1.8); 
+            if (getEvents().isEnabled()) getEvents().publish(CombatEvent.Type.SPECIAL_USED, getName(), target.getName(), 0, 0, null, CombatEvent.Special.MONSTER_RAGE);
+            target.takeDamage(damage);
+            setSpecialCooldown(getSpecialCooldownTime()); 
+        } else {
+            getEvents().publish(CombatEvent.Type.BASIC_ATTACK, getName(), 0, 0);
+            target.takeDamage(basicAttack());
+        }
+    }
+}
+
+// --- 6. Main Game Engine (FIX APPLIED HERE) ---
+class FinalProjectGame implements AutoCloseable { // Removed 'public' to fix file naming error
+    static final long LOCAL_SESSION = 1; // the console game's session in a GameLog
+    static final int LEADERBOARD_ROWS = 5;
+
+    private PlayerCharacter player;
+    private Scanner scanner;
+    private PrintStream out;
+    private long startTime;
+    private long playedBefore;                // play time of the run before startTime (a resume), -1 if unknown
+    private SplittableRandom seedSource = new SplittableRandom(); // one seed per adventure, so every run can be replayed
+    private Path recordDirectory;             // null unless --record was given
+    private ReplayJournal.Writer journal;
+    private SaveSlot saveGame;                // null when saving is off
+    private GameLog.Session gameLog;          // null unless the run is logged for crash recovery
+    private Leaderboard leaderboard;          // null when finished runs are not ranked
+    private long runSeed;
+    private CombatEventBus events;
+    private Campaign campaign;
+
+    public FinalProjectGame() {
+        this(new ConsoleCombatRenderer(System.out));
+    }
+
+    public FinalProjectGame(CombatEventSink combatOutput) {
+        this(System.in, System.out, combatOutput, CombatEventBus.DEFAULT_CAPACITY);
+    }
+
+    // One game session over arbitrary streams (e.g. a socket in GameServer)
+    public FinalProjectGame(InputStream in, PrintStream out, CombatEventSink combatOutput, int eventCapacity) {
+        this(in, out, combatOutput, eventCapacity, false);
+    }
+
+    // asyncEvents: deliver combat events from a consumer thread (see CombatEventBus)
+    public FinalProjectGame(InputStream in, PrintStream out, CombatEventSink combatOutput, int eventCapacity, boolean asyncEvents) {
+        this.scanner = new Scanner(in);
+        this.out = out;
+        this.events = new CombatEventBus(combatOutput, eventCapacity, asyncEvents);
+        this.campaign = new Campaign(new ConsolePlayer(), events, new RandomStreams(0), DifficultyTable.current());
+        this.campaign.setCheckpoint((hero, nextLevel) -> {
+            if (saveGame != null) saveGame.save(hero, nextLevel, runSeed, playedMillis(System.currentTimeMillis()));
+        });
+    }
+
+    public void setSeed(long seed) { this.seedSource = new SplittableRandom(seed); }
+    public void setRecordDirectory(Path recordDirectory) { this.recordDirectory = recordDirectory; }
+    public void setSaveGame(SaveSlot saveGame) { this.saveGame = saveGame; }
+    public void setLeaderboard(Leaderboard leaderboard) { this.leaderboard = leaderboard; }
+
+    // The log keeps the snapshots too, so it replaces any save slot
+    public void setGameLog(GameLog.Session gameLog) {
+        this.gameLog = gameLog;
+        this.saveGame = gameLog;
+    }
+
+    // Delivers the last combat events and stops the event consumer, if there is one
+    @Override
+    public void close() {
+        events.close();
+    }
+
+    public void startGame() {
+        out.println("👑 Welcome to The Lost Crown! 👑");
+        
+        boolean keepPlaying = true;
+        boolean offerResume = saveGame != null;
+        while (keepPlaying) {
+            try {
+                int firstLevel = 1;
+                SaveGame.Snapshot saved = offerResume ? saveGame.load() : null;
+                offerResume = false;
+                if (saved != null && askResume(saved)) {
+                    player = saved.getPlayer();
+                    firstLevel = saved.getLevel();
+                    runSeed = saved.getRunSeed();
+                    playedBefore = saved.getPlayedMillis();
+                    campaign.setStreams(new RandomStreams(runSeed));
+                    if (gameLog != null) gameLog.replayFromSnapshot();
+                    out.println("\nWelcome back, " + player.getName() + " the " + player.getCharType() + "! Resuming at Level " + firstLevel + ".");
+                } else {
+                    runSeed = seedSource.nextLong();
+                    playedBefore = 0;
+                    campaign.setStreams(new RandomStreams(runSeed));
+                    if (recordDirectory != null) {
+                        Path journalFile = recordDirectory.resolve("run-" + Long.toHexString(runSeed) + ".lcj");
+                        journal = ReplayJournal.Writer.create(journalFile, runSeed, campaign.getDifficulty());
+                    }
+
+                    player = selectCharacter();
+                    if (gameLog != null) gameLog.save(player, 1, runSeed, 0);
+                    out.println("\nWelcome, " + player.getName() + " the " + player.getCharType() + "! Your quest begins now.");
+                }
+                
+                startTime = System.currentTimeMillis(); 
+                
+                int result = campaign.run(player, firstLevel);
+                long endTime = System.currentTimeMillis();
+                long playedMillis = playedMillis(endTime);
+                if (saveGame != null) saveGame.clear();
+                if (journal != null) journal.finish(result, player.getHealth());
+                if (result == Campaign.VICTORY) {
+                    // End Game Scoring
+                    double timeTaken = (playedMillis >= 0 ? playedMillis : endTime - startTime) / 1000.0;
+                    out.printf("\n*** THE LOST CROWN RETRIEVED! ***\n");
+                    out.printf("You finished the game in %.2f seconds! A true hero!\n", timeTaken);
+                    out.println("The lost crown: \n\n" + getCrownArt());
+                }
+                if (leaderboard != null) rank(result, playedMillis);
+                
+                // Retry Option
+                out.print("\nDo you wish to start a new adventure? (Y/N): ");
+                String retry = scanner.nextLine().toUpperCase();
+                if (!retry.equals("Y")) {
+                    keepPlaying = false;
+                }
+            } catch (NoSuchElementException e) {
+                // Input closed (end of file or a disconnected client): nothing more to play
+                keepPlaying = false;
+            } catch (Exception e) {
+                out.println("\n🚨 A critical error occurred: " + e.getMessage() + "\nRestarting game setup.");
+            } finally {
+                if (journal != null) {
+                    journal.close();
+                    journal = null;
+                }
+            }
+        }
+        out.println("Thank you for playing!");
+    }
+
+    // Play time of the current run, including what it was played before a resume
+    private long playedMillis(long now) {
+        return playedBefore < 0 ? -1 : playedBefore + (now - startTime);
+    }
+
+    // Records the finished run and shows where it placed
+    private void rank(int result, long millis) {
+        if (millis < 0) {
+            out.println("\nThis run was resumed from a save without its play time, so it is not ranked.");
+            return;
+        }
+        Leaderboard.Entry entry;
+        try {
+            entry = leaderboard.submit(player.getName(), Campaign.classChoice(player), result, millis);
+        } catch (IOException e) {
+            out.println("\nThe run could not be added to the leaderboard: " + e.getMessage());
+            return;
+        }
+        out.println();
+        printRanking("🏆 Leaderboard", leaderboard.top(LEADERBOARD_ROWS), entry);
+        printRanking("🏆 Best " + entry.getClassName() + "s", leaderboard.top(entry.getClassChoice(), LEADERBOARD_ROWS), entry);
+    }
+
+    private void printRanking(String title, List<Leaderboard.Entry> entries, Leaderboard.Entry mine) {
+        out.println(title);
+        for (int i = 0; i < entries.size(); i++) {
+            out.printf("  %2d. %s%s%n", i + 1, entries.get(i), entries.get(i) == mine ? "  <- you" : "");
+        }
+    }
+
+    private boolean askResume(SaveGame.Snapshot saved) {
+        PlayerCharacter hero = saved.getPlayer();
+        out.print("\nA saved adventure was found: " + hero.getName() + " the " + hero.getCharType()
+                + " (HP: " + hero.getHealth() + "/" + hero.getMaxHealth() + ") before Level " + saved.getLevel() + ". Resume? (Y/N): ");
+        return scanner.nextLine().toUpperCase().equals("Y");
+    }
+    
+    private PlayerCharacter selectCharacter() {
+        while (true) {
+            out.println("\nSelect your character class:");
+            out.println("1. Knight (Balanced, High Def, CD: 2)");
+            out.println("2. Mage (High ATK, Low Def, CD: 3)");
+            out.println("3. Archer (Multi-hit, Balanced, CD: 3)");
+            out.println("4. Assassin (Very High ATK, Lowest HP, CD: 2)");
+            out.println("5. Dwarf (Highest HP & Def, Lowest ATK, CD: 3)");
+            out.print("Enter choice (1-5): ");
+            
+            try {
+                int choice = scanner.nextInt();
+                scanner.nextLine(); 
+                out.print("Enter your character's name: ");
+                String name = scanner.nextLine();
+
+                PlayerCharacter character = Campaign.newCharacter(choice, name);
+                if (character != null) {
+                    if (journal != null) {
+                        journal.recordInt(ReplayJournal.CLASS_CHOICE, choice);
+                        journal.recordString(ReplayJournal.NAME, name);
+                    }
+                    return character;
+                }
+                out.println("-> Invalid choice. Please try again.");
+            } catch (InputMismatchException e) {
+                out.println("🚨 Invalid input. Please enter a number (try-catch block used).");
+                scanner.nextLine(); 
+            }
+        }
+    }
+    
+    // --- Console front-end for Campaign ---
+    private class ConsolePlayer implements CampaignPlayer {
+        private static final int LISTED_WEAPONS = 3;
+        private static final double STRONG_EFFECT = 0.10;
+
+        @Override
+        public int chooseMove(PlayerCharacter player, Monster target) {
+            events.flush();
+            out.print("Choose move (1:Attack, 2:Heal [CD: " + player.getHealCooldown() + "], 3:Defend, 4:Special [CD: " + player.getSpecialReadyIn() + "]): ");
+            if (replaying()) return echo(gameLog.nextInt(ReplayJournal.MOVE));
+            int choice;
+            try {
+                choice = scanner.nextInt();
+                scanner.nextLine();
+            } catch (InputMismatchException e) {
+                scanner.nextLine();
+                choice = BattleEngine.FORCED_ATTACK;
+            }
+            if (journal != null) journal.recordInt(ReplayJournal.MOVE, choice);
+            if (gameLog != null) gameLog.recordInt(ReplayJournal.MOVE, choice);
+            return choice;
+        }
+
+        @Override
+        public boolean equipWeapon(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Weapon found) {
+            events.flush();
+            EquipOptimizer advisor = EquipOptimizer.SHARED;
+            printAdvice(nextLevel, advisor.scoreWeapon(difficulty, player, nextLevel, found), advisor.scoreWeapon(difficulty, player, nextLevel, player.getEquippedWeapon()));
+            out.print("Equip weapon? (Y/N): ");
+            if (replaying()) return echo(gameLog.nextBoolean(ReplayJournal.EQUIP_WEAPON));
+            boolean equip = scanner.nextLine().toUpperCase().equals("Y");
+            if (journal != null) journal.recordBoolean(ReplayJournal.EQUIP_WEAPON, equip);
+            if (gameLog != null) gameLog.recordBoolean(ReplayJournal.EQUIP_WEAPON, equip);
+            return equip;
+        }
+
+        @Override
+        public boolean equipArmor(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Armor found) {
+            events.flush();
+            EquipOptimizer advisor = EquipOptimizer.SHARED;
+            printAdvice(nextLevel, advisor.scoreArmor(difficulty, player, nextLevel, found), advisor.scoreArmor(difficulty, player, nextLevel, player.getEquippedArmor()));
+            out.print("Equip armor? (Y/N): ");
+            if (replaying()) return echo(gameLog.nextBoolean(ReplayJournal.EQUIP_ARMOR));
+            boolean equip = scanner.nextLine().toUpperCase().equals("Y");
+            if (journal != null) journal.recordBoolean(ReplayJournal.EQUIP_ARMOR, equip);
+            if (gameLog != null) gameLog.recordBoolean(ReplayJournal.EQUIP_ARMOR, equip);
+            return equip;
+        }
+
+        @Override
+        public int storedWeapon(int level, DifficultyTable difficulty, PlayerCharacter player) {
+            events.flush();
+            Inventory inventory = player.getInventory();
+            printStoredWeapons(inventory);
+            EquipOptimizer advisor = EquipOptimizer.SHARED;
+            int offered = advisor.bestWeaponSlot(difficulty, player, level);
+            if (offered >= 0) {
+                Weapon stored = inventory.getWeapon(offered);
+                printAdvice(level, advisor.scoreWeapon(difficulty, player, level, stored), advisor.scoreWeapon(difficulty, player, level, player.getEquippedWeapon()));
+                out.print("Equip " + stored + " from your inventory? (Y/N): ");
+            }
+            return storedChoice(ReplayJournal.STORED_WEAPON, offered);
+        }
+
+        @Override
+        public int storedArmor(int level, DifficultyTable difficulty, PlayerCharacter player) {
+            events.flush();
+            Inventory inventory = player.getInventory();
+            out.println("🎒 Inventory: " + inventory.getArmorCount() + " armor, strongest " + inventory.getArmor(inventory.bestArmor()));
+            EquipOptimizer advisor = EquipOptimizer.SHARED;
+            int offered = advisor.bestArmorSlot(difficulty, player, level);
+            if (offered >= 0) {
+                Armor stored = inventory.getArmor(offered);
+                Weapon weapon = player.getEquippedWeapon();
+                printAdvice(level, advisor.expectedHealthAfter(difficulty, player, level, weapon, stored),
+                        advisor.expectedHealthAfter(difficulty, player, level, weapon, player.getEquippedArmor()));
+                out.print("Equip " + stored + " from your inventory? (Y/N): ");
+            }
+            return storedChoice(ReplayJournal.STORED_ARMOR, offered);
+        }
+
+        // Only the advisor's pick is offered. The answer is logged even when nothing was
+        // offered, so a journal has one record per call and plays back in step.
+        private int storedChoice(int tag, int offered) {
+            if (replaying()) {
+                int slot = gameLog.nextInt(tag);
+                if (offered >= 0) echo(slot >= 0);
+                return slot;
+            }
+            int slot = offered >= 0 && scanner.nextLine().toUpperCase().equals("Y") ? offered : -1;
+            if (journal != null) journal.recordInt(tag, slot);
+            if (gameLog != null) gameLog.recordInt(tag, slot);
+            return slot;
+        }
+
+        // The strongest few weapons, then the best of each effect and how many beat STRONG_EFFECT
+        private void printStoredWeapons(Inventory inventory) {
+            int[] top = new int[LISTED_WEAPONS];
+            int count = inventory.topWeapons(top);
+            StringBuilder line = new StringBuilder("🎒 Inventory: " + inventory.getWeaponCount() + " weapon(s), strongest ");
+            for (int i = 0; i < count; i++) {
+                line.append(i > 0 ? ", " : "").append(inventory.getWeapon(top[i]));
+            }
+            out.println(line);
+            int[] best = new int[1];
+            for (int effect = ItemCatalog.EFFECT_STUN; effect <= ItemCatalog.EFFECT_FREEZE; effect++) {
+                if (inventory.topWeaponsWithEffect(effect, best) == 0) continue;
+                int[] strong = new int[1];
+                inventory.forEachWeaponWithEffectAbove(effect, STRONG_EFFECT, slot -> strong[0]++);
+                out.printf("   Best %s: %s, %d stored above %.0f%%%n", ItemCatalog.effectName(inventory.getItem(best[0])),
+                        inventory.getWeapon(best[0]), strong[0], STRONG_EFFECT * 100);
+            }
+        }
+
+        @Override
+        public String answerQuiz(int level, String question) {
+            events.flush();
+            out.print(question);
+            if (replaying()) {
+                String response = gameLog.nextString(ReplayJournal.QUIZ_ANSWER);
+                out.println(response);
+                return response;
+            }
+            // FIX APPLIED: Reading input only once and trimming whitespace
+            String response = scanner.nextLine();
+            if (journal != null) journal.recordString(ReplayJournal.QUIZ_ANSWER, response);
+            if (gameLog != null) gameLog.recordString(ReplayJournal.QUIZ_ANSWER, response);
+            return response;
+        }
+
+        // After a crash the logged decisions of the interrupted level are played back first,
+        // shown after their prompts as if just typed
+        private boolean replaying() {
+            return gameLog != null && gameLog.replaying();
+        }
+
+        private int echo(int choice) {
+            out.println(choice);
+            return choice;
+        }
+
+        private boolean echo(boolean equip) {
+            out.println(equip ? "Y" : "N");
+            return equip;
+        }
+
+        // Expected health left after the next battle with the new item vs. the current one
+        private void printAdvice(int nextLevel, double withFound, double withCurrent) {
+            out.printf("💡 Advisor: about %d HP left after Level %d with it, %d with your current gear (recommended: %s)%n",
+                    Math.round(withFound), nextLevel, Math.round(withCurrent), withFound > withCurrent ? "Y" : "N");
+        }
+    }
+
+    private String getCrownArt() {
+        return "       .:::.       \n"+
+               "      / \\|/ \\      \n"+
+               "     |@|:::|@|     \n"+
+               "     \\ \\`\"'/ /     \n"+
+               "======\\_v_//======\n"+
+               "      / _ \\       \n"+
+               "     | / \\ |      \n"+
+               "     `-- --'";
+    }
+
+    // Options:
+    //   --combat-log <file>  also append every combat event to a tab-separated file (written off the game thread)
+    //   --seed <n>           make the adventures reproducible
+    //   --record <dir>       write a replay journal per adventure (see ReplayRunner)
+    //   --replay <file|dir>  re-run recorded journals headless instead of playing
+    //   --save <file>        save file to resume from (default lostcrown.sav)
+    //   --no-save            do not save progress between levels
+    //   --difficulty <file>  monster curves to play with (default difficulty.table, if present)
+    //   --log <file>         log every turn so a crash resumes mid-battle (replaces the save file)
+    //   --leaderboard <file> where finished runs are ranked (default leaderboard.dat)
+    //   --no-leaderboard     do not rank finished runs
+    public static void main(String[] args) throws IOException {
+        CombatEventSink combatOutput = new ConsoleCombatRenderer(System.out);
+        FileCombatEventSink combatFile = null;
+        Long seed = null;
+        Path recordDirectory = null;
+        Path saveFile = Paths.get("lostcrown.sav");
+        Path difficultyFile = DifficultyTable.DEFAULT_FILE;
+        Path logFile = null;
+        Path leaderboardFile = Leaderboard.DEFAULT_FILE;
+        String replay = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--combat-log":
+                    combatFile = new FileCombatEventSink(Paths.get(args[++i]));
+                    combatOutput = CombatEventSink.tee(combatOutput, combatFile);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--record":
+                    recordDirectory = Files.createDirectories(Paths.get(args[++i]));
+                    break;
+                case "--replay":
+                    replay = args[++i];
+                    break;
+                case "--save":
+                    saveFile = Paths.get(args[++i]);
+                    break;
+                case "--no-save":
+                    saveFile = null;
+                    break;
+                case "--log":
+                    logFile = Paths.get(args[++i]);
+                    break;
+                case "--leaderboard":
+                    leaderboardFile = Paths.get(args[++i]);
+                    break;
+                case "--no-leaderboard":
+                    leaderboardFile = null;
+                    break;
+                case "--difficulty":
+                    difficultyFile = Paths.get(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+            }
+        }
+
+        if (DifficultyTable.loadIfPresent(difficultyFile)) System.out.println("Difficulty table: " + difficultyFile);
+        if (replay != null) {
+            ReplayRunner.main(new String[]{replay}); // journals without a table replay with this one
+            return;
+        }
+        SaveGame saveGame = saveFile != null && logFile == null ? new SaveGame(saveFile) : null;
+        GameLog gameLog = logFile != null ? new GameLog(logFile) : null;
+        Leaderboard leaderboard = leaderboardFile != null ? new Leaderboard(leaderboardFile) : null;
+        try (FinalProjectGame game = new FinalProjectGame(System.in, System.out, combatOutput, CombatEventBus.DEFAULT_CAPACITY, combatFile != null)) {
+            if (seed != null) game.setSeed(seed);
+            game.setRecordDirectory(recordDirectory);
+            game.setSaveGame(saveGame);
+            if (gameLog != null) game.setGameLog(gameLog.session(LOCAL_SESSION));
+            game.setLeaderboard(leaderboard);
+            game.startGame();
+        } finally {
+            if (saveGame != null) saveGame.close();
+            if (gameLog != null) gameLog.close();
+            if (leaderboard != null) leaderboard.close();
+            if (combatFile != null) combatFile.close();
+        }
+    }
+}
\ No newline at end of file
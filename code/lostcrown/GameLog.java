@@ -0,0 +1,501 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+// --- Game Log ---
+// Crash-safe, append-only log of running games, shared by every session of a process.
+// Since runs draw their dice from RandomStreams, a game's state is a pure function of its
+// level-start snapshot and the decisions made since, so those are the events: a SNAPSHOT
+// (the SaveGame slot, written when a run starts and at every level checkpoint), then one
+// event per player decision with the ReplayJournal tags, then END once the run is won or
+// lost. A move is logged before the turn it starts is played, so recovery replays it and
+// lands after the last turn the player finished, even in the middle of a battle.
+//
+// Frames are [body length][CRC32 of body][body: session code, tag, payload]. Appends wait
+// until their frame is on disk, but they share the fsync: one writer thread takes whatever
+// has queued up while the previous batch was being forced and writes it with a single
+// force() (group commit), so thousands of sessions each logging every turn cost a handful
+// of fsyncs per batch window rather than one per turn.
+//
+// Opening a log reads it up to the first torn or corrupt frame, keeps the tail of every
+// unfinished run (its newest snapshot and the events after it) and rewrites the file with
+// just those tails. While the log is open, every frame that a newer snapshot or an END
+// makes obsolete is counted as dead; once the dead bytes pass the compaction threshold and
+// outnumber the live ones, the writer rolls to a new file holding only the live tails
+// instead of writing its next batch, so a long-running server's log stays proportional to
+// the runs in progress. Snapshots logged before SaveGame version 4 hold a 256-byte slot
+// without the inventory; recovery pads them to the current slot size.
+class GameLog implements AutoCloseable {
+    static final int SNAPSHOT = 7; // between the ReplayJournal tags; journals leave 7 unused
+    private static final int FRAME_HEADER = 8;
+    private static final int BODY_HEADER = 9; // session code, tag
+    private static final int INITIAL_BATCH = 64 * 1024;
+    static final long DEFAULT_COMPACT_THRESHOLD = 4 * 1024 * 1024; // dead bytes before rolling
+
+    private final Path file;
+    private final Map<Long, Tail> tails = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition work = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final Thread writer;
+    private FileChannel channel; // replaced by the writer when it rolls to a compacted file
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BATCH);
+    private ByteBuffer writing = ByteBuffer.allocate(INITIAL_BATCH);
+    private long appended; // frames queued so far
+    private long durable;  // frames forced to disk so far
+    private long batches;
+    private long logBytes;  // in the file and queued for it
+    private long liveBytes; // of those, the frames of the current tails
+    private long compactThreshold = DEFAULT_COMPACT_THRESHOLD;
+    private long compactions;
+    private IOException failure;
+    private boolean closed;
+    private int recoveredRuns;
+    private long discardedBytes;
+
+    public GameLog(Path file) throws IOException {
+        this.file = file;
+        recover();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new Thread(this::writeLoop, "game-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public int getRecoveredRuns() { return recoveredRuns; }
+    public long getDiscardedBytes() { return discardedBytes; }
+    public boolean contains(long code) { return tails.containsKey(code); }
+
+    public long getAppends() {
+        lock.lock();
+        try {
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getBatches() {
+        lock.lock();
+        try {
+            return batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getCompactions() {
+        lock.lock();
+        try {
+            return compactions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setCompactThreshold(long bytes) {
+        lock.lock();
+        try {
+            compactThreshold = bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The session's view of the log; sessions are named as in SessionStore
+    public Session session(long code) {
+        return new Session(code);
+    }
+
+    // --- Sessions ---
+
+    // Saves snapshots like a SaveSlot and logs decisions. After a resume, replaying() is true
+    // until the logged decisions have all been handed back through the next*() methods.
+    final class Session implements SaveSlot {
+        private final long code;
+        private Tail replay; // the tail being replayed, null once live
+        private int replayAt;
+
+        private Session(long code) {
+            this.code = code;
+        }
+
+        public long getCode() { return code; }
+
+        @Override
+        public void save(PlayerCharacter player, int nextLevel, long runSeed, long playedMillis) {
+            byte[] slot = new byte[SaveGame.SLOT_SIZE];
+            SaveGame.write(ByteBuffer.wrap(slot), 0, player, nextLevel, runSeed, playedMillis, 1);
+            append(code, SNAPSHOT, slot);
+            replay = null;
+        }
+
+        @Override
+        public SaveGame.Snapshot load() {
+            Tail tail = tails.get(code);
+            return tail == null ? null : SaveGame.read(ByteBuffer.wrap(tail.snapshot), 0);
+        }
+
+        @Override
+        public void clear() {
+            if (tails.containsKey(code)) append(code, ReplayJournal.END, new byte[0]);
+            replay = null;
+        }
+
+        // Call after resuming from load(): the decisions logged since are played back first
+        public void replayFromSnapshot() {
+            replay = tails.get(code);
+            replayAt = 0;
+        }
+
+        public boolean replaying() {
+            if (replay != null && replayAt >= replay.length()) replay = null;
+            return replay != null;
+        }
+
+        public int nextInt(int tag) {
+            ByteBuffer event = nextEvent(tag);
+            return event.getInt();
+        }
+
+        public boolean nextBoolean(int tag) {
+            return nextInt(tag) != 0;
+        }
+
+        public String nextString(int tag) {
+            ByteBuffer event = nextEvent(tag);
+            byte[] bytes = new byte[event.getShort() & 0xFFFF];
+            event.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private ByteBuffer nextEvent(int tag) {
+            if (!replaying()) throw new IllegalStateException("No logged decisions left");
+            ByteBuffer event = replay.view(replayAt);
+            if (event.get() != tag) throw new IllegalStateException("Log out of sync: expected tag " + tag);
+            int start = event.position();
+            skipPayload(tag, event);
+            replayAt += 1 + event.position() - start;
+            event.position(start);
+            return event;
+        }
+
+        public void recordInt(int tag, int value) {
+            record(tag, ByteBuffer.allocate(4).putInt(value).array());
+        }
+
+        public void recordBoolean(int tag, boolean value) {
+            recordInt(tag, value ? 1 : 0);
+        }
+
+        public void recordString(int tag, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > 0xFFFF) bytes = Arrays.copyOf(bytes, 0xFFFF);
+            record(tag, ByteBuffer.allocate(2 + bytes.length).putShort((short) bytes.length).put(bytes).array());
+        }
+
+        private void record(int tag, byte[] payload) {
+            if (!tails.containsKey(code)) return; // no run started through this log
+            append(code, tag, payload);
+        }
+    }
+
+    // A run's newest snapshot and the events after it, as [tag][payload] entries
+    private static final class Tail {
+        final byte[] snapshot;
+        private byte[] events = new byte[64];
+        private int length;
+        long frameBytes; // its frames in the log, snapshot included
+
+        Tail(byte[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        synchronized int length() { return length; }
+
+        synchronized void add(int tag, byte[] payload) {
+            if (length + 1 + payload.length > events.length) {
+                events = Arrays.copyOf(events, Math.max(events.length * 2, length + 1 + payload.length));
+            }
+            events[length++] = (byte) tag;
+            System.arraycopy(payload, 0, events, length, payload.length);
+            length += payload.length;
+        }
+
+        // Bytes below length never change once added, so the view needs no copy
+        synchronized ByteBuffer view(int from) {
+            return ByteBuffer.wrap(events, from, length - from);
+        }
+    }
+
+    private static void skipPayload(int tag, ByteBuffer payload) {
+        switch (tag) {
+            case ReplayJournal.QUIZ_ANSWER:
+                payload.position(payload.position() + 2 + (payload.getShort(payload.position()) & 0xFFFF));
+                break;
+            case SNAPSHOT:
+                payload.position(payload.position() + SaveGame.SLOT_SIZE);
+                break;
+            case ReplayJournal.END:
+                break;
+            default:
+                payload.position(payload.position() + 4);
+        }
+    }
+
+    // --- Group Commit ---
+
+    // Applies the frame to the tails and returns once it is durable. The tails change in
+    // queue order, under the lock, so a roll always sees them match everything queued.
+    private void append(long code, int tag, byte[] payload) {
+        int bodyLength = BODY_HEADER + payload.length;
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER + bodyLength);
+        frame.putInt(bodyLength).putInt(0).putLong(code).put((byte) tag).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(frame.array(), FRAME_HEADER, bodyLength);
+        frame.putInt(4, (int) crc.getValue()).flip();
+
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Game log is closed");
+            if (pending.remaining() < frame.remaining()) {
+                pending = grow(pending, frame.remaining());
+            }
+            logBytes += frame.remaining();
+            pending.put(frame);
+            track(code, tag, payload);
+            long frameNumber = ++appended;
+            work.signal();
+            boolean interrupted = false;
+            while (durable < frameNumber && failure == null) {
+                try {
+                    synced.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (durable < frameNumber) throw new UncheckedIOException(failure);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    private void writeLoop() {
+        while (true) {
+            long batch;
+            ByteBuffer live = null; // the file to roll to instead of appending the batch
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !closed) work.awaitUninterruptibly();
+                if (pending.position() == 0) return; // closed and drained
+                batch = appended;
+                if (logBytes - liveBytes >= compactThreshold && logBytes - liveBytes > liveBytes) {
+                    // The tails already hold everything queued, so the batch goes into the new file with them
+                    live = liveFrames();
+                    pending.clear();
+                    logBytes = liveBytes;
+                } else {
+                    ByteBuffer full = pending;
+                    pending = writing;
+                    writing = full;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                if (live != null) {
+                    roll(live);
+                } else {
+                    writing.flip();
+                    while (writing.hasRemaining()) channel.write(writing);
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            writing.clear();
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    closed = true;
+                } else {
+                    durable = batch;
+                    batches++;
+                    if (live != null) compactions++;
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) return;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            work.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.close();
+        if (failure != null) throw failure;
+    }
+
+    // --- Recovery ---
+
+    private void recover() throws IOException {
+        if (!Files.exists(file)) return;
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        while (log.remaining() >= FRAME_HEADER) {
+            int start = log.position();
+            int bodyLength = log.getInt();
+            int expected = log.getInt();
+            if (bodyLength < BODY_HEADER || bodyLength > log.remaining()) {
+                log.position(start);
+                break;
+            }
+            crc.reset();
+            crc.update(log.array(), log.position(), bodyLength);
+            if ((int) crc.getValue() != expected) {
+                log.position(start);
+                break;
+            }
+            ByteBuffer body = log.slice(log.position(), bodyLength);
+            log.position(log.position() + bodyLength);
+            if (!apply(body)) {
+                log.position(start);
+                break;
+            }
+        }
+        discardedBytes = log.remaining();
+        recoveredRuns = tails.size();
+        compact();
+    }
+
+    // Replays one frame body into the tails; false if it does not decode
+    private boolean apply(ByteBuffer body) {
+        long code = body.getLong();
+        int tag = body.get();
+        int logged = body.remaining();
+        byte[] payload = new byte[logged];
+        body.get(payload);
+        if (tag == SNAPSHOT && logged == SaveGame.LEGACY_SLOT_SIZE) payload = Arrays.copyOf(payload, SaveGame.SLOT_SIZE);
+        ByteBuffer check = ByteBuffer.wrap(payload);
+        try {
+            skipPayload(tag, check);
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            return false;
+        }
+        if (check.hasRemaining()) return false;
+        if (tag == SNAPSHOT && (payload.length != SaveGame.SLOT_SIZE || !SaveGame.isValid(ByteBuffer.wrap(payload), 0))) return false;
+        logBytes += FRAME_HEADER + BODY_HEADER + logged;
+        track(code, tag, payload);
+        return true;
+    }
+
+    // Applies a frame to the tails and the live byte count. A snapshot replaces the run's
+    // tail, END drops it, and events for runs without one are not kept.
+    private void track(long code, int tag, byte[] payload) {
+        int frameBytes = FRAME_HEADER + BODY_HEADER + payload.length;
+        if (tag == SNAPSHOT) {
+            Tail tail = new Tail(payload);
+            tail.frameBytes = frameBytes;
+            Tail replaced = tails.put(code, tail);
+            if (replaced != null) liveBytes -= replaced.frameBytes;
+            liveBytes += frameBytes;
+        } else if (tag == ReplayJournal.END) {
+            Tail ended = tails.remove(code);
+            if (ended != null) liveBytes -= ended.frameBytes;
+        } else {
+            Tail tail = tails.get(code);
+            if (tail == null) return;
+            tail.add(tag, payload);
+            tail.frameBytes += frameBytes;
+            liveBytes += frameBytes;
+        }
+    }
+
+    // Rewrites the log with only the unfinished runs and swaps it in atomically
+    private void compact() throws IOException {
+        write(file, liveFrames());
+        logBytes = liveBytes;
+    }
+
+    // Writer thread: makes the live frames the whole log and appends to it from now on
+    private void roll(ByteBuffer live) throws IOException {
+        channel.close();
+        write(file, live);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void write(Path file, ByteBuffer frames) throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (frames.hasRemaining()) out.write(frames);
+            out.force(true);
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Every tail as frames: its snapshot, then one frame per event
+    private ByteBuffer liveFrames() {
+        ByteBuffer buffer = ByteBuffer.allocate((int) liveBytes);
+        CRC32 crc = new CRC32();
+        for (Map.Entry<Long, Tail> run : tails.entrySet()) {
+            Tail tail = run.getValue();
+            writeFrame(buffer, crc, run.getKey(), SNAPSHOT, ByteBuffer.wrap(tail.snapshot));
+            ByteBuffer events = tail.view(0);
+            while (events.hasRemaining()) {
+                int tag = events.get();
+                int start = events.position();
+                skipPayload(tag, events);
+                writeFrame(buffer, crc, run.getKey(), tag, events.duplicate().position(start).limit(events.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static void writeFrame(ByteBuffer buffer, CRC32 crc, long code, int tag, ByteBuffer payload) {
+        int bodyLength = BODY_HEADER + payload.remaining();
+        int start = buffer.position();
+        buffer.putInt(bodyLength).putInt(0).putLong(code).put((byte) tag).put(payload);
+        crc.reset();
+        crc.update(buffer.array(), start + FRAME_HEADER, bodyLength);
+        buffer.putInt(start + 4, (int) crc.getValue());
+    }
+}
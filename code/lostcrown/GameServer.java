@@ -0,0 +1,205 @@
+package lostcrown;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// --- Multi-Session Game Server ---
+// Every TCP connection gets its own FinalProjectGame (own Scanner, player, RandomStreams and event
+// bus) running the normal startGame flow over the socket. Sessions are idle most of the
+// time, blocked on the player's next line, so each runs on a virtual thread when the JVM
+// has them (Java 21+). On older JVMs it falls back to daemon platform threads with small
+// stacks. Per-session buffers are kept small and the session count is capped, so memory
+// stays bounded. Try it with: nc localhost 4000
+//
+// With a session file, games outlive their connections: a new player is given a session
+// code, the game checkpoints into the SessionStore before every level, and a player who
+// reconnects with the code is offered the saved run back. The store keeps idle sessions in
+// memory up to the budget and pages the rest out to the file. With a log file as well,
+// every session logs its turns to one shared GameLog instead, so games survive a crash of
+// the server and resume at the last turn played. Finished runs from every session are
+// ranked on one shared Leaderboard (leaderboard.dat).
+// Usage: java lostcrown.GameServer [port] [maxSessions] [sessionFile] [memoryBudgetMB] [logFile]
+class GameServer {
+    static final int DEFAULT_PORT = 4000;
+    static final int DEFAULT_MAX_SESSIONS = 10_000;
+    private static final int SESSION_EVENT_CAPACITY = 64;
+    private static final int SESSION_OUTPUT_BUFFER = 1024;
+    private static final long FALLBACK_STACK_SIZE = 256 * 1024;
+    static final long DEFAULT_MEMORY_BUDGET_MB = 64;
+
+    private final int port;
+    private final Semaphore sessionSlots;
+    private final ExecutorService sessions;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final SessionStore store; // null when games end with their connection
+    private final GameLog log;        // null unless sessions are logged turn by turn
+    private Leaderboard leaderboard;  // null when finished runs are not ranked
+
+    public GameServer(int port, int maxSessions) {
+        this(port, maxSessions, null, null);
+    }
+
+    public GameServer(int port, int maxSessions, SessionStore store, GameLog log) {
+        this.port = port;
+        this.sessionSlots = new Semaphore(maxSessions);
+        this.sessions = newSessionExecutor();
+        this.store = store;
+        this.log = log;
+    }
+
+    public int getActiveSessions() { return activeSessions.get(); }
+    public void setLeaderboard(Leaderboard leaderboard) { this.leaderboard = leaderboard; }
+
+    public void serve() throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 512, InetAddress.getLoopbackAddress())) {
+            System.out.println("The Lost Crown server listening on " + server.getLocalSocketAddress());
+            while (!server.isClosed()) {
+                Socket socket = server.accept();
+                if (!sessionSlots.tryAcquire()) {
+                    reject(socket);
+                    continue;
+                }
+                sessions.execute(() -> runSession(socket));
+            }
+        } finally {
+            sessions.shutdownNow();
+        }
+    }
+
+    private void runSession(Socket socket) {
+        int id = sessionIds.incrementAndGet();
+        activeSessions.incrementAndGet();
+        try (Socket connection = socket) {
+            connection.setTcpNoDelay(true);
+            PrintStream out = new PrintStream(new BufferedOutputStream(connection.getOutputStream(), SESSION_OUTPUT_BUFFER),
+                    false, StandardCharsets.UTF_8);
+            InputStream in = new FlushBeforeRead(connection.getInputStream(), out);
+            FinalProjectGame game = new FinalProjectGame(in, out, new ConsoleCombatRenderer(out), SESSION_EVENT_CAPACITY);
+            game.setLeaderboard(leaderboard);
+            if (store == null) {
+                game.startGame();
+            } else {
+                try (SessionStore.Session session = store.open(askSessionCode(in, out))) {
+                    if (log != null) {
+                        game.setGameLog(log.session(session.getCode()));
+                    } else {
+                        game.setSaveGame(session);
+                    }
+                    game.startGame();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.out.println("Session " + id + " ended: " + e.getMessage());
+        } finally {
+            activeSessions.decrementAndGet();
+            sessionSlots.release();
+        }
+    }
+
+    // A returning player's code, or a new one. Reads the line byte by byte so nothing the
+    // game's Scanner should see is buffered here.
+    private long askSessionCode(InputStream in, PrintStream out) throws IOException {
+        out.print("Session code (blank for a new game): ");
+        StringBuilder line = new StringBuilder();
+        for (int b = in.read(); b >= 0 && b != '\n'; b = in.read()) {
+            if (b != '\r') line.append((char) b);
+        }
+        String entered = line.toString().trim();
+        if (!entered.isEmpty()) {
+            try {
+                long code = Long.parseUnsignedLong(entered, 16);
+                if (store.contains(code) || (log != null && log.contains(code))) return code;
+            } catch (NumberFormatException ignored) {
+                // falls through to a new session
+            }
+            out.println("No saved game under that code.");
+        }
+        long code = store.newSessionCode();
+        out.println("Your session code is " + Long.toHexString(code) + ". Enter it when you reconnect to continue.");
+        return code;
+    }
+
+    private static void reject(Socket socket) {
+        try (Socket connection = socket) {
+            connection.getOutputStream().write("Server is full, please try again later.\n".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException ignored) {
+            // the client is gone anyway
+        }
+    }
+
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadIds = new AtomicInteger();
+            ThreadFactory smallStacks = task -> {
+                Thread thread = new Thread(null, task, "session-" + threadIds.incrementAndGet(), FALLBACK_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(smallStacks);
+        }
+    }
+
+    // Prompts are printed without a newline, so push pending output to the client whenever
+    // the session is about to wait for the client's next line
+    private static class FlushBeforeRead extends FilterInputStream {
+        private final PrintStream out;
+
+        FlushBeforeRead(InputStream in, PrintStream out) {
+            super(in);
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            out.flush();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            out.flush();
+            return super.read(buffer, offset, length);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_SESSIONS;
+        long budgetMb = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_MEMORY_BUDGET_MB;
+        if (DifficultyTable.loadIfPresent(DifficultyTable.DEFAULT_FILE)) System.out.println("Difficulty table: " + DifficultyTable.DEFAULT_FILE);
+        try (Leaderboard leaderboard = new Leaderboard(Leaderboard.DEFAULT_FILE)) {
+            System.out.println("Leaderboard: " + Leaderboard.DEFAULT_FILE + " (" + leaderboard.getRecords() + " runs)");
+            if (args.length <= 2) {
+                GameServer server = new GameServer(port, maxSessions);
+                server.setLeaderboard(leaderboard);
+                server.serve();
+                return;
+            }
+            try (SessionStore store = new SessionStore(Paths.get(args[2]), budgetMb * 1024 * 1024);
+                 GameLog log = args.length > 4 ? new GameLog(Paths.get(args[4])) : null) {
+                System.out.println("Sessions: " + args[2] + " (" + store.getStoredSessions() + " stored, " + budgetMb + " MB budget)");
+                if (log != null) System.out.println("Game log: " + args[4] + " (" + log.getRecoveredRuns() + " runs recovered)");
+                GameServer server = new GameServer(port, maxSessions, store, log);
+                server.setLeaderboard(leaderboard);
+                server.serve();
+            }
+        }
+    }
+}
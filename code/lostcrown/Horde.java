@@ -0,0 +1,512 @@
+package lostcrown;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// --- Horde (Structure-of-Arrays Monsters) ---
+// Large encounters keep monster state in parallel primitive arrays instead of one Monster
+// object each: about 14 bytes per monster (health, max health, attack, defense as ints, a
+// byte cooldown and five flag bits) against well over 100 bytes for a Monster plus its name.
+// takeDamage/defend/endTurn follow the same rules as AbstractCharacter and Monster. Stun and
+// Freeze set a stunned bit, Freeze also a frozen bit (half speed) and Shield Bash a staggered
+// bit. They expire on the status clock (see StatusEffects), which keeps a wheel entry id per
+// member and kind once any member has carried that kind.
+//
+// LOWEST_HP and HIGHEST_THREAT targeting read the best live member off an IndexedHeap keyed
+// by TargetingStrategy.key. Every change to a member's key (health, and for threat a special
+// turning ready or not) sets its dirty bit; bestTarget re-keys only the dirty members, so a
+// player turn costs O(changes log n) rather than a scan of the horde. Dirty bits share the
+// bitset words of the other flags, so the parallel monster phase can set them too.
+class Horde implements TimingWheel.Listener {
+    static final int MONSTER_DEFENSE = 20;
+    static final int SPECIAL_COOLDOWN_TIME = 3;
+    static final int PARALLEL_THRESHOLD = 4096; // smaller monster phases are not worth splitting
+    private static final int CHUNK = 1024;
+
+    private final String name;
+    private final int size;
+    private final int[] health;
+    private final int[] maxHealth;
+    private final int[] attack;
+    private final int[] defense;
+    private final byte[] specialCooldown;
+    private final long[] defending;    // bitset
+    private final long[] invulnerable; // bitset
+    private final long[] stunned;      // bitset: Stun or Freeze is blocking the special
+    private final long[] frozen;       // bitset: Freeze is slowing the member
+    private final long[] staggered;    // bitset: the member loses its turns this round
+    private int[] stunEntries;         // wheel entry per member, allocated on the first stun
+    private int[] freezeEntries;       // likewise for the slow and the stagger
+    private int[] staggerEntries;
+    private int[] speeds;              // allocated when a member leaves the standard speed
+    private int[] intents;             // actAll scratch: health the member's hit costs, or -1 to defend
+    private TargetingStrategy indexed; // the strategy targets is keyed for, null before the first lookup
+    private IndexedHeap targets;       // live members by indexed.key
+    private long[] dirty;              // bitset: members whose key may have changed since the last lookup
+    private TimingWheel statusClock;   // the battle's, or our own (ticked by endTurnAll); set while anyone is stunned
+    private boolean ownClock;
+    private int aliveCount;
+    private CombatEventBus events = CombatEventBus.DISABLED;
+
+    public Horde(String name, int size) {
+        this.name = name;
+        this.size = size;
+        this.health = new int[size];
+        this.maxHealth = new int[size];
+        this.attack = new int[size];
+        this.defense = new int[size];
+        this.specialCooldown = new byte[size];
+        this.defending = new long[(size + 63) >>> 6];
+        this.invulnerable = new long[(size + 63) >>> 6];
+        this.stunned = new long[(size + 63) >>> 6];
+        this.frozen = new long[(size + 63) >>> 6];
+        this.staggered = new long[(size + 63) >>> 6];
+    }
+
+    // Every member gets the same stats, like generateMonsters
+    static Horde uniform(String name, int size, int health, int attack) {
+        Horde horde = new Horde(name, size);
+        for (int i = 0; i < size; i++) {
+            horde.set(i, health, attack);
+        }
+        return horde;
+    }
+
+    static Horde of(Monster[] monsters) {
+        Horde horde = new Horde("Ghoul", monsters.length);
+        for (int i = 0; i < monsters.length; i++) {
+            Monster monster = monsters[i];
+            horde.set(i, monster.getMaxHealth(), monster.getBaseAttack());
+            horde.health[i] = monster.getHealth();
+            horde.defense[i] = monster.getNaturalDefense();
+            horde.specialCooldown[i] = (byte) monster.getSpecialCooldown();
+        }
+        horde.aliveCount = 0;
+        for (int i = 0; i < monsters.length; i++) {
+            if (horde.health[i] > 0) horde.aliveCount++;
+        }
+        return horde;
+    }
+
+    private void set(int i, int health, int attack) {
+        if (this.health[i] <= 0 && health > 0) aliveCount++;
+        this.health[i] = health;
+        this.maxHealth[i] = health;
+        this.attack[i] = attack;
+        this.defense[i] = MONSTER_DEFENSE;
+        this.specialCooldown[i] = 0;
+        changed(i);
+    }
+
+    public int size() { return size; }
+    public int getAliveCount() { return aliveCount; }
+    public String getName(int i) { return name + " " + (i + 1); }
+    public int getHealth(int i) { return health[i]; }
+    public int getMaxHealth(int i) { return maxHealth[i]; }
+    public int getBaseAttack(int i) { return attack[i]; }
+    public int getBaseDefense(int i) { return defense[i]; }
+    public int getSpecialCooldown(int i) { return specialCooldown[i]; }
+    public boolean isDefending(int i) { return bit(defending, i); }
+    public boolean isInvulnerable(int i) { return bit(invulnerable, i); }
+    public boolean isStunned(int i) { return bit(stunned, i); }
+    public boolean isStaggered(int i) { return bit(staggered, i); }
+    public int getSpeed(int i) { return speeds == null ? TurnScheduler.STANDARD_SPEED : speeds[i]; }
+    public int getCurrentSpeed(int i) { return bit(frozen, i) ? StatusEffect.FROZEN.adjustSpeed(getSpeed(i)) : getSpeed(i); }
+    public boolean isSpecialReady(int i) { return specialCooldown[i] == 0 && !bit(stunned, i); }
+
+    public int getSpecialReadyIn(int i) {
+        int stun = bit(stunned, i) ? (int) (statusClock.dueOf(stunEntries[i]) - statusClock.now()) : 0;
+        return Math.max(specialCooldown[i], stun);
+    }
+    public boolean isDefeated(int i) { return health[i] <= 0; }
+    public CombatEventBus getEvents() { return events; }
+    public void setEvents(CombatEventBus events) { this.events = events; }
+
+    public void setSpecialCooldown(int i, int cooldown) {
+        specialCooldown[i] = (byte) cooldown;
+        changed(i);
+    }
+
+    public void setHealth(int i, int value) {
+        boolean wasAlive = health[i] > 0;
+        health[i] = Math.max(Math.min(value, maxHealth[i]), 0);
+        if (wasAlive && health[i] == 0) aliveCount--;
+        if (!wasAlive && health[i] > 0) aliveCount++;
+        changed(i);
+    }
+
+    public void setSpeed(int i, int speed) {
+        if (speeds == null) {
+            if (speed == TurnScheduler.STANDARD_SPEED) return;
+            speeds = new int[size];
+            java.util.Arrays.fill(speeds, TurnScheduler.STANDARD_SPEED);
+        }
+        speeds[i] = speed;
+    }
+
+    // Only Stun/Freeze, Stagger and the stances apply to horde members
+    public void applyEffect(int i, StatusEffect effect, int duration) {
+        switch (effect) {
+            case DEFENDING:
+                defend(i);
+                return;
+            case INVULNERABLE:
+                invulnerable[i >>> 6] |= 1L << i;
+                return;
+            case FROZEN:
+                freezeEntries = schedule(freezeEntries, frozen, i, StatusEffect.FROZEN, duration);
+                // falls through: Freeze blocks the special like Stun
+            case STUNNED:
+                stunEntries = schedule(stunEntries, stunned, i, StatusEffect.STUNNED, duration);
+                changed(i);
+                return;
+            case STAGGERED:
+                staggerEntries = schedule(staggerEntries, staggered, i, StatusEffect.STAGGERED, duration);
+                return;
+            default:
+                throw new IllegalArgumentException("Horde members cannot carry " + effect);
+        }
+    }
+
+    // Set the member's bit and (re)schedule its expiry; entries is allocated on first use
+    private int[] schedule(int[] entries, long[] bits, int i, StatusEffect effect, int duration) {
+        if (entries == null) {
+            entries = new int[size];
+            java.util.Arrays.fill(entries, -1);
+        }
+        if (entries[i] >= 0) clock().cancel(entries[i]);
+        bits[i >>> 6] |= 1L << i;
+        entries[i] = clock().schedule(this, i, effect.ordinal(), duration);
+        return entries;
+    }
+
+    @Override
+    public void expired(int i, int effect) {
+        switch (StatusEffect.of(effect)) {
+            case FROZEN:
+                frozen[i >>> 6] &= ~(1L << i);
+                freezeEntries[i] = -1;
+                return;
+            case STAGGERED:
+                staggered[i >>> 6] &= ~(1L << i);
+                staggerEntries[i] = -1;
+                return;
+            default:
+                stunned[i >>> 6] &= ~(1L << i);
+                stunEntries[i] = -1;
+                changed(i);
+        }
+    }
+
+    // Run effect expiries on the given clock, or on a clock of our own when null. Pending
+    // effects keep what is left of their durations.
+    public void setStatusClock(TimingWheel clock) {
+        TimingWheel previous = statusClock;
+        statusClock = clock;
+        ownClock = false; // until clock() makes one for an effect that outlives the battle clock
+        if (previous == null || previous == clock) return;
+        move(stunEntries, previous, StatusEffect.STUNNED);
+        move(freezeEntries, previous, StatusEffect.FROZEN);
+        move(staggerEntries, previous, StatusEffect.STAGGERED);
+    }
+
+    private void move(int[] entries, TimingWheel previous, StatusEffect effect) {
+        if (entries == null) return;
+        for (int i = 0; i < size; i++) {
+            int entry = entries[i];
+            if (entry < 0) continue;
+            int left = (int) (previous.dueOf(entry) - previous.now());
+            previous.cancel(entry);
+            entries[i] = clock().schedule(this, i, effect.ordinal(), left);
+        }
+    }
+
+    private TimingWheel clock() {
+        if (statusClock == null) {
+            statusClock = new TimingWheel();
+            ownClock = true;
+        }
+        return statusClock;
+    }
+
+    public void defend(int i) {
+        defending[i >>> 6] |= 1L << i;
+        if (events.isEnabled()) events.publish(CombatEvent.Type.STANCE, getName(i), 0, 0);
+    }
+
+    // Same formula as AbstractCharacter.takeDamage. Returns the damage dealt.
+    public int takeDamage(int i, int damage) {
+        if (bit(invulnerable, i)) {
+            if (events.isEnabled()) events.publish(CombatEvent.Type.DAMAGE_BLOCKED, null, getName(i), 0, health[i], null, null);
+            return 0;
+        }
+
+        double reductionFactor = bit(defending, i) ? 0.5 : 1.0;
+        int effectiveDamage = (int) (damage * reductionFactor) - defense[i];
+        if (effectiveDamage < 1) effectiveDamage = 1;
+
+        boolean wasAlive = health[i] > 0;
+        health[i] -= effectiveDamage;
+        if (health[i] < 0) health[i] = 0;
+        if (wasAlive && health[i] == 0) aliveCount--;
+        changed(i);
+        if (events.isEnabled()) {
+            events.publish(CombatEvent.Type.DAMAGE_DEALT, null, getName(i), effectiveDamage, health[i], null, null);
+            if (wasAlive && health[i] == 0) events.publish(CombatEvent.Type.DEFEAT, null, getName(i), 0, 0, null, null);
+        }
+        return effectiveDamage;
+    }
+
+    // Area damage: damage[i] to every member i in [from, to) in one DamageKernel pass, with the
+    // same result as takeDamage(i, damage[i]) for each; effective[i] gets the damage dealt.
+    // With events on, members go one by one so each hit is reported.
+    public void takeDamage(int from, int to, int[] damage, int[] effective) {
+        if (events.isEnabled()) {
+            for (int i = from; i < to; i++) {
+                effective[i] = takeDamage(i, damage[i]);
+            }
+            return;
+        }
+        aliveCount -= DamageKernel.apply(damage, defense, defending, invulnerable, health, effective, from, to);
+        if (dirty != null) {
+            for (int i = from; i < to; i++) {
+                if (effective[i] > 0) changed(i);
+            }
+        }
+    }
+
+    // The MonsterAI.RULES rule: a special while it is ready and the member is above half
+    // health, otherwise defend
+    public boolean wantsSpecial(int i) {
+        return isSpecialReady(i) && health[i] > (maxHealth[i] * 0.5);
+    }
+
+    // Same as Monster.specialAttack
+    public void specialAttack(int i, AbstractCharacter target) {
+        if (isSpecialReady(i)) {
+            int damage = (int) (attack[i] * 1.8);
+            if (events.isEnabled()) events.publish(CombatEvent.Type.SPECIAL_USED, getName(i), target.getName(), 0, 0, null, CombatEvent.Special.MONSTER_RAGE);
+            target.takeDamage(damage);
+            specialCooldown[i] = SPECIAL_COOLDOWN_TIME;
+            changed(i);
+        } else {
+            if (events.isEnabled()) events.publish(CombatEvent.Type.BASIC_ATTACK, getName(i), 0, 0);
+            target.takeDamage(attack[i]);
+        }
+    }
+
+    public void endTurn(int i) {
+        defending[i >>> 6] &= ~(1L << i);
+        invulnerable[i >>> 6] &= ~(1L << i);
+        if (specialCooldown[i] > 0) {
+            if (--specialCooldown[i] == 0) changed(i);
+        }
+    }
+
+    // Whole-horde end of turn: word-wide flag clears and one linear pass over the cooldowns.
+    // Also ticks the horde's own status clock when no battle clock is set.
+    public void endTurnAll() {
+        if (ownClock && statusClock.size() > 0) statusClock.tick();
+        java.util.Arrays.fill(defending, 0L);
+        java.util.Arrays.fill(invulnerable, 0L);
+        byte[] cooldowns = specialCooldown;
+        if (dirty == null) {
+            for (int i = 0; i < size; i++) {
+                if (cooldowns[i] > 0) cooldowns[i]--;
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (cooldowns[i] > 0 && --cooldowns[i] == 0) changed(i);
+        }
+    }
+
+    // --- Target Index ---
+
+    // The live member the strategy picks (same choice as scanning every live member in
+    // index order), or -1 when the whole horde is down
+    public int bestTarget(TargetingStrategy strategy) {
+        if (indexed != strategy) {
+            indexed = strategy;
+            targets = new IndexedHeap();
+            dirty = new long[(size + 63) >>> 6];
+            for (int i = 0; i < size; i++) {
+                if (health[i] > 0) targets.add(i, strategy.key(this, i));
+            }
+        } else {
+            for (int w = 0; w < dirty.length; w++) {
+                if (dirty[w] == 0) continue;
+                for (long bits = dirty[w]; bits != 0; bits &= bits - 1) {
+                    int i = (w << 6) | Long.numberOfTrailingZeros(bits);
+                    if (health[i] > 0) {
+                        targets.add(i, strategy.key(this, i));
+                    } else {
+                        targets.remove(i);
+                    }
+                }
+                dirty[w] = 0;
+            }
+        }
+        return targets.peek();
+    }
+
+    // Marks a member for re-keying. Safe from the monster phase tasks: they own whole words.
+    private void changed(int i) {
+        if (dirty != null) dirty[i >>> 6] |= 1L << i;
+    }
+
+    // --- Parallel Monster Phase ---
+    // A monster phase for members (ascending ids, first count of them) under the RULES rule,
+    // without events: the same as specialAttack-or-defend (nothing when staggered) then
+    // endTurn for each member in order, stopping after the member that defeats the target.
+    // Returns how many acted.
+    //
+    // Intents only read a member's own state and the target's defenses, none of which the
+    // phase changes, so they are computed across the pool, along with each chunk's damage.
+    // A sequential pass over the chunk totals finds where the target falls, then the members
+    // up to there end their turns in parallel and the target takes the summed damage. The
+    // outcome matches the one-by-one loop exactly. Chunks never share a bitset word, so the
+    // flag clears in endTurn do not race.
+    public int actAll(int[] members, int count, AbstractCharacter target, ForkJoinPool pool) {
+        if (intents == null) intents = new int[size];
+        int[] bounds = chunkBounds(members, count);
+        int chunks = bounds.length - 1;
+        long[] chunkDamage = new long[chunks];
+        pool.invoke(new PhaseTask(members, bounds, 0, chunks, target, chunkDamage, -1));
+
+        int acted = count;
+        long remaining = target.getHealth();
+        for (int c = 0; c < chunks && acted == count; c++) {
+            if (chunkDamage[c] < remaining) {
+                remaining -= chunkDamage[c];
+                continue;
+            }
+            for (int k = bounds[c]; k < bounds[c + 1]; k++) {
+                remaining -= Math.max(0, intents[k]);
+                if (remaining <= 0) {
+                    acted = k + 1;
+                    break;
+                }
+            }
+        }
+
+        pool.invoke(new PhaseTask(members, bounds, 0, chunks, target, chunkDamage, acted));
+        long damage = 0;
+        for (int c = 0; c < chunks; c++) {
+            damage += chunkDamage[c];
+        }
+        target.setHealth((int) Math.max(0, target.getHealth() - damage));
+        return acted;
+    }
+
+    // Chunk c is members[bounds[c]..bounds[c + 1]); a boundary never splits a bitset word
+    private static int[] chunkBounds(int[] members, int count) {
+        int[] bounds = new int[(count + CHUNK - 1) / CHUNK + 1];
+        int chunks = 0;
+        for (int at = CHUNK; at < count; at += CHUNK) {
+            while (at < count && members[at] >>> 6 == members[at - 1] >>> 6) at++;
+            if (at < count) bounds[++chunks] = at;
+        }
+        bounds[++chunks] = count;
+        return java.util.Arrays.copyOf(bounds, chunks + 1);
+    }
+
+    // Intents (acted < 0) or end of turn for the first acted members (acted >= 0). The end
+    // of turn pass leaves the damage each chunk actually dealt in chunkDamage.
+    private class PhaseTask extends RecursiveAction {
+        private final int[] members;
+        private final int[] bounds;
+        private final int from;
+        private final int to;
+        private final AbstractCharacter target;
+        private final long[] chunkDamage;
+        private final int acted;
+
+        PhaseTask(int[] members, int[] bounds, int from, int to, AbstractCharacter target, long[] chunkDamage, int acted) {
+            this.members = members;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.target = target;
+            this.chunkDamage = chunkDamage;
+            this.acted = acted;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PhaseTask(members, bounds, from, mid, target, chunkDamage, acted),
+                        new PhaseTask(members, bounds, mid, to, target, chunkDamage, acted));
+                return;
+            }
+            long damage = 0;
+            if (acted < 0) {
+                for (int k = bounds[from]; k < bounds[from + 1]; k++) {
+                    int i = members[k];
+                    int hit = wantsSpecial(i) && !bit(staggered, i) ? target.damageFrom((int) (attack[i] * 1.8)) : -1;
+                    intents[k] = hit;
+                    damage += Math.max(0, hit);
+                }
+            } else {
+                for (int k = bounds[from], end = Math.min(bounds[from + 1], acted); k < end; k++) {
+                    int i = members[k];
+                    if (intents[k] >= 0) {
+                        specialCooldown[i] = SPECIAL_COOLDOWN_TIME;
+                        changed(i);
+                        damage += intents[k];
+                    }
+                    endTurn(i); // also clears the stance a defend would have set
+                }
+            }
+            chunkDamage[from] = damage;
+        }
+    }
+
+    private static boolean bit(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+
+    // A reusable Monster view over one horde slot, so player specials and MoveSelectors
+    // work against horde members without allocating a Monster per target
+    class Member extends Monster {
+        private int index;
+
+        Member() {
+            super(name, 1, 0);
+        }
+
+        Member bind(int index) {
+            this.index = index;
+            return this;
+        }
+
+        int getIndex() { return index; }
+
+        @Override public String getName() { return Horde.this.getName(index); }
+        @Override public int getHealth() { return health[index]; }
+        @Override public int getMaxHealth() { return maxHealth[index]; }
+        @Override public int getBaseAttack() { return attack[index]; }
+        @Override public int getBaseDefense() { return defense[index]; }
+        @Override public int getTotalDefense() { return defense[index]; }
+        @Override public int getSpecialCooldown() { return specialCooldown[index]; }
+        @Override public int getSpecialCooldownTime() { return SPECIAL_COOLDOWN_TIME; }
+        @Override public int getSpeed() { return Horde.this.getSpeed(index); }
+        @Override public int getCurrentSpeed() { return Horde.this.getCurrentSpeed(index); }
+        @Override public boolean isInvulnerable() { return Horde.this.isInvulnerable(index); }
+        @Override public boolean isDefending() { return Horde.this.isDefending(index); }
+        @Override public boolean isSpecialReady() { return Horde.this.isSpecialReady(index); }
+        @Override public int getSpecialReadyIn() { return Horde.this.getSpecialReadyIn(index); }
+        @Override public int getNaturalDefense() { return defense[index]; }
+        @Override public boolean isDefeated() { return health[index] <= 0; }
+        @Override public int basicAttack() { return attack[index]; }
+        @Override public void setHealth(int value) { Horde.this.setHealth(index, value); }
+        @Override public void setSpecialCooldown(int cooldown) { Horde.this.setSpecialCooldown(index, cooldown); }
+        @Override public void setSpeed(int speed) { Horde.this.setSpeed(index, speed); }
+        @Override public void defend() { Horde.this.defend(index); }
+        @Override public void applyEffect(StatusEffect effect, int duration) { Horde.this.applyEffect(index, effect, duration); }
+        @Override public void takeDamage(int damage) { Horde.this.takeDamage(index, damage); }
+        @Override public void specialAttack(AbstractCharacter target) { Horde.this.specialAttack(index, target); }
+        @Override public void endTurn() { Horde.this.endTurn(index); }
+    }
+}
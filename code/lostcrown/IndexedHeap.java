@@ -0,0 +1,157 @@
+package lostcrown;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Indexed binary max-heap of int ids (0..n) ordered by a long key. Ids know their heap
+// position, so besides add/peek/poll in O(log n) an id can be re-keyed or removed from the
+// middle in O(log n). Callers that need a stable order among equal priorities fold a
+// tie-breaker into the low bits of the key.
+class IndexedHeap {
+    private static final int[] NO_IDS = new int[0];
+    private static final long[] NO_KEYS = new long[0];
+
+    private int[] heap = NO_IDS;      // heap position -> id
+    private int[] position = NO_IDS;  // id -> heap position, -1 when absent
+    private long[] keys = NO_KEYS;    // id -> key
+    private int size;
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public boolean contains(int id) {
+        return id < position.length && position[id] >= 0;
+    }
+
+    public long keyOf(int id) { return keys[id]; }
+
+    // Id with the highest key, or -1 when empty
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    public int poll() {
+        if (size == 0) return -1;
+        int top = heap[0];
+        remove(top);
+        return top;
+    }
+
+    // Add an id, or move it to its new key if it is already in the heap
+    public void add(int id, long key) {
+        if (contains(id)) {
+            update(id, key);
+            return;
+        }
+        ensureCapacity(id + 1);
+        keys[id] = key;
+        heap[size] = id;
+        position[id] = size;
+        siftUp(size++);
+    }
+
+    public void update(int id, long key) {
+        long old = keys[id];
+        keys[id] = key;
+        if (key > old) {
+            siftUp(position[id]);
+        } else {
+            siftDown(position[id]);
+        }
+    }
+
+    public void remove(int id) {
+        if (!contains(id)) return;
+        int at = position[id];
+        int last = heap[--size];
+        position[id] = -1;
+        if (at == size) return;
+        heap[at] = last;
+        position[last] = at;
+        siftUp(at);
+        siftDown(position[last]);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    // Up to out.length ids with the highest keys, best first. Returns how many were written.
+    // Expands a frontier of candidate positions instead of polling, so the heap is untouched
+    // and the cost is O(k log k) whatever the heap size.
+    public int top(int[] out) {
+        int k = Math.min(out.length, size);
+        if (k == 0) return 0;
+        IndexedHeap frontier = new IndexedHeap();
+        frontier.add(0, keys[heap[0]]);
+        for (int n = 0; n < k; n++) {
+            int at = frontier.poll();
+            out[n] = heap[at];
+            for (int child = 2 * at + 1; child <= 2 * at + 2 && child < size; child++) {
+                frontier.add(child, keys[heap[child]]);
+            }
+        }
+        return k;
+    }
+
+    // Visit every id whose key is >= minKey, in no particular order. A subtree is skipped as
+    // soon as its root is below minKey, so the cost is proportional to the matches.
+    public void forEachAtLeast(long minKey, IntConsumer action) {
+        visitAtLeast(0, minKey, action);
+    }
+
+    private void visitAtLeast(int at, long minKey, IntConsumer action) {
+        if (at >= size || keys[heap[at]] < minKey) return;
+        action.accept(heap[at]);
+        visitAtLeast(2 * at + 1, minKey, action);
+        visitAtLeast(2 * at + 2, minKey, action);
+    }
+
+    private void siftUp(int at) {
+        int id = heap[at];
+        long key = keys[id];
+        while (at > 0) {
+            int parent = (at - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] >= key) break;
+            heap[at] = parentId;
+            position[parentId] = at;
+            at = parent;
+        }
+        heap[at] = id;
+        position[id] = at;
+    }
+
+    private void siftDown(int at) {
+        int id = heap[at];
+        long key = keys[id];
+        int half = size >>> 1;
+        while (at < half) {
+            int child = 2 * at + 1;
+            if (child + 1 < size && keys[heap[child + 1]] > keys[heap[child]]) child++;
+            int childId = heap[child];
+            if (key >= keys[childId]) break;
+            heap[at] = childId;
+            position[childId] = at;
+            at = child;
+        }
+        heap[at] = id;
+        position[id] = at;
+    }
+
+    private void ensureCapacity(int ids) {
+        if (ids > position.length) {
+            int capacity = Math.max(ids, Math.max(8, position.length * 2));
+            int old = position.length;
+            position = Arrays.copyOf(position, capacity);
+            Arrays.fill(position, old, capacity, -1);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, Math.max(8, heap.length * 2));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package lostcrown;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// --- Inventory ---
+// Gear a player carries besides what is equipped, stored as packed ItemCatalog handles in
+// numbered slots (freed slots are reused). Weapons are indexed by attack modifier, armor by
+// defense modifier, and weapons with an effect also by effect chance, one index per effect
+// kind. Every index is an IndexedHeap over slots, so adding or removing an item is O(log n),
+// the best item is O(1), top-K is O(k log k) and "chance above X" only visits the matches.
+// Equal modifiers rank the older item (lower slot) first.
+class Inventory {
+    private static final long[] NO_ITEMS = new long[0];
+    private static final boolean[] NO_FLAGS = new boolean[0];
+    private static final int[] NO_SLOTS = new int[0];
+
+    private long[] items = NO_ITEMS;
+    private boolean[] weapon = NO_FLAGS;   // weapon or armor in that slot
+    private boolean[] used = NO_FLAGS;
+    private int[] freeSlots = NO_SLOTS;
+    private int freeCount;
+    private int slotCount;
+    private int weaponCount;
+    private int armorCount;
+
+    private final IndexedHeap weaponsByAttack = new IndexedHeap();
+    private final IndexedHeap armorByDefense = new IndexedHeap();
+    private final IndexedHeap[] weaponsByEffectChance = {null, new IndexedHeap(), new IndexedHeap()}; // by ItemCatalog effect
+
+    public int size() { return weaponCount + armorCount; }
+    public int getWeaponCount() { return weaponCount; }
+    public int getArmorCount() { return armorCount; }
+
+    public boolean contains(int slot) { return slot >= 0 && slot < slotCount && used[slot]; }
+    public boolean isWeapon(int slot) { return contains(slot) && weapon[slot]; }
+    public long getItem(int slot) { return items[slot]; }
+    public Weapon getWeapon(int slot) { return new Weapon(items[slot]); }
+    public Armor getArmor(int slot) { return new Armor(items[slot]); }
+
+    // --- Adding and Removing ---
+    public int add(Weapon found) {
+        return addWeapon(found.getItem());
+    }
+
+    public int add(Armor found) {
+        return addArmor(found.getItem());
+    }
+
+    public int addWeapon(long item) {
+        int slot = store(item, true);
+        weaponsByAttack.add(slot, rank(ItemCatalog.modifier(item), slot));
+        int effect = ItemCatalog.effect(item);
+        if (effect != ItemCatalog.EFFECT_NONE) {
+            weaponsByEffectChance[effect].add(slot, rank(ItemCatalog.chanceUnits(item), slot));
+        }
+        weaponCount++;
+        return slot;
+    }
+
+    public int addArmor(long item) {
+        int slot = store(item, false);
+        armorByDefense.add(slot, rank(ItemCatalog.modifier(item), slot));
+        armorCount++;
+        return slot;
+    }
+
+    // Take an item out of the inventory and return its handle
+    public long remove(int slot) {
+        if (!contains(slot)) throw new IllegalArgumentException("No item in inventory slot " + slot);
+        long item = items[slot];
+        if (weapon[slot]) {
+            weaponsByAttack.remove(slot);
+            int effect = ItemCatalog.effect(item);
+            if (effect != ItemCatalog.EFFECT_NONE) weaponsByEffectChance[effect].remove(slot);
+            weaponCount--;
+        } else {
+            armorByDefense.remove(slot);
+            armorCount--;
+        }
+        used[slot] = false;
+        freeSlots[freeCount++] = slot;
+        return item;
+    }
+
+    // --- Queries (slots, -1 when there is none) ---
+    public int bestWeapon() { return weaponsByAttack.peek(); }
+    public int bestArmor() { return armorByDefense.peek(); }
+
+    // Fill slots with the highest-attack weapons, best first; returns how many were written
+    public int topWeapons(int[] slots) { return weaponsByAttack.top(slots); }
+    public int topArmor(int[] slots) { return armorByDefense.top(slots); }
+
+    // Highest-chance weapons with the given effect (ItemCatalog.EFFECT_STUN or EFFECT_FREEZE)
+    public int topWeaponsWithEffect(int effect, int[] slots) { return weaponsByEffectChance[effect].top(slots); }
+
+    // Every weapon whose chance to apply the effect is above minChance, in no particular order
+    public void forEachWeaponWithEffectAbove(int effect, double minChance, IntConsumer slots) {
+        weaponsByEffectChance[effect].forEachAtLeast((ItemCatalog.toChanceUnits(minChance) + 1) << 32, slots);
+    }
+
+    public void forEachWeapon(IntConsumer slots) { forEach(true, slots); }
+    public void forEachArmor(IntConsumer slots) { forEach(false, slots); }
+
+    private void forEach(boolean weapons, IntConsumer slots) {
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (used[slot] && weapon[slot] == weapons) slots.accept(slot);
+        }
+    }
+
+    // Larger value first, then lower slot first
+    private static long rank(long value, int slot) {
+        return value << 32 | (Integer.MAX_VALUE - slot);
+    }
+
+    private int store(long item, boolean isWeapon) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == items.length) grow();
+            slot = slotCount++;
+        }
+        items[slot] = item;
+        weapon[slot] = isWeapon;
+        used[slot] = true;
+        return slot;
+    }
+
+    private void grow() {
+        int capacity = Math.max(8, items.length * 2);
+        items = Arrays.copyOf(items, capacity);
+        weapon = Arrays.copyOf(weapon, capacity);
+        used = Arrays.copyOf(used, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+}
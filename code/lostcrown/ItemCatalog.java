@@ -0,0 +1,173 @@
+package lostcrown;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+// --- Item Catalog (Flyweight Items) ---
+// Every dropped weapon is one of the WEAPON_PREFIXES x WEAPON_SUFFIXES templates and every
+// armor one of the ARMOR_ ones, so an item instance does not need its own name. An item is
+// packed into a single long handle, and a million items in a long[] take 8 MB:
+//   weapon: bits 0-15 template id, 16-31 attack modifier, 32-33 effect kind, 34-63 effect chance
+//   armor:  bits 0-15 template id, 16-31 defense modifier
+// A template's name is built the first time it is displayed and then shared. Template 0 is
+// the starting gear (Fists, Clothes); any other name that is not a catalog pair (e.g. read
+// back from a save) gets a template of its own the first time it is seen.
+final class ItemCatalog {
+    static final int EFFECT_NONE = 0;
+    static final int EFFECT_STUN = 1;
+    static final int EFFECT_FREEZE = 2;
+    private static final String[] EFFECT_NAMES = {"None", "Stun", "Freeze"};
+
+    // Effect chance is stored in units of 2^-29 (30 bits, so up to just under 2.0). Rolls
+    // compare against a double, so the rounding only matters for a roll within 1e-9 of it.
+    private static final double CHANCE_UNIT = 0x1p-29;
+    private static final long CHANCE_MAX = (1L << 30) - 1;
+    private static final int MAX_TEMPLATES = 1 << 16;
+
+    // Starting gear: template 0 with no modifier and no effect
+    static final long FISTS = 0L;
+    static final long CLOTHES = 0L;
+
+    private static final Templates WEAPONS = new Templates("Fists", Campaign.WEAPON_PREFIXES, Campaign.WEAPON_SUFFIXES);
+    private static final Templates ARMORS = new Templates("Clothes", Campaign.ARMOR_PREFIXES, Campaign.ARMOR_SUFFIXES);
+
+    private ItemCatalog() { }
+
+    // --- Packing ---
+    static long weapon(int template, int attackModifier, double chance, int effect) {
+        return template | (long) (checkModifier(attackModifier) & 0xFFFF) << 16 | (long) effect << 32 | toChanceUnits(chance) << 34;
+    }
+
+    static long armor(int template, int defenseModifier) {
+        return template | (long) (checkModifier(defenseModifier) & 0xFFFF) << 16;
+    }
+
+    static int template(long item) { return (int) (item & 0xFFFF); }
+    static int modifier(long item) { return (short) (item >>> 16); }
+    static int effect(long item) { return (int) (item >>> 32) & 3; }
+    static double chance(long item) { return (item >>> 34) * CHANCE_UNIT; }
+    static long chanceUnits(long item) { return item >>> 34; }
+    static boolean isStarterGear(long item) { return template(item) == 0; }
+
+    // Effect chance in the packed fixed-point units (comparable with chanceUnits)
+    static long toChanceUnits(double chance) {
+        return Math.max(0, Math.min(Math.round(chance / CHANCE_UNIT), CHANCE_MAX));
+    }
+
+    static String weaponName(long item) { return WEAPONS.name(template(item)); }
+    static String armorName(long item) { return ARMORS.name(template(item)); }
+    static String effectName(long item) { return EFFECT_NAMES[effect(item)]; }
+
+    static int weaponTemplate(String name) { return WEAPONS.intern(name); }
+    static int armorTemplate(String name) { return ARMORS.intern(name); }
+
+    // Starting gear or a catalog pair: the same template id in every process. Custom
+    // templates are numbered in the order this process first saw them.
+    static boolean isCatalogWeapon(long item) { return WEAPONS.isCatalog(template(item)); }
+    static boolean isCatalogArmor(long item) { return ARMORS.isCatalog(template(item)); }
+
+    static int effectCode(String effect) {
+        switch (effect) {
+            case "Stun": return EFFECT_STUN;
+            case "Freeze": return EFFECT_FREEZE;
+            default: return EFFECT_NONE;
+        }
+    }
+
+    // --- Loot Rolls ---
+    // Same rolls, in the same order, as the original generateWeapon/generateArmor
+    static long rollWeapon(int level, RandomGenerator random) {
+        int attack = random.nextInt(level * 20) + 10;
+        double chance = random.nextDouble() * 0.15;
+        int prefix = random.nextInt(Campaign.WEAPON_PREFIXES.length);
+        int suffix = random.nextInt(Campaign.WEAPON_SUFFIXES.length);
+        int effect = chance > 0 ? (random.nextDouble() > 0.5 ? EFFECT_STUN : EFFECT_FREEZE) : EFFECT_NONE;
+        return weapon(WEAPONS.pair(prefix, suffix), attack, chance, effect);
+    }
+
+    static long rollArmor(int level, RandomGenerator random) {
+        int defense = random.nextInt(level * 10) + 5;
+        int prefix = random.nextInt(Campaign.ARMOR_PREFIXES.length);
+        int suffix = random.nextInt(Campaign.ARMOR_SUFFIXES.length);
+        return armor(ARMORS.pair(prefix, suffix), defense);
+    }
+
+    // --- Display ---
+    static String describeWeapon(long item) {
+        double chance = chance(item);
+        String effectStr = chance > 0 ? String.format(" (%.0f%% chance to %s)", chance * 100, effectName(item)) : "";
+        return String.format("%s (+%d ATK)%s", weaponName(item), modifier(item), effectStr);
+    }
+
+    static String describeArmor(long item) {
+        return String.format("%s (+%d DEF)", armorName(item), modifier(item));
+    }
+
+    private static int checkModifier(int modifier) {
+        if (modifier < Short.MIN_VALUE || modifier > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Item modifier out of range: " + modifier);
+        }
+        return modifier;
+    }
+
+    // Names for one item kind: 0 is the starting gear, then every prefix/suffix pair, then
+    // names interned at runtime
+    private static final class Templates {
+        private final String[] prefixes;
+        private final String[] suffixes;
+        private final Map<String, Integer> customIds = new HashMap<>();
+        private volatile String[] names; // null until the template is first displayed
+
+        Templates(String starter, String[] prefixes, String[] suffixes) {
+            this.prefixes = prefixes;
+            this.suffixes = suffixes;
+            this.names = new String[1 + prefixes.length * suffixes.length];
+            names[0] = starter;
+            customIds.put(starter, 0);
+        }
+
+        int pair(int prefix, int suffix) {
+            return 1 + prefix * suffixes.length + suffix;
+        }
+
+        boolean isCatalog(int id) {
+            return id <= prefixes.length * suffixes.length;
+        }
+
+        String name(int id) {
+            String[] table = names;
+            String name = table[id];
+            if (name == null) {
+                int pair = id - 1;
+                name = prefixes[pair / suffixes.length] + " " + suffixes[pair % suffixes.length];
+                table[id] = name; // racing threads build equal Strings, either one is fine
+            }
+            return name;
+        }
+
+        synchronized int intern(String name) {
+            Integer id = customIds.get(name);
+            if (id != null) return id;
+            for (int p = 0; p < prefixes.length; p++) {
+                String prefix = prefixes[p];
+                if (!name.startsWith(prefix) || name.length() <= prefix.length() || name.charAt(prefix.length()) != ' ') continue;
+                for (int s = 0; s < suffixes.length; s++) {
+                    if (name.length() == prefix.length() + 1 + suffixes[s].length() && name.endsWith(suffixes[s])) {
+                        return pair(p, s);
+                    }
+                }
+            }
+            int custom = names.length;
+            if (custom == MAX_TEMPLATES) {
+                throw new IllegalStateException("Item catalog is full, cannot add " + name);
+            }
+            String[] grown = Arrays.copyOf(names, custom + 1);
+            grown[custom] = name;
+            names = grown;
+            customIds.put(name, custom);
+            return custom;
+        }
+    }
+}
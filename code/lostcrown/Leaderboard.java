@@ -0,0 +1,241 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+// --- Leaderboard ---
+// Every finished run, ranked by levels cleared (all MAX_LEVELS for the crown), then by the
+// time it took. Runs are appended to a file of fixed RECORD_SIZE records and indexed in
+// concurrent skip lists, one overall and one per class, so top(k) is a walk from the head.
+//
+// Submissions take no lock: each one claims its record's offset with a getAndAdd on the
+// file end and writes it there positionally, then adds the entry to the skip lists. A run
+// that dies between the two leaves a zeroed hole, which fails its CRC and is skipped like a
+// torn record, so startup rebuilds the index with one sequential read and nothing else.
+// Each list keeps the best INDEXED entries; the rest stay in the file only.
+class Leaderboard implements AutoCloseable {
+    static final Path DEFAULT_FILE = Paths.get("leaderboard.dat");
+    static final int RECORD_SIZE = 64;
+    static final int INDEXED = 10_000;
+    private static final int NAME_BYTES = 39; // plus one length byte
+
+    // Record layout (byte offsets); the CRC covers the rest of the record
+    private static final int CRC_AT = 0;
+    private static final int CLASS_AT = 4;
+    private static final int LEVELS_AT = 6;
+    private static final int MILLIS_AT = 8;
+    private static final int FINISHED_AT = 16;
+    private static final int NAME_AT = 24;
+
+    private final FileChannel channel;
+    private final AtomicLong end;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Ranking overall = new Ranking();
+    private final Ranking[] byClass = new Ranking[BalanceSimulator.CLASS_NAMES.length + 1];
+    private int skippedRecords;
+
+    // One finished run. Ties keep submission order.
+    static final class Entry implements Comparable<Entry> {
+        private final String name;
+        private final int classChoice;
+        private final int levelsCleared;
+        private final long millis;
+        private final long finishedAt; // epoch millis
+        private final long sequence;
+
+        Entry(String name, int classChoice, int levelsCleared, long millis, long finishedAt, long sequence) {
+            this.name = name;
+            this.classChoice = classChoice;
+            this.levelsCleared = levelsCleared;
+            this.millis = millis;
+            this.finishedAt = finishedAt;
+            this.sequence = sequence;
+        }
+
+        public String getName() { return name; }
+        public int getClassChoice() { return classChoice; }
+        public String getClassName() { return BalanceSimulator.CLASS_NAMES[classChoice - 1]; }
+        public int getLevelsCleared() { return levelsCleared; }
+        public boolean isVictory() { return levelsCleared == Campaign.MAX_LEVELS; }
+        public long getMillis() { return millis; }
+        public long getFinishedAt() { return finishedAt; }
+
+        @Override
+        public int compareTo(Entry other) {
+            if (levelsCleared != other.levelsCleared) return Integer.compare(other.levelsCleared, levelsCleared);
+            if (millis != other.millis) return Long.compare(millis, other.millis);
+            return Long.compare(sequence, other.sequence);
+        }
+
+        @Override
+        public String toString() {
+            String reached = isVictory() ? "Crown" : "Level " + (levelsCleared + 1);
+            return String.format("%-20s %-9s %-8s %8.2f s", name, getClassName(), reached, millis / 1000.0);
+        }
+    }
+
+    // A skip list trimmed to the INDEXED best
+    private static final class Ranking {
+        final ConcurrentSkipListSet<Entry> entries = new ConcurrentSkipListSet<>();
+        final AtomicInteger size = new AtomicInteger();
+
+        void add(Entry entry) {
+            if (size.get() >= INDEXED && entry.compareTo(entries.last()) > 0) return; // would be trimmed right away
+            entries.add(entry);
+            if (size.incrementAndGet() > INDEXED && entries.pollLast() != null) size.decrementAndGet();
+        }
+
+        List<Entry> top(int k) {
+            List<Entry> top = new ArrayList<>(Math.min(k, INDEXED));
+            Iterator<Entry> best = entries.iterator();
+            while (top.size() < k && best.hasNext()) top.add(best.next());
+            return top;
+        }
+    }
+
+    public Leaderboard(Path file) throws IOException {
+        for (int choice = 1; choice < byClass.length; choice++) byClass[choice] = new Ranking();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long records = channel.size() / RECORD_SIZE;
+        this.end = new AtomicLong(records * RECORD_SIZE); // a torn last record is overwritten
+        rebuild(records);
+    }
+
+    public int getSkippedRecords() { return skippedRecords; }
+    public long getRecords() { return end.get() / RECORD_SIZE; }
+
+    // classChoice as for Campaign.newCharacter; result as returned by Campaign.run
+    public Entry submit(String name, int classChoice, int result, long millis) throws IOException {
+        if (classChoice < 1 || classChoice >= byClass.length) throw new IllegalArgumentException("Unknown class " + classChoice);
+        int levelsCleared = result == Campaign.VICTORY ? Campaign.MAX_LEVELS : result - 1;
+        Entry entry = new Entry(truncate(name), classChoice, levelsCleared, millis, System.currentTimeMillis(), sequence.incrementAndGet());
+        ByteBuffer record = encode(entry);
+        long offset = end.getAndAdd(RECORD_SIZE);
+        while (record.hasRemaining()) {
+            offset += channel.write(record, offset);
+        }
+        index(entry);
+        return entry;
+    }
+
+    public List<Entry> top(int k) {
+        return overall.top(k);
+    }
+
+    public List<Entry> top(int classChoice, int k) {
+        return byClass[classChoice].top(k);
+    }
+
+    private void index(Entry entry) {
+        overall.add(entry);
+        byClass[entry.classChoice].add(entry);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.force(false);
+        channel.close();
+    }
+
+    // --- File Format ---
+
+    private void rebuild(long records) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(RECORD_SIZE * 4096);
+        long position = 0;
+        long limit = records * RECORD_SIZE;
+        CRC32 crc = new CRC32();
+        while (position < limit) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), limit - position));
+            while (chunk.hasRemaining()) {
+                int read = channel.read(chunk, position + chunk.position());
+                if (read < 0) throw new IOException("Leaderboard file shrank while loading");
+            }
+            for (int base = 0; base < chunk.limit(); base += RECORD_SIZE) {
+                Entry entry = decode(chunk, base, crc);
+                if (entry == null) {
+                    skippedRecords++;
+                } else {
+                    index(entry);
+                }
+            }
+            position += chunk.limit();
+        }
+    }
+
+    private static ByteBuffer encode(Entry entry) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        record.put(CLASS_AT, (byte) entry.classChoice);
+        record.putShort(LEVELS_AT, (short) entry.levelsCleared);
+        record.putLong(MILLIS_AT, entry.millis);
+        record.putLong(FINISHED_AT, entry.finishedAt);
+        byte[] name = entry.name.getBytes(StandardCharsets.UTF_8);
+        record.put(NAME_AT, (byte) name.length);
+        record.put(NAME_AT + 1, name);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), CRC_AT + 4, RECORD_SIZE - 4);
+        record.putInt(CRC_AT, (int) crc.getValue());
+        return record;
+    }
+
+    // The entry in a record, or null for a hole or a torn record
+    private Entry decode(ByteBuffer chunk, int base, CRC32 crc) {
+        crc.reset();
+        crc.update(chunk.array(), base + CRC_AT + 4, RECORD_SIZE - 4);
+        if (chunk.getInt(base + CRC_AT) != (int) crc.getValue()) return null;
+        int classChoice = chunk.get(base + CLASS_AT);
+        int nameLength = chunk.get(base + NAME_AT) & 0xFF;
+        if (classChoice < 1 || classChoice >= byClass.length || nameLength > NAME_BYTES) return null;
+        String name = new String(chunk.array(), base + NAME_AT + 1, nameLength, StandardCharsets.UTF_8);
+        return new Entry(name, classChoice, chunk.getShort(base + LEVELS_AT), chunk.getLong(base + MILLIS_AT),
+                chunk.getLong(base + FINISHED_AT), sequence.incrementAndGet());
+    }
+
+    // At most NAME_BYTES of UTF-8, cut at a character boundary
+    private static String truncate(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= NAME_BYTES) return name;
+        int cut = NAME_BYTES;
+        while (cut > 0 && (bytes[cut] & 0xC0) == 0x80) cut--;
+        return new String(bytes, 0, cut, StandardCharsets.UTF_8);
+    }
+
+    static void print(PrintStream out, String title, List<Entry> entries) {
+        out.println(title);
+        if (entries.isEmpty()) out.println("  (no runs yet)");
+        for (int i = 0; i < entries.size(); i++) {
+            out.printf("  %2d. %s%n", i + 1, entries.get(i));
+        }
+    }
+
+    // Usage: java lostcrown.Leaderboard [file] [k]
+    public static void main(String[] args) throws IOException {
+        Path file = args.length > 0 ? Paths.get(args[0]) : DEFAULT_FILE;
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        if (!Files.exists(file)) {
+            System.out.println("No leaderboard at " + file);
+            return;
+        }
+        long start = System.nanoTime();
+        try (Leaderboard board = new Leaderboard(file)) {
+            System.out.printf("%d runs loaded in %.1f ms (%d skipped)%n", board.getRecords(), (System.nanoTime() - start) / 1e6, board.getSkippedRecords());
+            print(System.out, "Overall", board.top(k));
+            for (int choice = 1; choice <= BalanceSimulator.CLASS_NAMES.length; choice++) {
+                print(System.out, BalanceSimulator.CLASS_NAMES[choice - 1], board.top(choice, k));
+            }
+        }
+    }
+}
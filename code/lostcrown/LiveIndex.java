@@ -0,0 +1,78 @@
+package lostcrown;
+
+// Live-monster index for a battle: a two-level bitset (one summary bit per 64-slot word)
+// plus a live count. "Any alive" is O(1), removal is O(1), and walking the live slots in
+// array order skips dead ones 64 (or 4096) at a time, so turn cost tracks the live monsters
+// rather than the dead ones.
+class LiveIndex {
+    private final long[] words;
+    private final long[] summary;
+    private int count;
+
+    public LiveIndex(int size) {
+        this.words = new long[(size + 63) >>> 6];
+        this.summary = new long[(words.length + 63) >>> 6];
+    }
+
+    static LiveIndex of(Monster[] monsters) {
+        LiveIndex live = new LiveIndex(monsters.length);
+        for (int i = 0; i < monsters.length; i++) {
+            if (!monsters[i].isDefeated()) live.add(i);
+        }
+        return live;
+    }
+
+    static LiveIndex of(Horde horde) {
+        LiveIndex live = new LiveIndex(horde.size());
+        for (int i = 0; i < horde.size(); i++) {
+            if (!horde.isDefeated(i)) live.add(i);
+        }
+        return live;
+    }
+
+    public int size() { return count; }
+    public boolean isEmpty() { return count == 0; }
+
+    public boolean contains(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public void add(int i) {
+        int w = i >>> 6;
+        if ((words[w] & (1L << i)) != 0) return;
+        words[w] |= 1L << i;
+        summary[w >>> 6] |= 1L << w;
+        count++;
+    }
+
+    public void remove(int i) {
+        int w = i >>> 6;
+        if ((words[w] & (1L << i)) == 0) return;
+        words[w] &= ~(1L << i);
+        if (words[w] == 0) summary[w >>> 6] &= ~(1L << w);
+        count--;
+    }
+
+    public int first() {
+        return next(0);
+    }
+
+    // Lowest live index >= from, or -1
+    public int next(int from) {
+        int w = from >>> 6;
+        if (w >= words.length) return -1;
+        long bits = words[w] & (-1L << from);
+        if (bits != 0) return (w << 6) + Long.numberOfTrailingZeros(bits);
+
+        // Use the summary to jump over empty words
+        int s = (w + 1) >>> 6;
+        if (s >= summary.length) return -1;
+        long nonEmpty = summary[s] & (-1L << (w + 1));
+        while (nonEmpty == 0) {
+            if (++s >= summary.length) return -1;
+            nonEmpty = summary[s];
+        }
+        int word = (s << 6) + Long.numberOfTrailingZeros(nonEmpty);
+        return (word << 6) + Long.numberOfTrailingZeros(words[word]);
+    }
+}
@@ -0,0 +1,32 @@
+package lostcrown;
+
+// Monster move policy used by BattleEngine. Returns BattleEngine.SPECIAL, ATTACK or DEFEND
+// for monsters[index]; live holds the monsters still standing.
+interface MonsterAI {
+    // The original rule: special while healthy and off cooldown, otherwise defend
+    MonsterAI RULES = (player, monsters, live, index) -> {
+        Monster monster = monsters[index];
+        if (monster.isSpecialReady() && monster.getHealth() > (monster.getMaxHealth() * 0.5)) {
+            return BattleEngine.SPECIAL;
+        }
+        return BattleEngine.DEFEND;
+    };
+
+    int chooseMove(PlayerCharacter player, Monster[] monsters, LiveIndex live, int index);
+
+    // Called once per battle, before the first turn
+    default void battleStarted(PlayerCharacter player, Monster[] monsters) { }
+
+    // Called before each monster phase: the next actors turns are monsters acting at the same
+    // moment, before the player moves again
+    default void phaseStarted(int actors) { }
+
+    // A fresh AI for one engine; search AIs keep per-battle state and are not thread-safe
+    static MonsterAI byName(String name) {
+        switch (name.toLowerCase()) {
+            case "rules": return RULES;
+            case "search": return new SearchMonsterAI(SearchMonsterAI.DEFAULT_BUDGET_NANOS);
+            default: throw new IllegalArgumentException("Unknown monster AI: " + name + " (rules, search)");
+        }
+    }
+}
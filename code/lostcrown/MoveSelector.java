@@ -0,0 +1,19 @@
+package lostcrown;
+
+// Player move policy used by BattleEngine. Returns one of the BattleEngine move codes.
+interface MoveSelector {
+    MoveSelector ALWAYS_ATTACK = (player, target) -> BattleEngine.ATTACK;
+
+    // Special whenever it is ready, heal when low, otherwise attack
+    MoveSelector SPECIAL_WHEN_READY = (player, target) -> {
+        if (player.getHealCooldown() == 0 && player.getHealth() < player.getMaxHealth() * 0.35) {
+            return BattleEngine.HEAL;
+        }
+        return player.isSpecialReady() ? BattleEngine.SPECIAL : BattleEngine.ATTACK;
+    };
+
+    int chooseMove(PlayerCharacter player, Monster target);
+
+    // Called once per Monster[] battle, before the first turn
+    default void battleStarted(PlayerCharacter player, Monster[] monsters) { }
+}
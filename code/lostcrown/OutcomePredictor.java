@@ -0,0 +1,325 @@
+package lostcrown;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// --- Battle Outcome Predictor ---
+// The exact win probability, expected health left and expected battle length of a BattleEngine
+// battle under a MoveSelector policy, without playing it out. The only randomness in a battle
+// is the weapon effect roll after each player move, so the battle is a Markov chain over the
+// state at the start of each round: player health, special and heal cooldowns and Stone Skin
+// stacks, and per monster its health, special cooldown and the rounds its stun has left.
+// Every state is evaluated once (memoized in a map keyed by the packed state) by playing its
+// round on scratch copies of the characters, once with the effect landing and once without,
+// and weighting the two follow-up states by the weapon's getSpecialEffectChance.
+//
+// A battle only reaches a few hundred to a few thousand states, so a prediction for a
+// single-monster level takes well under a millisecond, where Monte Carlo needs hundreds of
+// thousands of battles for three exact digits.
+//
+// Shield Bash's stagger lasts only until the round ends, so it never reaches a round-start
+// state: it just costs the target its turn in the round it lands. Assumes standard speeds,
+// which rules out Freeze weapons (a Freeze halves the target's speed), and a
+// deterministic MoveSelector and MonsterAI that only look at the characters (RULES, not
+// SearchMonsterAI). A policy that can repeat a state forever (e.g. one that never attacks)
+// would never finish the battle; such a cycle counts as not won. The characters passed in are
+// not changed. An instance keeps its scratch state between calls: use one per thread.
+// Usage: java lostcrown.OutcomePredictor [masher|casual|expert]
+class OutcomePredictor {
+    private static final double[] IN_PROGRESS = {0, 0, 0}; // a cycle back to this state never wins
+
+    // Packed state: one word for the player, one per monster
+    private static final int HEALTH_BITS = 32;
+    private static final int COOLDOWN_SHIFT = 32;
+    private static final int HEAL_SHIFT = 40;
+    private static final int STACKS_SHIFT = 48;
+    private static final int STUN_SHIFT = 40;
+    private static final long FIELD_MASK = 0xFF;
+    private static final long WIDE_MASK = 0xFFFF;
+
+    private final MoveSelector moves;
+    private final TargetingStrategy targeting;
+    private final MonsterAI monsterAI;
+
+    // Per prediction
+    private final Map<Key, double[]> memo = new HashMap<>();
+    private TimingWheel clock;
+    private PlayerCharacter player;
+    private Monster[] monsters;
+    private LiveIndex live;
+    private double effectChance;
+    private boolean rollLanded; // set by round(): whether the last round's roll could apply an effect
+
+    public OutcomePredictor(MoveSelector moves) {
+        this(moves, TargetingStrategy.FIRST, MonsterAI.RULES);
+    }
+
+    public OutcomePredictor(MoveSelector moves, TargetingStrategy targeting, MonsterAI monsterAI) {
+        this.moves = moves;
+        this.targeting = targeting;
+        this.monsterAI = monsterAI;
+    }
+
+    static final class Prediction {
+        final double winProbability;
+        final double expectedHealth; // player health left, over the battles won
+        final double expectedRounds; // over all battles, won or lost
+        final int states;
+
+        Prediction(double winProbability, double expectedHealth, double expectedRounds, int states) {
+            this.winProbability = winProbability;
+            this.expectedHealth = expectedHealth;
+            this.expectedRounds = expectedRounds;
+            this.states = states;
+        }
+
+        public double getWinProbability() { return winProbability; }
+        public double getExpectedHealth() { return expectedHealth; }
+        public double getExpectedRounds() { return expectedRounds; }
+        public int getStates() { return states; }
+
+        @Override
+        public String toString() {
+            return String.format("win %.4f%%, %.1f HP left, %.2f rounds (%d states)",
+                    100 * winProbability, expectedHealth, expectedRounds, states);
+        }
+    }
+
+    public Prediction predict(PlayerCharacter player, Monster[] monsters) {
+        checkSpeed(player);
+        Weapon weapon = player.getEquippedWeapon();
+        if (weapon.getSpecialEffectChance() > 0 && StatusEffect.ofWeapon(weapon) == StatusEffect.FROZEN) {
+            throw new IllegalArgumentException(weapon.getName() + " freezes; predictions assume one turn per round");
+        }
+        clock = new TimingWheel();
+        this.player = copy(player);
+        this.monsters = new Monster[monsters.length];
+        for (int i = 0; i < monsters.length; i++) {
+            checkSpeed(monsters[i]);
+            this.monsters[i] = copy(monsters[i]);
+        }
+        effectChance = Math.min(Math.max(player.getEquippedWeapon().getSpecialEffectChance(), 0), 1);
+        moves.battleStarted(this.player, this.monsters);
+
+        memo.clear();
+        try {
+            long[] start = capture();
+            if (LiveIndex.of(this.monsters).isEmpty()) return new Prediction(1, player.getHealth(), 0, 0);
+            double[] value = value(start);
+            double health = value[0] > 0 ? value[1] / value[0] : 0;
+            return new Prediction(value[0], health, value[2], memo.size());
+        } finally {
+            memo.clear();
+            this.player = null;
+            this.monsters = null;
+        }
+    }
+
+    // {win probability, expected health left times the win indicator, expected rounds} of the
+    // battle from a round-start state
+    private double[] value(long[] state) {
+        Key key = new Key(state);
+        double[] known = memo.get(key);
+        if (known != null) return known;
+        memo.put(key, IN_PROGRESS);
+
+        double[] value = round(state, false);
+        if (effectChance > 0 && rollLanded) {
+            double[] effect = round(state, true);
+            double miss = 1 - effectChance;
+            value = new double[]{
+                    miss * value[0] + effectChance * effect[0],
+                    miss * value[1] + effectChance * effect[1],
+                    miss * value[2] + effectChance * effect[2]};
+        }
+        memo.put(key, value);
+        return value;
+    }
+
+    // One round from the state, the same steps as BattleEngine.fight, with the player's weapon
+    // effect landing or not
+    private double[] round(long[] state, boolean effect) {
+        restore(state);
+        int targetIndex = targeting.select(live, monsters);
+        Monster target = monsters[targetIndex];
+        int choice = moves.chooseMove(player, target);
+        playerTurn(target, choice);
+        boolean landed = choice != BattleEngine.FORCED_ATTACK && !target.isDefeated();
+        if (effect && landed) {
+            target.applyEffect(StatusEffect.ofWeapon(player.getEquippedWeapon()), target.getSpecialCooldownTime() + 1);
+        }
+        if (target.isDefeated()) live.remove(targetIndex);
+
+        double[] value;
+        if (live.isEmpty()) {
+            value = new double[]{1, player.getHealth(), 1};
+        } else if (monsterTurns()) {
+            value = new double[]{0, 0, 1};
+        } else {
+            player.endTurn();
+            clock.tick();
+            double[] next = value(capture());
+            value = new double[]{next[0], next[1], next[2] + 1};
+        }
+        rollLanded = landed;
+        return value;
+    }
+
+    private void playerTurn(Monster target, int choice) {
+        switch (choice) {
+            case BattleEngine.HEAL:
+                player.heal();
+                break;
+            case BattleEngine.DEFEND:
+                player.defend();
+                break;
+            case BattleEngine.SPECIAL:
+                player.specialAttack(target);
+                break;
+            default: // ATTACK, FORCED_ATTACK and invalid moves all attack
+                target.takeDamage(player.basicAttack());
+        }
+    }
+
+    // Every live monster in order, skipping a staggered one's action; returns true if the
+    // player falls
+    private boolean monsterTurns() {
+        for (int i = live.first(); i >= 0; i = live.next(i + 1)) {
+            Monster monster = monsters[i];
+            if (!monster.getStatusEffects().skipsTurn()) {
+                switch (monsterAI.chooseMove(player, monsters, live, i)) {
+                    case BattleEngine.SPECIAL:
+                        monster.specialAttack(player);
+                        break;
+                    case BattleEngine.ATTACK:
+                        player.takeDamage(monster.basicAttack());
+                        break;
+                    default:
+                        monster.defend();
+                }
+            }
+            monster.endTurn();
+            if (player.isDefeated()) return true;
+        }
+        return false;
+    }
+
+    // --- State Packing ---
+
+    private long[] capture() {
+        long[] state = new long[1 + monsters.length];
+        StatusEffects effects = player.getStatusEffects();
+        state[0] = player.getHealth()
+                | field(player.getSpecialCooldown(), FIELD_MASK) << COOLDOWN_SHIFT
+                | field(player.getHealCooldown(), FIELD_MASK) << HEAL_SHIFT
+                | field(effects.stacks(StatusEffect.STONE_SKIN), WIDE_MASK) << STACKS_SHIFT;
+        for (int i = 0; i < monsters.length; i++) {
+            Monster monster = monsters[i];
+            if (monster.isDefeated()) continue; // all defeated monsters look alike
+            state[1 + i] = monster.getHealth()
+                    | field(monster.getSpecialCooldown(), FIELD_MASK) << COOLDOWN_SHIFT
+                    | field(monster.getStatusEffects().specialBlockedFor(), WIDE_MASK) << STUN_SHIFT;
+        }
+        return state;
+    }
+
+    private void restore(long[] state) {
+        long word = state[0];
+        player.setHealth(health(word));
+        player.setSpecialCooldown((int) (word >>> COOLDOWN_SHIFT & FIELD_MASK));
+        player.setHealCooldown((int) (word >>> HEAL_SHIFT & FIELD_MASK));
+        StatusEffects effects = player.getStatusEffects();
+        effects.remove(StatusEffect.DEFENDING);
+        effects.remove(StatusEffect.INVULNERABLE);
+        effects.setStacks(StatusEffect.STONE_SKIN, (int) (word >>> STACKS_SHIFT & WIDE_MASK));
+
+        for (int i = 0; i < monsters.length; i++) {
+            word = state[1 + i];
+            Monster monster = monsters[i];
+            monster.setHealth(health(word));
+            monster.setSpecialCooldown((int) (word >>> COOLDOWN_SHIFT & FIELD_MASK));
+            effects = monster.getStatusEffects();
+            effects.remove(StatusEffect.DEFENDING);
+            effects.remove(StatusEffect.INVULNERABLE);
+            effects.remove(StatusEffect.STUNNED);
+            effects.remove(StatusEffect.FROZEN);
+            int stun = (int) (word >>> STUN_SHIFT & WIDE_MASK);
+            if (stun > 0) monster.applyEffect(StatusEffect.STUNNED, stun == WIDE_MASK ? StatusEffect.PERMANENT : stun);
+        }
+        live = LiveIndex.of(monsters);
+    }
+
+    private static int health(long word) {
+        return (int) (word & ((1L << HEALTH_BITS) - 1));
+    }
+
+    private static long field(int value, long mask) {
+        return Math.min(value, mask);
+    }
+
+    // --- Scratch Copies ---
+
+    private PlayerCharacter copy(PlayerCharacter original) {
+        PlayerCharacter copy = Campaign.newCharacter(Campaign.classChoice(original), original.getName());
+        copy.setMaxHealth(original.getMaxHealth());
+        copy.setHealth(original.getHealth());
+        copy.setBaseDefense(original.getBaseDefense());
+        copy.setEquippedWeapon(original.getEquippedWeapon());
+        copy.setEquippedArmor(original.getEquippedArmor());
+        copy.setSpecialCooldown(original.getSpecialCooldown());
+        copy.setHealCooldown(original.getHealCooldown());
+        copy.setStatusClock(clock);
+        copy.getStatusEffects().setStacks(StatusEffect.STONE_SKIN, original.getStatusEffects().stacks(StatusEffect.STONE_SKIN));
+        return copy;
+    }
+
+    private Monster copy(Monster original) {
+        Monster copy = new Monster(original.getName(), original.getMaxHealth(), original.getBaseAttack());
+        copy.setHealth(original.getHealth());
+        copy.setBaseDefense(original.getBaseDefense());
+        copy.setSpecialCooldown(original.getSpecialCooldown());
+        copy.setStatusClock(clock);
+        int stun = original.getStatusEffects().specialBlockedFor();
+        if (stun > 0) copy.applyEffect(StatusEffect.STUNNED, stun == Integer.MAX_VALUE ? StatusEffect.PERMANENT : stun);
+        return copy;
+    }
+
+    private static void checkSpeed(AbstractCharacter character) {
+        if (character.getSpeed() != TurnScheduler.STANDARD_SPEED) {
+            throw new IllegalArgumentException(character.getName() + " is not at standard speed; predictions assume one turn per round");
+        }
+    }
+
+    private static final class Key {
+        private final long[] words;
+        private final int hash;
+
+        Key(long[] words) {
+            this.words = words;
+            this.hash = Arrays.hashCode(words);
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(words, ((Key) other).words);
+        }
+    }
+
+    // Win chances of a fresh character of each class with starting gear, level by level
+    public static void main(String[] args) {
+        MoveSelector policy = SimulatedPlayer.byName(args.length > 0 ? args[0] : "casual");
+        OutcomePredictor predictor = new OutcomePredictor(policy);
+        for (int choice = 1; choice <= BalanceSimulator.CLASS_NAMES.length; choice++) {
+            System.out.println("--- " + BalanceSimulator.CLASS_NAMES[choice - 1] + " ---");
+            for (int level = 1; level <= Campaign.MAX_LEVELS; level++) {
+                long start = System.nanoTime();
+                Prediction prediction = predictor.predict(Campaign.newCharacter(choice, "Hero"), Campaign.levelRoster(DifficultyTable.current(), level));
+                System.out.printf("Level %2d: %s in %.2f ms%n", level, prediction, (System.nanoTime() - start) / 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package lostcrown;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+// --- Random Streams ---
+// Where the game's dice come from. A RandomStreams is a root seed; child(key) names an
+// independent sub-tree under it and stream(key) a generator, so every consumer draws from a
+// substream named by a path of keys: a run's seed, then the level, then what the numbers are
+// for (BATTLE rolls or LOOT). A child's seed is a SplitMix64 hash of its parent's seed and the
+// key, the mixing SplittableRandom itself splits with, so substreams are independent and each
+// one is the same whichever thread asks for it and in whatever order. The generators are
+// SplittableRandom: no atomics and no shared state, so parallel simulations never contend on
+// them and give the same results for a root seed on any number of threads.
+//
+// sequential(random) is the scheme from before substreams: every stream is one shared
+// generator, drawn from in call order. Version 1 replay journals play back with it.
+final class RandomStreams {
+    static final long BATTLE = 1; // weapon effect rolls
+    static final long LOOT = 2;   // generateWeapon, generateArmor
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final RandomGenerator shared; // non-null for sequential streams
+
+    public RandomStreams(long seed) {
+        this(seed, null);
+    }
+
+    private RandomStreams(long seed, RandomGenerator shared) {
+        this.seed = seed;
+        this.shared = shared;
+    }
+
+    static RandomStreams sequential(RandomGenerator random) {
+        return new RandomStreams(0, random);
+    }
+
+    public long getSeed() { return seed; }
+
+    public RandomStreams child(long key) {
+        return shared != null ? this : new RandomStreams(mix(seed, key));
+    }
+
+    public RandomGenerator stream(long key) {
+        return shared != null ? shared : new SplittableRandom(mix(seed, key));
+    }
+
+    static long mix(long seed, long key) {
+        return mix64(seed + (key + 1) * GOLDEN_GAMMA);
+    }
+
+    // SplitMix64 finalizer (Stafford variant 13)
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
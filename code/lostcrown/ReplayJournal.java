@@ -0,0 +1,272 @@
+package lostcrown;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// --- Replay Journal ---
+// Compact binary record of one run: the RNG seed plus every player input, in the order the
+// game asked for them. Layout:
+//   "LCRJ" magic, version byte, 8-byte seed, difficulty table, then records until END.
+// The difficulty table is a parameter count byte and one int per DifficultyTable parameter,
+// so a replay builds the same rosters whatever table is current. Versions 1 and 2 have no
+// table and replay with the current one. Version 2 journals seed RandomStreams; version 1
+// journals, from before substreams, seed one java.util.Random that every roll is drawn from.
+// A record is one varint holding (payload << 4 | tag); before version 4 the tag took 3 bits,
+// (payload << 3 | tag), and the stored-gear tags did not exist. Int inputs store the zigzag delta
+// from the previous value with the same tag, so a typical move costs one byte. Strings
+// store their UTF-8 length as the payload, followed by the bytes. END stores the campaign
+// result and is followed by a varint with the final HP, for regression checks.
+class ReplayJournal {
+    static final int VERSION = 4;
+    private static final int MAGIC = 0x4C43524A; // "LCRJ"
+
+    static final int END = 0;
+    static final int CLASS_CHOICE = 1;
+    static final int NAME = 2;
+    static final int MOVE = 3;
+    static final int EQUIP_WEAPON = 4;
+    static final int EQUIP_ARMOR = 5;
+    static final int QUIZ_ANSWER = 6;
+    // 7 is GameLog.SNAPSHOT
+    static final int STORED_WEAPON = 8;
+    static final int STORED_ARMOR = 9;
+
+    private static final int TAG_BITS = 4;
+    private static final int TAG_COUNT = 1 << TAG_BITS;
+
+    private ReplayJournal() { }
+
+    static class Writer implements AutoCloseable {
+        private final DataOutputStream out;
+        private final int[] last = new int[TAG_COUNT];
+
+        public Writer(OutputStream stream, long seed, DifficultyTable difficulty) {
+            this.out = new DataOutputStream(new BufferedOutputStream(stream));
+            try {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(seed);
+                out.writeByte(DifficultyTable.PARAMETERS.length);
+                for (int p = 0; p < DifficultyTable.PARAMETERS.length; p++) {
+                    out.writeInt(difficulty.get(p));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        static Writer create(Path file, long seed, DifficultyTable difficulty) throws IOException {
+            return new Writer(Files.newOutputStream(file), seed, difficulty);
+        }
+
+        public void recordInt(int tag, int value) {
+            int delta = value - last[tag];
+            last[tag] = value;
+            writeVarint(((long) ((delta << 1) ^ (delta >> 31)) & 0xFFFFFFFFL) << TAG_BITS | tag);
+        }
+
+        public void recordBoolean(int tag, boolean value) {
+            recordInt(tag, value ? 1 : 0);
+        }
+
+        public void recordString(int tag, String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint((long) bytes.length << TAG_BITS | tag);
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // Close the journal with the outcome so replays can be checked against it
+        public void finish(int result, int finalHealth) {
+            writeVarint((long) result << TAG_BITS | END);
+            writeVarint(finalHealth);
+        }
+
+        private void writeVarint(long value) {
+            try {
+                while ((value & ~0x7FL) != 0) {
+                    out.writeByte((int) (value & 0x7F) | 0x80);
+                    value >>>= 7;
+                }
+                out.writeByte((int) value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static class Reader implements AutoCloseable {
+        private final DataInputStream in;
+        private final int version;
+        private final long seed;
+        private final DifficultyTable difficulty; // null before version 3
+        private final int tagBits;
+        private final int[] last = new int[TAG_COUNT];
+        private int recordedResult = -1;
+        private int recordedHealth = -1;
+
+        public Reader(InputStream stream) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(stream));
+            if (in.readInt() != MAGIC) throw new IOException("Not a Lost Crown replay journal");
+            this.version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) throw new IOException("Unsupported journal version " + version);
+            this.seed = in.readLong();
+            this.difficulty = version >= 3 ? readDifficulty() : null;
+            this.tagBits = version >= 4 ? TAG_BITS : 3;
+        }
+
+        private DifficultyTable readDifficulty() throws IOException {
+            int count = in.readUnsignedByte();
+            if (count != DifficultyTable.PARAMETERS.length) {
+                throw new IOException("Journal has " + count + " difficulty parameters, expected " + DifficultyTable.PARAMETERS.length);
+            }
+            int[] values = new int[count];
+            for (int p = 0; p < count; p++) {
+                values[p] = in.readInt();
+            }
+            try {
+                return new DifficultyTable(values);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Journal has an invalid difficulty table: " + e.getMessage());
+            }
+        }
+
+        static Reader open(Path file) throws IOException {
+            return new Reader(Files.newInputStream(file));
+        }
+
+        public int getVersion() { return version; }
+        public long getSeed() { return seed; }
+        public DifficultyTable getDifficulty() { return difficulty; }
+        public int getRecordedResult() { return recordedResult; }
+        public int getRecordedHealth() { return recordedHealth; }
+
+        public int readInt(int expectedTag) {
+            long record = nextRecord(expectedTag);
+            int zigzag = (int) (record >>> tagBits);
+            int value = last[expectedTag] + ((zigzag >>> 1) ^ -(zigzag & 1));
+            last[expectedTag] = value;
+            return value;
+        }
+
+        public boolean readBoolean(int expectedTag) {
+            return readInt(expectedTag) != 0;
+        }
+
+        public String readString(int expectedTag) {
+            int length = (int) (nextRecord(expectedTag) >>> tagBits);
+            byte[] bytes = new byte[length];
+            try {
+                in.readFully(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private long nextRecord(int expectedTag) {
+            long record = readVarint();
+            int tag = (int) (record & ((1 << tagBits) - 1));
+            if (tag == END) {
+                recordedResult = (int) (record >>> tagBits);
+                recordedHealth = (int) readVarint();
+                throw new IllegalStateException("Journal ended while the game expected input (tag " + expectedTag + ")");
+            }
+            if (tag != expectedTag) {
+                throw new IllegalStateException("Journal out of sync: expected tag " + expectedTag + " but found " + tag);
+            }
+            return record;
+        }
+
+        // Reads the END record; call once the replayed run has finished
+        public void readEnd() {
+            long record = readVarint();
+            if ((record & ((1 << tagBits) - 1)) != END) throw new IllegalStateException("Journal has inputs left after the run ended");
+            recordedResult = (int) (record >>> tagBits);
+            recordedHealth = (int) readVarint();
+        }
+
+        private long readVarint() {
+            try {
+                long value = 0;
+                for (int shift = 0; shift < 64; shift += 7) {
+                    int b = in.readUnsignedByte();
+                    value |= (long) (b & 0x7F) << shift;
+                    if ((b & 0x80) == 0) return value;
+                }
+                throw new IOException("Malformed varint");
+            } catch (EOFException e) {
+                throw new IllegalStateException("Journal is truncated", e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Feeds recorded inputs back into a Campaign
+    static class Playback implements CampaignPlayer {
+        private final Reader reader;
+
+        Playback(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int chooseMove(PlayerCharacter player, Monster target) {
+            return reader.readInt(MOVE);
+        }
+
+        @Override
+        public boolean equipWeapon(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Weapon found) {
+            return reader.readBoolean(EQUIP_WEAPON);
+        }
+
+        @Override
+        public boolean equipArmor(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Armor found) {
+            return reader.readBoolean(EQUIP_ARMOR);
+        }
+
+        @Override
+        public String answerQuiz(int level, String question) {
+            return reader.readString(QUIZ_ANSWER);
+        }
+
+        // Journals before version 4 never equipped from the inventory
+        @Override
+        public int storedWeapon(int level, DifficultyTable difficulty, PlayerCharacter player) {
+            return reader.getVersion() >= 4 ? reader.readInt(STORED_WEAPON) : -1;
+        }
+
+        @Override
+        public int storedArmor(int level, DifficultyTable difficulty, PlayerCharacter player) {
+            return reader.getVersion() >= 4 ? reader.readInt(STORED_ARMOR) : -1;
+        }
+    }
+}
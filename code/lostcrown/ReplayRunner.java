@@ -0,0 +1,80 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+// --- Replay Mode ---
+// Re-executes recorded runs headless at CPU speed and checks each one against the outcome
+// stored in its journal, so recorded sessions double as regression input. Each run replays
+// with the difficulty table in its journal; journals from before tables were recorded use
+// the fallback table, DifficultyTable.current() unless --difficulty names another.
+// Usage: java lostcrown.ReplayRunner [--show] [--difficulty <file>] <journal file or directory>...
+class ReplayRunner {
+    // Replays one journal. Returns true if the outcome matches the recording.
+    static boolean replay(Path file, CombatEventBus events, DifficultyTable fallback) throws IOException {
+        try (ReplayJournal.Reader reader = ReplayJournal.Reader.open(file)) {
+            DifficultyTable difficulty = reader.getDifficulty() != null ? reader.getDifficulty() : fallback;
+            RandomStreams streams = reader.getVersion() == 1
+                    ? RandomStreams.sequential(new Random(reader.getSeed())) // recorded before substreams
+                    : new RandomStreams(reader.getSeed());
+            int choice = reader.readInt(ReplayJournal.CLASS_CHOICE);
+            String name = reader.readString(ReplayJournal.NAME);
+            PlayerCharacter player = Campaign.newCharacter(choice, name);
+            if (player == null) throw new IllegalStateException("Journal has an invalid class choice " + choice);
+
+            int result = new Campaign(new ReplayJournal.Playback(reader), events, streams, difficulty).run(player);
+            reader.readEnd();
+            return result == reader.getRecordedResult() && player.getHealth() == reader.getRecordedHealth();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean show = false;
+        DifficultyTable fallback = DifficultyTable.current();
+        List<Path> journals = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--show")) {
+                show = true;
+            } else if (arg.equals("--difficulty") && i + 1 < args.length) {
+                fallback = DifficultyTable.read(Paths.get(args[++i]));
+            } else {
+                Path path = Paths.get(arg);
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> files = Files.list(path)) {
+                        files.filter(f -> f.toString().endsWith(".lcj")).sorted().forEach(journals::add);
+                    }
+                } else {
+                    journals.add(path);
+                }
+            }
+        }
+        if (journals.isEmpty()) {
+            System.out.println("Usage: java lostcrown.ReplayRunner [--show] [--difficulty <file>] <journal file or directory>...");
+            return;
+        }
+
+        CombatEventBus events = show ? new CombatEventBus(new ConsoleCombatRenderer(System.out)) : CombatEventBus.DISABLED;
+        int passed = 0;
+        long start = System.nanoTime();
+        for (Path journal : journals) {
+            try {
+                if (replay(journal, events, fallback)) {
+                    passed++;
+                } else {
+                    System.out.println("MISMATCH: " + journal);
+                }
+            } catch (RuntimeException e) {
+                System.out.println("FAILED: " + journal + " (" + e.getMessage() + ")");
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d/%d replays matched in %.3f s%n", passed, journals.size(), seconds);
+    }
+}
@@ -0,0 +1,320 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// --- Save Game ---
+// Fixed-layout binary snapshot of a run between levels, written through a memory-mapped
+// file. A save is a handful of puts into the mapping plus a CRC, so it costs microseconds;
+// the OS writes the pages back in the background. The file holds two slots that are
+// written alternately with a rising sequence number, so a crash mid-save leaves the
+// previous snapshot intact. Every slot starts with a format version; load() keeps a
+// reader per version so older saves still load.
+//
+// Version 2 stores Stone Skin as a stack count next to the raw base defense, now that it is
+// a status effect; version 1 saves carry it folded into base defense and load as they did.
+// Version 3 adds the run's play time so far, so a resumed run is ranked by its whole time;
+// older saves load with it unknown (-1).
+// Version 4 adds the inventory as a count, a bitmap of which entries are weapons and the
+// packed ItemCatalog handles, and grows the slot from 256 to 512 bytes to hold them. Only
+// catalog items are kept, since custom template ids differ between processes; those only
+// come from names in version 1 saves. A save file with two 256-byte slots is converted when
+// opened: its newest snapshot moves into the first of the larger slots.
+//
+// The slot codec (write, read, isValid) works on any ByteBuffer, so other stores (see
+// SessionStore) keep their games in the same SLOT_SIZE records.
+class SaveGame implements SaveSlot, AutoCloseable {
+    static final int VERSION = 4;
+    private static final int MAGIC = 0x4C435356; // "LCSV"
+    static final int SLOT_SIZE = 512;
+    static final int LEGACY_SLOT_SIZE = 256; // versions 1 to 3
+    private static final int NAME_BYTES = 47;    // plus one length byte
+
+    // Version 1 slot layout (byte offsets)
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int CLASS_AT = 6;
+    private static final int SEQUENCE_AT = 8;
+    private static final int LEVEL_AT = 16;
+    private static final int HEALTH_AT = 20;
+    private static final int MAX_HEALTH_AT = 24;
+    private static final int BASE_DEFENSE_AT = 28;
+    private static final int SPECIAL_COOLDOWN_AT = 32;
+    private static final int HEAL_COOLDOWN_AT = 36;
+    private static final int RUN_SEED_AT = 40;
+    private static final int WEAPON_ATTACK_AT = 48;
+    private static final int WEAPON_CHANCE_AT = 52;
+    private static final int WEAPON_EFFECT_AT = 60;
+    private static final int ARMOR_DEFENSE_AT = 64;
+    private static final int PLAYER_NAME_AT = 68;
+    private static final int WEAPON_NAME_AT = 116;
+    private static final int ARMOR_NAME_AT = 164;
+    private static final int CRC_V1_AT = 212;
+
+    // Version 2 appends to version 1
+    private static final int STONE_SKIN_AT = 212;
+    private static final int CRC_V2_AT = 216;
+
+    // Version 3 appends to version 2
+    private static final int PLAYED_MILLIS_AT = 216;
+    private static final int CRC_V3_AT = 224;
+
+    // Version 4 appends to version 3; the CRC moves to the end of the larger slot
+    private static final int INVENTORY_COUNT_AT = 224;
+    private static final int INVENTORY_WEAPONS_AT = 228; // bit i set: entry i is a weapon
+    private static final int INVENTORY_AT = 236;
+    private static final int CRC_AT = SLOT_SIZE - 4;
+    static final int MAX_INVENTORY = (CRC_AT - INVENTORY_AT) / 8; // a campaign stows at most 2 per level
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private long sequence;
+
+    public SaveGame(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer legacy = channel.size() == 2L * LEGACY_SLOT_SIZE ? newestLegacySlot() : null;
+        this.map = channel.map(FileChannel.MapMode.READ_WRITE, 0, 2L * SLOT_SIZE);
+        if (legacy != null) {
+            map.put(0, new byte[2 * SLOT_SIZE]);
+            map.put(0, legacy, 0, LEGACY_SLOT_SIZE);
+            map.force();
+        }
+        for (int slot = 0; slot < 2; slot++) {
+            if (isValid(map, slot * SLOT_SIZE)) sequence = Math.max(sequence, map.getLong(slot * SLOT_SIZE + SEQUENCE_AT));
+        }
+    }
+
+    // The newest valid slot of a file written before version 4, or null if it has none
+    private ByteBuffer newestLegacySlot() throws IOException {
+        ByteBuffer file = ByteBuffer.allocate(2 * LEGACY_SLOT_SIZE);
+        while (file.hasRemaining() && channel.read(file, file.position()) >= 0) { }
+        ByteBuffer newest = null;
+        for (int base = 0; base < file.capacity(); base += LEGACY_SLOT_SIZE) {
+            ByteBuffer slot = ByteBuffer.wrap(Arrays.copyOfRange(file.array(), base, base + LEGACY_SLOT_SIZE));
+            if (isValid(slot, 0) && (newest == null || slot.getLong(SEQUENCE_AT) > newest.getLong(SEQUENCE_AT))) newest = slot;
+        }
+        return newest;
+    }
+
+    // What a snapshot restores: the character plus where and how to continue the run
+    static class Snapshot {
+        private final PlayerCharacter player;
+        private final int level;
+        private final long runSeed;
+        private long playedMillis = -1;
+
+        Snapshot(PlayerCharacter player, int level, long runSeed) {
+            this.player = player;
+            this.level = level;
+            this.runSeed = runSeed;
+        }
+
+        public PlayerCharacter getPlayer() { return player; }
+        public int getLevel() { return level; }      // the next level to play
+        public long getRunSeed() { return runSeed; }
+        public long getPlayedMillis() { return playedMillis; } // -1 when the save predates it
+    }
+
+    // Snapshot the player before nextLevel. Writes the older of the two slots.
+    @Override
+    public void save(PlayerCharacter player, int nextLevel, long runSeed, long playedMillis) {
+        sequence++;
+        write(map, (int) (sequence & 1) * SLOT_SIZE, player, nextLevel, runSeed, playedMillis, sequence);
+    }
+
+    // Newest valid snapshot, or null if there is none
+    @Override
+    public Snapshot load() {
+        int newest = -1;
+        for (int slot = 0; slot < 2; slot++) {
+            int base = slot * SLOT_SIZE;
+            if (isValid(map, base) && (newest < 0 || map.getLong(base + SEQUENCE_AT) > map.getLong(newest + SEQUENCE_AT))) {
+                newest = base;
+            }
+        }
+        return newest < 0 ? null : read(map, newest);
+    }
+
+    // Forget the saved run (it was won or lost)
+    @Override
+    public void clear() {
+        map.putInt(MAGIC_AT, 0);
+        map.putInt(SLOT_SIZE + MAGIC_AT, 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+
+    // --- Slot Codec ---
+
+    static void write(ByteBuffer map, int base, PlayerCharacter player, int nextLevel, long runSeed, long playedMillis, long sequence) {
+        map.putInt(base + MAGIC_AT, 0); // invalidate the slot while it is rewritten
+        map.putShort(base + VERSION_AT, (short) VERSION);
+        map.putShort(base + CLASS_AT, (short) Campaign.classChoice(player));
+        map.putLong(base + SEQUENCE_AT, sequence);
+        map.putInt(base + LEVEL_AT, nextLevel);
+        map.putInt(base + HEALTH_AT, player.getHealth());
+        map.putInt(base + MAX_HEALTH_AT, player.getMaxHealth());
+        map.putInt(base + BASE_DEFENSE_AT, player.getBaseDefense());
+        map.putInt(base + SPECIAL_COOLDOWN_AT, player.getSpecialCooldown());
+        map.putInt(base + HEAL_COOLDOWN_AT, player.getHealCooldown());
+        map.putLong(base + RUN_SEED_AT, runSeed);
+
+        Weapon weapon = player.getEquippedWeapon();
+        map.putInt(base + WEAPON_ATTACK_AT, weapon.getAttackModifier());
+        map.putDouble(base + WEAPON_CHANCE_AT, weapon.getSpecialEffectChance());
+        map.put(base + WEAPON_EFFECT_AT, effectCode(weapon.getSpecialEffect()));
+        map.putInt(base + ARMOR_DEFENSE_AT, player.getEquippedArmor().getDefenseModifier());
+        putName(map, base + PLAYER_NAME_AT, player.getName());
+        putName(map, base + WEAPON_NAME_AT, weapon.getName());
+        putName(map, base + ARMOR_NAME_AT, player.getEquippedArmor().getName());
+        map.putInt(base + STONE_SKIN_AT, player.getStatusEffects().stacks(StatusEffect.STONE_SKIN));
+        map.putLong(base + PLAYED_MILLIS_AT, playedMillis);
+        putInventory(map, base, player.getInventory());
+
+        map.putInt(base + crcAt(map, base), checksum(map, base));
+        map.putInt(base + MAGIC_AT, MAGIC);
+    }
+
+    // The snapshot in a valid slot, or null if a newer game wrote it
+    static Snapshot read(ByteBuffer map, int base) {
+        switch (map.getShort(base + VERSION_AT)) {
+            case 1: return readVersion1(map, base);
+            case 2: return readVersion2(map, base);
+            case 3: return readVersion3(map, base);
+            case 4: return readVersion4(map, base);
+            default: return null;
+        }
+    }
+
+    private static Snapshot readVersion1(ByteBuffer map, int base) {
+        PlayerCharacter player = Campaign.newCharacter(map.getShort(base + CLASS_AT), getName(map, base + PLAYER_NAME_AT));
+        if (player == null) return null;
+        player.setMaxHealth(map.getInt(base + MAX_HEALTH_AT));
+        player.setHealth(map.getInt(base + HEALTH_AT));
+        player.setBaseDefense(map.getInt(base + BASE_DEFENSE_AT));
+        player.setSpecialCooldown(map.getInt(base + SPECIAL_COOLDOWN_AT));
+        player.setHealCooldown(map.getInt(base + HEAL_COOLDOWN_AT));
+        player.setEquippedWeapon(new Weapon(getName(map, base + WEAPON_NAME_AT), map.getInt(base + WEAPON_ATTACK_AT),
+                map.getDouble(base + WEAPON_CHANCE_AT), effectName(map.get(base + WEAPON_EFFECT_AT))));
+        player.setEquippedArmor(new Armor(getName(map, base + ARMOR_NAME_AT), map.getInt(base + ARMOR_DEFENSE_AT)));
+        return new Snapshot(player, map.getInt(base + LEVEL_AT), map.getLong(base + RUN_SEED_AT));
+    }
+
+    private static Snapshot readVersion2(ByteBuffer map, int base) {
+        Snapshot snapshot = readVersion1(map, base);
+        if (snapshot != null) {
+            snapshot.getPlayer().getStatusEffects().setStacks(StatusEffect.STONE_SKIN, map.getInt(base + STONE_SKIN_AT));
+        }
+        return snapshot;
+    }
+
+    private static Snapshot readVersion3(ByteBuffer map, int base) {
+        Snapshot snapshot = readVersion2(map, base);
+        if (snapshot != null) snapshot.playedMillis = map.getLong(base + PLAYED_MILLIS_AT);
+        return snapshot;
+    }
+
+    private static Snapshot readVersion4(ByteBuffer map, int base) {
+        Snapshot snapshot = readVersion3(map, base);
+        if (snapshot != null) {
+            Inventory inventory = snapshot.getPlayer().getInventory();
+            int count = Math.min(map.getInt(base + INVENTORY_COUNT_AT), MAX_INVENTORY);
+            long weapons = map.getLong(base + INVENTORY_WEAPONS_AT);
+            for (int i = 0; i < count; i++) {
+                long item = map.getLong(base + INVENTORY_AT + 8 * i);
+                if ((weapons >>> i & 1) != 0) {
+                    inventory.addWeapon(item);
+                } else {
+                    inventory.addArmor(item);
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    // Weapons then armor, each in slot order, so equal modifiers still rank the older item first
+    private static void putInventory(ByteBuffer map, int base, Inventory inventory) {
+        int[] count = new int[1];
+        long[] weapons = new long[1];
+        inventory.forEachWeapon(slot -> {
+            long item = inventory.getItem(slot);
+            if (count[0] < MAX_INVENTORY && ItemCatalog.isCatalogWeapon(item)) {
+                weapons[0] |= 1L << count[0];
+                map.putLong(base + INVENTORY_AT + 8 * count[0]++, item);
+            }
+        });
+        inventory.forEachArmor(slot -> {
+            long item = inventory.getItem(slot);
+            if (count[0] < MAX_INVENTORY && ItemCatalog.isCatalogArmor(item)) {
+                map.putLong(base + INVENTORY_AT + 8 * count[0]++, item);
+            }
+        });
+        map.putInt(base + INVENTORY_COUNT_AT, count[0]);
+        map.putLong(base + INVENTORY_WEAPONS_AT, weapons[0]);
+    }
+
+    static boolean isValid(ByteBuffer map, int base) {
+        return map.getInt(base + MAGIC_AT) == MAGIC && base + crcAt(map, base) + 4 <= map.limit()
+                && map.getInt(base + crcAt(map, base)) == checksum(map, base);
+    }
+
+    // The CRC covers everything from the version up to itself, so it moves with the version
+    private static int crcAt(ByteBuffer map, int base) {
+        switch (map.getShort(base + VERSION_AT)) {
+            case 1: return CRC_V1_AT;
+            case 2: return CRC_V2_AT;
+            case 3: return CRC_V3_AT;
+            default: return CRC_AT;
+        }
+    }
+
+    private static int checksum(ByteBuffer map, int base) {
+        int crcAt = crcAt(map, base);
+        CRC32 crc = new CRC32();
+        crc.update(map.slice(base + VERSION_AT, crcAt - VERSION_AT));
+        return (int) crc.getValue();
+    }
+
+    private static void putName(ByteBuffer map, int at, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, NAME_BYTES);
+        while (length > 0 && length < bytes.length && (bytes[length] & 0xC0) == 0x80) {
+            length--; // do not cut a UTF-8 sequence in half
+        }
+        map.put(at, (byte) length);
+        map.put(at + 1, bytes, 0, length);
+    }
+
+    private static String getName(ByteBuffer map, int at) {
+        byte[] bytes = new byte[map.get(at) & 0xFF];
+        map.get(at + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte effectCode(String effect) {
+        switch (effect) {
+            case "Stun": return 1;
+            case "Freeze": return 2;
+            default: return 0;
+        }
+    }
+
+    private static String effectName(byte code) {
+        switch (code) {
+            case 1: return "Stun";
+            case 2: return "Freeze";
+            default: return "None";
+        }
+    }
+}
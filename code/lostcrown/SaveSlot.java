@@ -0,0 +1,15 @@
+package lostcrown;
+
+// Where a game keeps its run between levels: a save file (SaveGame) or a server session
+// (SessionStore). FinalProjectGame saves at every checkpoint, offers the snapshot back when
+// a game starts and clears it once the run is over.
+interface SaveSlot {
+    // playedMillis: the run's play time so far, across resumes; -1 if unknown
+    void save(PlayerCharacter player, int nextLevel, long runSeed, long playedMillis);
+
+    // Newest snapshot, or null if there is none
+    SaveGame.Snapshot load();
+
+    // Forget the saved run (it was won or lost)
+    void clear();
+}
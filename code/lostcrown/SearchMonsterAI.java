@@ -0,0 +1,340 @@
+package lostcrown;
+
+// --- Search-Based Monster AI ---
+// Expectimax over a compact battle state with the BattleEngine rules. Monster turns are max
+// nodes: use the special now or basic attack and keep it (defending is never worth it,
+// because a monster's stance ends at its own endTurn before the player acts). The player's
+// turn is a chance node: the player is modelled as MoveSelector.SPECIAL_WHEN_READY against
+// the first live monster, and the weapon effect roll branches on its chance. Every monster
+// is modelled at one turn per round: Freeze's slow and Shield Bash's stagger are left out.
+//
+// The state is one int[] (player health, cooldowns, base defense and stance flags, then
+// health and special cooldown per monster), copied down a preallocated per-ply stack, so a
+// search allocates nothing. Values are cached in a transposition table keyed by a hash of
+// the state and the actor to move; entries carry the depth they were searched to, and
+// subtrees that reached the end of the battle are exact at any depth. Each battle salts the
+// hash, so stats from an earlier battle never match.
+//
+// The budget is per monster phase: each decision gets an equal share of what is left of it
+// among the monsters still to act, so time one monster leaves unused carries over to the
+// next. Iterative deepening runs until the decision's share is spent (checked every 256
+// nodes) and plays the best move of the last finished depth; depth 1 always finishes.
+// Because the depth reached depends on timing, battles with this AI are not reproducible
+// from a seed the way RULES battles are.
+class SearchMonsterAI implements MonsterAI {
+    static final long DEFAULT_BUDGET_NANOS = 2_000_000; // 2 ms per monster phase
+    private static final int MAX_DEPTH = 64;             // plies: one per monster or player turn
+    private static final int TABLE_SIZE = 1 << 16;
+    private static final byte EXACT = Byte.MAX_VALUE;
+    private static final double WIN = 2.0;                // player defeated
+    private static final double LOSS = -2.0;              // every monster defeated
+
+    // State layout
+    private static final int P_HEALTH = 0;
+    private static final int P_SPECIAL_COOLDOWN = 1;
+    private static final int P_HEAL_COOLDOWN = 2;
+    private static final int P_DEFENSE = 3;
+    private static final int P_FLAGS = 4;
+    private static final int MONSTERS = 5;               // then health, cooldown per monster
+    private static final int DEFENDING = 1;
+    private static final int INVULNERABLE = 2;
+
+    private final long budgetNanos;
+
+    // Transposition table
+    private final long[] keys = new long[TABLE_SIZE];
+    private final double[] values = new double[TABLE_SIZE];
+    private final byte[] depths = new byte[TABLE_SIZE];
+    private final byte[] bestMoves = new byte[TABLE_SIZE];
+
+    // Battle constants, set by battleStarted
+    private Monster[] monsters;
+    private int count;
+    private int[] monsterAttack;
+    private int[] monsterSpecial;
+    private int[] monsterDefense;
+    private int[] monsterCooldownTime;
+    private long totalMonsterHealth;
+    private int playerMaxHealth;
+    private int playerAttack;
+    private int playerSpecial;
+    private int playerHits;
+    private int playerCooldownTime;
+    private int playerArmor;
+    private boolean stoneSkin;
+    private double effectChance;
+    private long salt;
+    private int[][] states;
+
+    // Per phase
+    private long phaseDeadline;
+    private int phaseActors; // decisions still to make in the phase
+
+    // Per decision
+    private long deadline;
+    private boolean abortable;
+    private boolean aborted;
+    private boolean horizonReached;
+    private int rootMove;
+    private long nodes;
+    private int lastDepth;
+
+    public SearchMonsterAI(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public int getLastDepth() { return lastDepth; }
+    public long getLastNodes() { return nodes; }
+
+    @Override
+    public void battleStarted(PlayerCharacter player, Monster[] monsters) {
+        this.monsters = monsters;
+        count = monsters.length;
+        monsterAttack = new int[count];
+        monsterSpecial = new int[count];
+        monsterDefense = new int[count];
+        monsterCooldownTime = new int[count];
+        totalMonsterHealth = 0;
+        for (int m = 0; m < count; m++) {
+            monsterAttack[m] = monsters[m].getBaseAttack();
+            monsterSpecial[m] = (int) (monsterAttack[m] * 1.8); // Monster.specialAttack
+            monsterDefense[m] = monsters[m].getTotalDefense();
+            monsterCooldownTime[m] = monsters[m].getSpecialCooldownTime();
+            totalMonsterHealth += monsters[m].getMaxHealth();
+        }
+        playerMaxHealth = player.getMaxHealth();
+        playerAttack = player.getBaseAttack() + player.getEquippedWeapon().getAttackModifier();
+        playerSpecial = (int) (playerAttack * player.getSpecialMultiplier());
+        playerHits = player.getSpecialHits();
+        playerCooldownTime = player.getSpecialCooldownTime();
+        playerArmor = player.getEquippedArmor().getDefenseModifier();
+        stoneSkin = player instanceof Dwarf;
+        effectChance = Math.min(1.0, player.getEquippedWeapon().getSpecialEffectChance());
+        salt = mix(salt + 0x9E3779B97F4A7C15L);
+        phaseActors = 0;
+        states = new int[MAX_DEPTH + 2][MONSTERS + 2 * count];
+    }
+
+    @Override
+    public void phaseStarted(int actors) {
+        phaseDeadline = System.nanoTime() + budgetNanos;
+        phaseActors = actors;
+    }
+
+    @Override
+    public int chooseMove(PlayerCharacter player, Monster[] monsters, LiveIndex live, int index) {
+        if (phaseActors <= 0) phaseStarted(1); // a decision outside any phase gets the whole budget
+        long now = System.nanoTime();
+        long share = Math.max(0, phaseDeadline - now) / phaseActors--;
+        // With the special on cooldown or blocked a basic attack is the only useful move
+        if (!monsters[index].isSpecialReady()) return BattleEngine.ATTACK;
+        if (monsters != this.monsters) battleStarted(player, monsters);
+
+        int[] root = states[0];
+        root[P_HEALTH] = player.getHealth();
+        root[P_SPECIAL_COOLDOWN] = player.getSpecialReadyIn();
+        root[P_HEAL_COOLDOWN] = player.getHealCooldown();
+        root[P_DEFENSE] = player.getNaturalDefense();
+        root[P_FLAGS] = (player.isDefending() ? DEFENDING : 0) | (player.isInvulnerable() ? INVULNERABLE : 0);
+        for (int m = 0; m < count; m++) {
+            root[MONSTERS + 2 * m] = live.contains(m) ? monsters[m].getHealth() : 0;
+            root[MONSTERS + 2 * m + 1] = monsters[m].getSpecialReadyIn(); // a stun is modelled as cooldown
+        }
+
+        deadline = now + share;
+        nodes = 0;
+        int best = BattleEngine.SPECIAL;
+        for (int depth = 1; depth <= MAX_DEPTH; depth++) {
+            abortable = depth > 1;
+            aborted = false;
+            horizonReached = false;
+            search(0, index, depth);
+            if (aborted) break;
+            best = rootMove;
+            lastDepth = depth;
+            if (!horizonReached) break; // every line reached the end of the battle
+        }
+        return best;
+    }
+
+    // --- Search ---
+    // Value for the monsters of states[ply] with actor to move (a monster slot, or count for
+    // the player). Does not modify states[ply].
+    private double search(int ply, int actor, int depth) {
+        int[] state = states[ply];
+        if (depth == 0) {
+            horizonReached = true;
+            return evaluate(state);
+        }
+        if ((++nodes & 255) == 0 && abortable && System.nanoTime() > deadline) aborted = true;
+        if (aborted) return 0;
+
+        long key = hash(state, actor);
+        int slot = (int) key & (TABLE_SIZE - 1);
+        if (keys[slot] == key && depths[slot] >= depth && ply > 0) {
+            if (depths[slot] != EXACT) horizonReached = true;
+            return values[slot];
+        }
+
+        boolean outerHorizon = horizonReached;
+        horizonReached = false;
+        double value;
+        int move = 0;
+        if (actor == count) {
+            value = playerTurn(ply, depth);
+        } else {
+            int hint = keys[slot] == key ? bestMoves[slot] : 0;
+            boolean specialReady = state[MONSTERS + 2 * actor + 1] == 0;
+            value = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < 2; i++) {
+                int candidate = (i == 0) == (hint != BattleEngine.ATTACK) ? BattleEngine.SPECIAL : BattleEngine.ATTACK;
+                if (candidate == BattleEngine.SPECIAL && !specialReady) continue;
+                int[] child = copy(ply);
+                monsterMove(child, actor, candidate);
+                double v = afterMonster(ply + 1, actor, depth - 1);
+                if (aborted) return 0;
+                if (v > value) {
+                    value = v;
+                    move = candidate;
+                }
+            }
+            if (ply == 0) rootMove = move;
+        }
+        if (aborted) return 0;
+
+        keys[slot] = key;
+        values[slot] = value;
+        depths[slot] = horizonReached ? (byte) Math.min(depth, EXACT - 1) : EXACT;
+        bestMoves[slot] = (byte) move;
+        horizonReached |= outerHorizon;
+        return value;
+    }
+
+    // Chance node: the modelled player move, then the weapon effect roll on the target
+    private double playerTurn(int ply, int depth) {
+        int target = nextLive(states[ply], 0);
+        int[] child = copy(ply);
+        playerMove(child, target);
+        int first = nextLive(child, 0);
+        if (first < 0) return LOSS;
+        boolean targetAlive = child[MONSTERS + 2 * target] > 0;
+        double miss = search(ply + 1, first, depth - 1);
+        if (!targetAlive || effectChance == 0 || aborted) return miss;
+
+        child = copy(ply);
+        playerMove(child, target);
+        child[MONSTERS + 2 * target + 1] = monsterCooldownTime[target] + 1;
+        double hit = search(ply + 1, first, depth - 1);
+        return effectChance * hit + (1 - effectChance) * miss;
+    }
+
+    // states[ply] holds the position right after monster m's move and endTurn
+    private double afterMonster(int ply, int m, int depth) {
+        int[] state = states[ply];
+        if (state[P_HEALTH] == 0) return WIN;
+        int next = nextLive(state, m + 1);
+        if (next < 0) {
+            endPlayerTurn(state);
+            next = count;
+        }
+        return search(ply, next, depth);
+    }
+
+    // Monsters gain from damage dealt and lose from damage taken, both as a fraction of the
+    // side's max health
+    private double evaluate(int[] state) {
+        long monsterHealth = 0;
+        for (int m = 0; m < count; m++) {
+            monsterHealth += state[MONSTERS + 2 * m];
+        }
+        return (double) monsterHealth / totalMonsterHealth - (double) state[P_HEALTH] / playerMaxHealth;
+    }
+
+    // --- Rules (same as AbstractCharacter, the character classes and BattleEngine) ---
+    // MoveSelector.SPECIAL_WHEN_READY
+    private void playerMove(int[] state, int target) {
+        int health = state[P_HEALTH];
+        if (state[P_HEAL_COOLDOWN] == 0 && health < playerMaxHealth * 0.35) {
+            playerHeal(state);
+        } else if (state[P_SPECIAL_COOLDOWN] == 0) {
+            if (stoneSkin) {
+                playerHeal(state);
+                state[P_DEFENSE] += 50;
+            } else {
+                for (int h = 0; h < playerHits; h++) {
+                    hitMonster(state, target, playerSpecial);
+                }
+            }
+            state[P_SPECIAL_COOLDOWN] = playerCooldownTime;
+        } else {
+            hitMonster(state, target, playerAttack);
+        }
+    }
+
+    private void playerHeal(int[] state) {
+        if (state[P_HEAL_COOLDOWN] > 0) return;
+        state[P_HEALTH] = Math.min(playerMaxHealth, state[P_HEALTH] + (int) (playerMaxHealth * 0.15));
+        state[P_FLAGS] |= INVULNERABLE;
+        state[P_HEAL_COOLDOWN] = 1;
+    }
+
+    // A monster's stance and invulnerability always end before the player's turn
+    private void hitMonster(int[] state, int m, int damage) {
+        int at = MONSTERS + 2 * m;
+        state[at] = Math.max(0, state[at] - Math.max(1, damage - monsterDefense[m]));
+    }
+
+    private void monsterMove(int[] state, int m, int move) {
+        int cooldown = MONSTERS + 2 * m + 1;
+        if (move == BattleEngine.SPECIAL && state[cooldown] == 0) {
+            hitPlayer(state, monsterSpecial[m]);
+            state[cooldown] = monsterCooldownTime[m];
+        } else {
+            hitPlayer(state, monsterAttack[m]);
+        }
+        if (state[cooldown] > 0) state[cooldown]--; // Monster.endTurn
+    }
+
+    private void hitPlayer(int[] state, int damage) {
+        int flags = state[P_FLAGS];
+        if ((flags & INVULNERABLE) != 0) return;
+        double reductionFactor = (flags & DEFENDING) != 0 ? 0.5 : 1.0;
+        int effective = Math.max(1, (int) (damage * reductionFactor) - (state[P_DEFENSE] + playerArmor));
+        state[P_HEALTH] = Math.max(0, state[P_HEALTH] - effective);
+    }
+
+    private static void endPlayerTurn(int[] state) {
+        state[P_FLAGS] = 0;
+        if (state[P_SPECIAL_COOLDOWN] > 0) state[P_SPECIAL_COOLDOWN]--;
+        if (state[P_HEAL_COOLDOWN] > 0) state[P_HEAL_COOLDOWN]--;
+    }
+
+    private int nextLive(int[] state, int from) {
+        for (int m = from; m < count; m++) {
+            if (state[MONSTERS + 2 * m] > 0) return m;
+        }
+        return -1;
+    }
+
+    private int[] copy(int ply) {
+        int[] child = states[ply + 1];
+        System.arraycopy(states[ply], 0, child, 0, child.length);
+        return child;
+    }
+
+    private long hash(int[] state, int actor) {
+        long h = salt ^ actor;
+        for (int value : state) {
+            h = (h ^ value) * 0x9E3779B97F4A7C15L;
+            h ^= h >>> 29;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
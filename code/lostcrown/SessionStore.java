@@ -0,0 +1,345 @@
+package lostcrown;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// --- Session Store ---
+// Keeps the paused games of a GameServer under a memory budget. A session is named by a
+// random 64-bit code and holds its newest checkpoint as a SaveGame slot (SLOT_SIZE bytes,
+// the same codec as the save file). Connected sessions are pinned and counted at
+// LIVE_SESSION_BYTES, an estimate of a FinalProjectGame with its Scanner, buffers and event
+// bus; idle sessions stay resident as their encoded slot in LRU order. Whenever the total
+// goes over the budget, the least recently used idle sessions are evicted: written to the
+// session file if they changed, then dropped from memory. open() rehydrates an evicted
+// session from the file, so a returning player never notices where the game was.
+//
+// The file is an array of RECORD_SIZE records: the session code (0 for a free record)
+// followed by the slot. Slots carry their CRC, so a torn write loses that one session and
+// nothing else; startup rebuilds the code -> record index with one scan and reuses free and
+// invalid records before growing the file. The index is open addressing over primitive
+// arrays, a dozen bytes per stored session, so hundreds of thousands of paused games cost
+// a few megabytes of heap. A file written before SaveGame version 4, when slots were
+// LEGACY_SLOT_SIZE bytes, is rewritten once at startup with every slot padded.
+class SessionStore implements AutoCloseable {
+    static final int RECORD_SIZE = 8 + SaveGame.SLOT_SIZE;
+    private static final int LEGACY_RECORD_SIZE = 8 + SaveGame.LEGACY_SLOT_SIZE;
+    static final long LIVE_SESSION_BYTES = 32 * 1024;
+    static final long RESIDENT_BYTES = SaveGame.SLOT_SIZE + 96; // slot array, entry, map node, boxed code
+
+    private final FileChannel channel;
+    private final long memoryBudget;
+    private final SecureRandom codes = new SecureRandom();
+    private final LinkedHashMap<Long, Entry> resident = new LinkedHashMap<>(1024, 0.75f, true); // access order
+    private final SlotIndex index = new SlotIndex();
+    private int[] freeRecords = new int[16];
+    private int freeCount;
+    private int recordCount;
+    private long memoryUsed;
+    private int liveSessions;
+    private long evictions;
+    private long rehydrations;
+
+    // A resident session. slot is null when the session has no checkpoint; the array is
+    // replaced, never written in place, so it can be decoded outside the lock.
+    private static final class Entry {
+        byte[] slot;
+        boolean dirty;
+        int pins;
+    }
+
+    public SessionStore(Path file, long memoryBudget) throws IOException {
+        convertLegacyRecords(file);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.memoryBudget = memoryBudget;
+        recordCount = (int) (channel.size() / RECORD_SIZE);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+        for (int n = 0; n < recordCount; n++) {
+            record.clear();
+            readRecord(n, record);
+            long code = record.getLong(0);
+            if (code != 0 && SaveGame.isValid(record, 8) && index.get(code) < 0) {
+                index.put(code, n);
+            } else {
+                release(n);
+            }
+        }
+    }
+
+    public synchronized int getLiveSessions() { return liveSessions; }
+    public synchronized int getResidentSessions() { return resident.size(); }
+    public synchronized int getStoredSessions() { return index.size(); }
+    public synchronized long getMemoryUsed() { return memoryUsed; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized long getRehydrations() { return rehydrations; }
+    public long getMemoryBudget() { return memoryBudget; }
+
+    // A fresh code no stored or resident session uses
+    public long newSessionCode() {
+        while (true) {
+            long code = codes.nextLong();
+            if (code != 0 && !contains(code)) return code;
+        }
+    }
+
+    public synchronized boolean contains(long code) {
+        Entry entry = resident.get(code);
+        return entry != null ? entry.slot != null : index.get(code) >= 0;
+    }
+
+    // Pins the session in memory until the returned slot is closed
+    public synchronized Session open(long code) throws IOException {
+        if (code == 0) throw new IllegalArgumentException("Session code 0 is reserved");
+        Entry entry = resident.get(code);
+        if (entry == null) {
+            entry = new Entry();
+            int record = index.get(code);
+            if (record >= 0) {
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+                readRecord(record, buffer);
+                entry.slot = new byte[SaveGame.SLOT_SIZE];
+                buffer.get(8, entry.slot);
+                rehydrations++;
+            }
+            resident.put(code, entry);
+            memoryUsed += RESIDENT_BYTES;
+        }
+        if (entry.pins++ == 0) memoryUsed += LIVE_SESSION_BYTES - RESIDENT_BYTES;
+        liveSessions++;
+        evictOverBudget();
+        return new Session(code, entry);
+    }
+
+    // --- Sessions ---
+
+    // One connection's view of a session; FinalProjectGame saves through it as through a file
+    final class Session implements SaveSlot, AutoCloseable {
+        private final long code;
+        private final Entry entry;
+        private boolean closed;
+
+        private Session(long code, Entry entry) {
+            this.code = code;
+            this.entry = entry;
+        }
+
+        public long getCode() { return code; }
+
+        @Override
+        public void save(PlayerCharacter player, int nextLevel, long runSeed, long playedMillis) {
+            byte[] slot = new byte[SaveGame.SLOT_SIZE];
+            SaveGame.write(ByteBuffer.wrap(slot), 0, player, nextLevel, runSeed, playedMillis, 1);
+            update(slot);
+        }
+
+        @Override
+        public SaveGame.Snapshot load() {
+            byte[] slot;
+            synchronized (SessionStore.this) {
+                slot = entry.slot;
+            }
+            return slot == null ? null : SaveGame.read(ByteBuffer.wrap(slot), 0);
+        }
+
+        @Override
+        public void clear() {
+            update(null);
+        }
+
+        private void update(byte[] slot) {
+            synchronized (SessionStore.this) {
+                entry.slot = slot;
+                entry.dirty = true;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            synchronized (SessionStore.this) {
+                if (closed) return;
+                closed = true;
+                if (--entry.pins == 0) memoryUsed -= LIVE_SESSION_BYTES - RESIDENT_BYTES;
+                liveSessions--;
+                if (entry.pins == 0 && entry.slot == null) {
+                    writeBack(code, entry); // nothing to keep but a record to free
+                    resident.remove(code);
+                    memoryUsed -= RESIDENT_BYTES;
+                }
+                evictOverBudget();
+            }
+        }
+    }
+
+    // --- Eviction ---
+
+    // Least recently used first; pinned sessions are in use and stay
+    private void evictOverBudget() throws IOException {
+        Iterator<Map.Entry<Long, Entry>> lru = resident.entrySet().iterator();
+        while (memoryUsed > memoryBudget && lru.hasNext()) {
+            Map.Entry<Long, Entry> next = lru.next();
+            Entry entry = next.getValue();
+            if (entry.pins > 0) continue;
+            writeBack(next.getKey(), entry);
+            lru.remove();
+            memoryUsed -= RESIDENT_BYTES;
+            evictions++;
+        }
+    }
+
+    private void writeBack(long code, Entry entry) throws IOException {
+        if (!entry.dirty) return;
+        int record = index.get(code);
+        if (entry.slot == null) {
+            if (record >= 0) {
+                writeFully(ByteBuffer.allocate(8), (long) record * RECORD_SIZE); // code 0 frees the record
+                index.remove(code);
+                release(record);
+            }
+        } else {
+            if (record < 0) {
+                record = freeCount > 0 ? freeRecords[--freeCount] : recordCount++;
+                index.put(code, record);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+            buffer.putLong(code).put(entry.slot).flip();
+            writeFully(buffer, (long) record * RECORD_SIZE);
+        }
+        entry.dirty = false;
+    }
+
+    // Writes every changed resident session to the file
+    public synchronized void flush() throws IOException {
+        for (Map.Entry<Long, Entry> next : resident.entrySet()) {
+            writeBack(next.getKey(), next.getValue());
+        }
+        channel.force(false);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // --- File ---
+
+    private static void convertLegacyRecords(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) % LEGACY_RECORD_SIZE != 0) return;
+        byte[] legacy = Files.readAllBytes(file);
+        if (!hasLegacySlot(legacy)) return;
+        int records = legacy.length / LEGACY_RECORD_SIZE;
+        byte[] converted = new byte[records * RECORD_SIZE];
+        for (int n = 0; n < records; n++) {
+            System.arraycopy(legacy, n * LEGACY_RECORD_SIZE, converted, n * RECORD_SIZE, LEGACY_RECORD_SIZE);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".convert");
+        Files.write(temp, converted);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Current records never hold a valid slot at a legacy record boundary: the first one
+    // has a version 4 slot, which does not fit, and the rest fall mid-record
+    private static boolean hasLegacySlot(byte[] file) {
+        ByteBuffer buffer = ByteBuffer.wrap(file);
+        for (int at = 0; at < file.length; at += LEGACY_RECORD_SIZE) {
+            if (buffer.getLong(at) != 0 && SaveGame.isValid(buffer.slice(at + 8, SaveGame.LEGACY_SLOT_SIZE), 0)) return true;
+        }
+        return false;
+    }
+
+    private void readRecord(int record, ByteBuffer buffer) throws IOException {
+        long position = (long) record * RECORD_SIZE;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) break; // short last record, left zeroed (invalid)
+        }
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void release(int record) {
+        if (freeCount == freeRecords.length) freeRecords = Arrays.copyOf(freeRecords, freeCount * 2);
+        freeRecords[freeCount++] = record;
+    }
+
+    // Session code -> record number, linear probing over primitive arrays. Code 0 marks an
+    // empty cell, which is why no session can have it.
+    private static final class SlotIndex {
+        private long[] codes = new long[1024];
+        private int[] records = new int[1024];
+        private int size;
+
+        int size() { return size; }
+
+        private int home(long code) {
+            return (int) RandomStreams.mix64(code) & (codes.length - 1);
+        }
+
+        int get(long code) {
+            int mask = codes.length - 1;
+            for (int i = home(code); codes[i] != 0; i = (i + 1) & mask) {
+                if (codes[i] == code) return records[i];
+            }
+            return -1;
+        }
+
+        void put(long code, int record) {
+            if ((size + 1) * 4 > codes.length * 3) grow();
+            int mask = codes.length - 1;
+            int i = home(code);
+            while (codes[i] != 0 && codes[i] != code) i = (i + 1) & mask;
+            if (codes[i] == 0) size++;
+            codes[i] = code;
+            records[i] = record;
+        }
+
+        // Backward-shift deletion, so lookups never need tombstones
+        void remove(long code) {
+            int mask = codes.length - 1;
+            int i = home(code);
+            while (codes[i] != code) {
+                if (codes[i] == 0) return;
+                i = (i + 1) & mask;
+            }
+            for (int j = (i + 1) & mask; codes[j] != 0; j = (j + 1) & mask) {
+                int home = home(codes[j]);
+                boolean stays = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+                if (!stays) {
+                    codes[i] = codes[j];
+                    records[i] = records[j];
+                    i = j;
+                }
+            }
+            codes[i] = 0;
+            size--;
+        }
+
+        private void grow() {
+            long[] oldCodes = codes;
+            int[] oldRecords = records;
+            codes = new long[oldCodes.length * 2];
+            records = new int[oldRecords.length * 2];
+            size = 0;
+            for (int i = 0; i < oldCodes.length; i++) {
+                if (oldCodes[i] != 0) put(oldCodes[i], oldRecords[i]);
+            }
+        }
+    }
+}
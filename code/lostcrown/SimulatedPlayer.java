@@ -0,0 +1,95 @@
+package lostcrown;
+
+import java.util.function.Supplier;
+
+// Scripted CampaignPlayer for simulations. Each preset models a kind of player.
+class SimulatedPlayer implements CampaignPlayer {
+    // Mashes attack, never changes gear and guesses "A" on every quiz
+    static final SimulatedPlayer BUTTON_MASHER = new SimulatedPlayer(MoveSelector.ALWAYS_ATTACK, false, false);
+    // Uses specials and upgrades gear but guesses quizzes
+    static final SimulatedPlayer CASUAL = new SimulatedPlayer(MoveSelector.SPECIAL_WHEN_READY, true, false);
+    // Uses specials, upgrades gear and knows every quiz answer
+    static final SimulatedPlayer EXPERT = new SimulatedPlayer(MoveSelector.SPECIAL_WHEN_READY, true, true);
+    // Like EXPERT, but picks gear with the EquipOptimizer instead of the bigger number
+    static final SimulatedPlayer OPTIMIZER = new SimulatedPlayer(MoveSelector.SPECIAL_WHEN_READY, true, true, EquipOptimizer.SHARED);
+
+    private final MoveSelector moves;
+    private final boolean equipUpgrades;
+    private final boolean knowsAnswers;
+    private final EquipOptimizer optimizer; // null: compare modifiers
+
+    public SimulatedPlayer(MoveSelector moves, boolean equipUpgrades, boolean knowsAnswers) {
+        this(moves, equipUpgrades, knowsAnswers, null);
+    }
+
+    public SimulatedPlayer(MoveSelector moves, boolean equipUpgrades, boolean knowsAnswers, EquipOptimizer optimizer) {
+        this.moves = moves;
+        this.equipUpgrades = equipUpgrades;
+        this.knowsAnswers = knowsAnswers;
+        this.optimizer = optimizer;
+    }
+
+    static SimulatedPlayer byName(String name) {
+        switch (name.toLowerCase()) {
+            case "masher": return BUTTON_MASHER;
+            case "casual": return CASUAL;
+            case "expert": return EXPERT;
+            case "optimizer": return OPTIMIZER;
+            default: throw new IllegalArgumentException("Unknown policy: " + name + " (masher, casual, expert, optimizer, autopilot-weak, autopilot, autopilot-strong)");
+        }
+    }
+
+    // Policies by name for the simulation tools. The presets above are stateless and shared;
+    // autopilots keep a memo table, so every get() makes a new one.
+    static Supplier<CampaignPlayer> policies(String name, long seed) {
+        AutopilotPlayer.Skill skill = AutopilotPlayer.skillByName(name);
+        if (skill != null) return () -> new AutopilotPlayer(skill, seed);
+        SimulatedPlayer preset = byName(name);
+        return () -> preset;
+    }
+
+    @Override
+    public void battleStarted(PlayerCharacter player, Monster[] monsters) {
+        moves.battleStarted(player, monsters);
+    }
+
+    @Override
+    public int chooseMove(PlayerCharacter player, Monster target) {
+        return moves.chooseMove(player, target);
+    }
+
+    @Override
+    public boolean equipWeapon(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Weapon found) {
+        if (optimizer != null) return optimizer.shouldEquip(difficulty, player, nextLevel, found);
+        return equipUpgrades && found.getAttackModifier() > player.getEquippedWeapon().getAttackModifier();
+    }
+
+    @Override
+    public boolean equipArmor(int nextLevel, DifficultyTable difficulty, PlayerCharacter player, Armor found) {
+        if (optimizer != null) return optimizer.shouldEquip(difficulty, player, nextLevel, found);
+        return equipUpgrades && found.getDefenseModifier() > player.getEquippedArmor().getDefenseModifier();
+    }
+
+    @Override
+    public int storedWeapon(int level, DifficultyTable difficulty, PlayerCharacter player) {
+        if (optimizer != null) return optimizer.bestWeaponSlot(difficulty, player, level);
+        Inventory inventory = player.getInventory();
+        int best = inventory.bestWeapon();
+        boolean better = equipUpgrades && inventory.getWeapon(best).getAttackModifier() > player.getEquippedWeapon().getAttackModifier();
+        return better ? best : -1;
+    }
+
+    @Override
+    public int storedArmor(int level, DifficultyTable difficulty, PlayerCharacter player) {
+        if (optimizer != null) return optimizer.bestArmorSlot(difficulty, player, level);
+        Inventory inventory = player.getInventory();
+        int best = inventory.bestArmor();
+        boolean better = equipUpgrades && inventory.getArmor(best).getDefenseModifier() > player.getEquippedArmor().getDefenseModifier();
+        return better ? best : -1;
+    }
+
+    @Override
+    public String answerQuiz(int level, String question) {
+        return knowsAnswers ? Campaign.quizAnswer(level) : "A";
+    }
+}
@@ -0,0 +1,45 @@
+package lostcrown;
+
+// Status effects a character can carry. Timed effects expire through a TimingWheel; a
+// stacking effect adds a stack each time it is applied, the others are refreshed.
+enum StatusEffect {
+    DEFENDING(false, false, false, 0, 100),      // halves damage taken
+    INVULNERABLE(false, false, false, 0, 100),   // blocks all damage
+    STUNNED(true, false, false, 0, 100),         // weapon Stun: no special attacks
+    FROZEN(true, false, false, 0, 50),           // weapon Freeze: no special attacks, half speed
+    STONE_SKIN(false, false, true, 50, 100),     // Dwarf special: +50 defense per stack
+    STAGGERED(false, true, false, 0, 100);       // Knight's Shield Bash: loses its turns (see TurnScheduler)
+
+    static final int PERMANENT = -1; // duration of an effect that never expires
+    static final int COUNT = values().length;
+
+    final boolean blocksSpecial;
+    final boolean skipsTurn;
+    final boolean stacks;
+    final int defensePerStack;
+    final int speedPercent;
+    final int bit = 1 << ordinal();
+
+    StatusEffect(boolean blocksSpecial, boolean skipsTurn, boolean stacks, int defensePerStack, int speedPercent) {
+        this.blocksSpecial = blocksSpecial;
+        this.skipsTurn = skipsTurn;
+        this.stacks = stacks;
+        this.defensePerStack = defensePerStack;
+        this.speedPercent = speedPercent;
+    }
+
+    // A speed as this effect changes it, never below 1
+    int adjustSpeed(int speed) {
+        return Math.max(1, speed * speedPercent / 100);
+    }
+
+    private static final StatusEffect[] BY_ORDINAL = values();
+
+    static StatusEffect of(int ordinal) { return BY_ORDINAL[ordinal]; }
+
+    // Effect of a weapon's ItemCatalog effect code. A weapon with a chance but no effect
+    // stuns, as it always has.
+    static StatusEffect ofWeapon(Weapon weapon) {
+        return ItemCatalog.effect(weapon.getItem()) == ItemCatalog.EFFECT_FREEZE ? FROZEN : STUNNED;
+    }
+}
@@ -0,0 +1,156 @@
+package lostcrown;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+// --- Status Effects ---
+// The effects one character carries: an active bitmask, a stack count and a pending expiry
+// per StatusEffect. Timed effects expire on a TimingWheel. In a battle that is the battle's
+// clock, which ticks once per round; outside one the character gets a clock of its own that
+// ticks at its endTurn, which is the same thing for a single character.
+class StatusEffects implements TimingWheel.Listener {
+    private static final int NO_ENTRY = -1;
+    private static final int BLOCKS_SPECIAL = maskOf(effect -> effect.blocksSpecial);
+    private static final int SKIPS_TURN = maskOf(effect -> effect.skipsTurn);
+    private static final int CHANGES_SPEED = maskOf(effect -> effect.speedPercent != 100);
+
+    private int active;         // StatusEffect bits
+    private int defenseBonus;   // cached sum of defensePerStack * stacks
+    private final int[] stacks = new int[StatusEffect.COUNT];
+    private final int[] entries = new int[StatusEffect.COUNT]; // wheel entry per effect, or NO_ENTRY
+    private TimingWheel clock;  // null until a timed effect needs one
+    private boolean ownClock;
+
+    StatusEffects() {
+        Arrays.fill(entries, NO_ENTRY);
+    }
+
+    public boolean has(StatusEffect effect) { return (active & effect.bit) != 0; }
+    public int stacks(StatusEffect effect) { return stacks[effect.ordinal()]; }
+    public int defenseBonus() { return defenseBonus; }
+    public boolean blocksSpecial() { return (active & BLOCKS_SPECIAL) != 0; }
+    public boolean skipsTurn() { return (active & SKIPS_TURN) != 0; }
+    public boolean isEmpty() { return active == 0; }
+
+    // A base speed with every active speed-changing effect (Freeze) applied
+    public int speed(int base) {
+        if ((active & CHANGES_SPEED) == 0) return base;
+        for (int e = 0; e < StatusEffect.COUNT; e++) {
+            StatusEffect effect = StatusEffect.of(e);
+            if ((CHANGES_SPEED & effect.bit) != 0 && has(effect)) base = effect.adjustSpeed(base);
+        }
+        return base;
+    }
+
+    // Ticks until the effect expires: 0 when it is not active, PERMANENT when it never does
+    public int ticksLeft(StatusEffect effect) {
+        if (!has(effect)) return 0;
+        int entry = entries[effect.ordinal()];
+        return entry == NO_ENTRY ? StatusEffect.PERMANENT : (int) (clock.dueOf(entry) - clock.now());
+    }
+
+    // Ticks until no special-blocking effect is left
+    public int specialBlockedFor() {
+        if (!blocksSpecial()) return 0;
+        int longest = 0;
+        for (int e = 0; e < StatusEffect.COUNT; e++) {
+            StatusEffect effect = StatusEffect.of(e);
+            if (effect.blocksSpecial && has(effect)) {
+                int left = ticksLeft(effect);
+                if (left == StatusEffect.PERMANENT) return Integer.MAX_VALUE;
+                longest = Math.max(longest, left);
+            }
+        }
+        return longest;
+    }
+
+    // Apply for duration ticks, or StatusEffect.PERMANENT. A stacking effect gains a stack and
+    // every stack shares the new expiry; any other effect is refreshed.
+    public void apply(StatusEffect effect, int duration) {
+        int e = effect.ordinal();
+        stacks[e] = effect.stacks ? stacks[e] + 1 : 1;
+        active |= effect.bit;
+        cancel(e);
+        if (duration != StatusEffect.PERMANENT) {
+            entries[e] = clock().schedule(this, 0, e, duration);
+        }
+        updateDefense();
+    }
+
+    // Permanent stacks, e.g. restored from a save
+    public void setStacks(StatusEffect effect, int count) {
+        int e = effect.ordinal();
+        cancel(e);
+        stacks[e] = count;
+        if (count > 0) {
+            active |= effect.bit;
+        } else {
+            active &= ~effect.bit;
+        }
+        updateDefense();
+    }
+
+    public void remove(StatusEffect effect) {
+        setStacks(effect, 0);
+    }
+
+    @Override
+    public void expired(int index, int effect) {
+        entries[effect] = NO_ENTRY;
+        stacks[effect] = 0;
+        active &= ~(1 << effect);
+        updateDefense();
+    }
+
+    // Run timed effects on the given clock (null: a clock of our own), keeping what is left
+    // of their durations
+    void useClock(TimingWheel next) {
+        if (next == clock && (next != null || ownClock)) return;
+        TimingWheel previous = clock;
+        clock = next;
+        ownClock = next == null;
+        for (int e = 0; e < StatusEffect.COUNT; e++) {
+            int entry = entries[e];
+            if (entry == NO_ENTRY) continue;
+            int left = (int) (previous.dueOf(entry) - previous.now());
+            previous.cancel(entry);
+            entries[e] = clock().schedule(this, 0, e, left);
+        }
+    }
+
+    // The owner's endTurn: advances a clock of our own
+    void endTurn() {
+        if (ownClock && clock != null && clock.size() > 0) clock.tick();
+    }
+
+    private TimingWheel clock() {
+        if (clock == null) {
+            clock = new TimingWheel();
+            ownClock = true;
+        }
+        return clock;
+    }
+
+    private void cancel(int e) {
+        if (entries[e] != NO_ENTRY) {
+            clock.cancel(entries[e]);
+            entries[e] = NO_ENTRY;
+        }
+    }
+
+    private void updateDefense() {
+        int bonus = 0;
+        for (int e = 0; e < StatusEffect.COUNT; e++) {
+            bonus += stacks[e] * StatusEffect.of(e).defensePerStack;
+        }
+        defenseBonus = bonus;
+    }
+
+    private static int maskOf(Predicate<StatusEffect> property) {
+        int mask = 0;
+        for (StatusEffect effect : StatusEffect.values()) {
+            if (property.test(effect)) mask |= effect.bit;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,45 @@
+package lostcrown;
+
+// How the player's attacks pick a target among the live monsters
+enum TargetingStrategy {
+    FIRST,          // lowest live slot, the original behaviour
+    LOWEST_HP,      // finish off the weakest monster
+    HIGHEST_THREAT; // stop the monster that would hit hardest next turn
+
+    int select(LiveIndex live, Monster[] monsters) {
+        int best = live.first();
+        if (this == FIRST || best < 0) return best;
+        for (int i = live.next(best + 1); i >= 0; i = live.next(i + 1)) {
+            if (score(monsters[i]) > score(monsters[best])) best = i;
+        }
+        return best;
+    }
+
+    // Hordes keep their members in an index (see Horde.bestTarget) instead of being scanned
+    int select(LiveIndex live, Horde horde) {
+        return this == FIRST ? live.first() : horde.bestTarget(this);
+    }
+
+    // Horde.bestTarget's heap key for member i: orders like score, ties going to the lowest
+    // index as in the scan. Threat only depends on whether the next hit is a special and on
+    // the attack (the special's damage grows with it), so the key packs a "special coming"
+    // bit above the attack, leaving 31 bits for the tie-breaker. Attacks are never negative.
+    long key(Horde horde, int i) {
+        long tieBreak = Integer.MAX_VALUE - i;
+        if (this == LOWEST_HP) return (long) -horde.getHealth(i) << 31 | tieBreak;
+        int attack = horde.getBaseAttack(i);
+        boolean special = horde.wantsSpecial(i) && (int) (attack * 1.8) > 0;
+        return (special ? 1L << 62 : 0) | (long) attack << 31 | tieBreak;
+    }
+
+    private long score(Monster monster) {
+        if (this == LOWEST_HP) return -monster.getHealth();
+        return threat(monster.isSpecialReady(), monster.getHealth(), monster.getMaxHealth(), monster.getBaseAttack());
+    }
+
+    // Damage the monster AI would deal on its next turn, ties broken by base attack
+    private static long threat(boolean specialReady, int health, int maxHealth, int attack) {
+        long nextHit = specialReady && health > maxHealth * 0.5 ? (int) (attack * 1.8) : 0;
+        return (nextHit << 32) | attack;
+    }
+}
@@ -0,0 +1,120 @@
+package lostcrown;
+
+import java.util.Arrays;
+
+// --- Timing Wheel ---
+// Schedules status effect expiries on a clock that advances one tick per battle round.
+// Entries live in pooled primitive arrays and hang off one of SLOTS doubly linked lists,
+// chosen by due tick. A tick only walks the slot for the new time, so its cost depends on
+// the effects expiring (plus any entry a full lap or more away), not on how many
+// characters carry effects. Scheduling and cancelling are O(1).
+class TimingWheel {
+    // Told when an entry expires; index and effect are whatever was scheduled
+    interface Listener {
+        void expired(int index, int effect);
+    }
+
+    private static final int SLOTS = 64; // power of two; longer delays wait out whole laps
+    private static final int NONE = -1;
+
+    private final int[] heads = new int[SLOTS];
+    private Listener[] listeners = new Listener[16];
+    private int[] indexes = new int[16];
+    private byte[] effects = new byte[16];
+    private long[] due = new long[16];
+    private int[] next = new int[16];
+    private int[] prev = new int[16];
+    private int freeHead = NONE;
+    private int highWater;
+    private int size;
+    private long now;
+
+    public TimingWheel() {
+        Arrays.fill(heads, NONE);
+    }
+
+    public long now() { return now; }
+    public int size() { return size; }
+    public long dueOf(int entry) { return due[entry]; }
+
+    // Expire after delay ticks (at least 1). Returns the entry id, valid until it expires
+    // or is cancelled.
+    public int schedule(Listener listener, int index, int effect, int delay) {
+        int entry = allocate();
+        listeners[entry] = listener;
+        indexes[entry] = index;
+        effects[entry] = (byte) effect;
+        due[entry] = now + Math.max(1, delay);
+        int slot = (int) (due[entry] & (SLOTS - 1));
+        prev[entry] = NONE;
+        next[entry] = heads[slot];
+        if (heads[slot] != NONE) prev[heads[slot]] = entry;
+        heads[slot] = entry;
+        size++;
+        return entry;
+    }
+
+    public void cancel(int entry) {
+        unlink(entry);
+    }
+
+    // Advance the clock one tick and expire what is due
+    public void tick() {
+        now++;
+        int slot = (int) (now & (SLOTS - 1));
+        for (int entry = heads[slot]; entry != NONE; ) {
+            int following = next[entry];
+            if (due[entry] == now) expire(entry);
+            entry = following;
+        }
+    }
+
+    // Expire everything, e.g. when a battle ends
+    public void expireAll() {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            while (heads[slot] != NONE) {
+                expire(heads[slot]);
+            }
+        }
+    }
+
+    private void expire(int entry) {
+        Listener listener = listeners[entry];
+        int index = indexes[entry];
+        int effect = effects[entry];
+        unlink(entry);
+        listener.expired(index, effect);
+    }
+
+    private void unlink(int entry) {
+        int slot = (int) (due[entry] & (SLOTS - 1));
+        if (prev[entry] != NONE) {
+            next[prev[entry]] = next[entry];
+        } else {
+            heads[slot] = next[entry];
+        }
+        if (next[entry] != NONE) prev[next[entry]] = prev[entry];
+        listeners[entry] = null;
+        next[entry] = freeHead;
+        freeHead = entry;
+        size--;
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int entry = freeHead;
+            freeHead = next[entry];
+            return entry;
+        }
+        if (highWater == listeners.length) {
+            int capacity = listeners.length * 2;
+            listeners = Arrays.copyOf(listeners, capacity);
+            indexes = Arrays.copyOf(indexes, capacity);
+            effects = Arrays.copyOf(effects, capacity);
+            due = Arrays.copyOf(due, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+        }
+        return highWater++;
+    }
+}
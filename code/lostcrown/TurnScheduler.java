@@ -0,0 +1,218 @@
+package lostcrown;
+
+import java.util.Arrays;
+
+// --- Turn Scheduler ---
+// Initiative order for a battle. Actors are int ids with a speed: at STANDARD_SPEED an actor
+// acts once per round of ROUND_TICKS, at twice the speed twice as often. Actors due at the
+// same time act in id order, so with every speed standard the order is the classic one:
+// actor 0, then the others by id, once per round.
+//
+// Pending turns are kept as a calendar: one bucket of actor ids per due time, with the
+// buckets on an IndexedHeap by time. Whole rounds of actors usually share a time, so the
+// heap is touched once per bucket rather than once per turn. Picking the next actor is O(1)
+// within a bucket and O(log n) when a new time begins, which keeps battles with thousands of
+// combatants close to the cost of a plain array sweep. Removing or delaying an actor just
+// moves its due time; the bucket entry it leaves behind is skipped when its time comes.
+class TurnScheduler {
+    static final int STANDARD_SPEED = 100;
+    static final long ROUND_TICKS = 1_000;
+    private static final long ABSENT = -1;
+    private static final int CACHE_SLOTS = 64; // recent bucket per due time, by time % slots
+
+    private long[] due = new long[0];      // actor -> time of its next turn, or ABSENT
+    private int[] intervals = new int[0];  // actor -> ticks between turns
+    private int count;
+    private long now;
+
+    private final IndexedHeap calendar = new IndexedHeap(); // bucket -> -time
+    private int[][] bucketIds = new int[0][];
+    private int[] bucketSize = new int[0];
+    private long[] bucketTime = new long[0];
+    private boolean[] bucketSorted = new boolean[0];
+    private int[] freeBuckets = new int[0];
+    private int freeCount;
+    private int bucketCount;
+    private final int[] recent = new int[CACHE_SLOTS];
+    private int lastBucket = -1;           // where the previous turn was booked
+
+    private int[] ready = new int[0];      // the bucket(s) being worked through, by id
+    private int readySize;
+    private int cursor;
+
+    public TurnScheduler() {
+        Arrays.fill(recent, -1);
+    }
+
+    public long now() { return now; }
+    public long round() { return now / ROUND_TICKS; }
+    public int size() { return count; }
+    public boolean isEmpty() { return count == 0; }
+    public boolean contains(int id) { return id < due.length && due[id] != ABSENT; }
+
+    // Time of the actor's next turn
+    public long timeOf(int id) { return due[id]; }
+
+    // Ticks between the actor's turns at its current speed
+    public int intervalOf(int id) { return intervals[id]; }
+
+    // Ticks between turns at a speed, rounded down, at least 1
+    static int interval(int speed) {
+        if (speed <= 0) throw new IllegalArgumentException("Speed must be positive: " + speed);
+        return (int) Math.max(1, ROUND_TICKS * STANDARD_SPEED / speed);
+    }
+
+    // Add an actor whose first turn is now, after everyone already due now. Adding an actor
+    // that is already scheduled only changes its speed.
+    public void add(int id, int speed) {
+        if (id < 0) throw new IllegalArgumentException("Actor id out of range: " + id);
+        if (id >= due.length) {
+            int capacity = Math.max(id + 1, Math.max(8, due.length * 2));
+            int old = due.length;
+            due = Arrays.copyOf(due, capacity);
+            Arrays.fill(due, old, capacity, ABSENT);
+            intervals = Arrays.copyOf(intervals, capacity);
+        }
+        intervals[id] = interval(speed);
+        if (due[id] != ABSENT) return;
+        due[id] = now;
+        count++;
+        book(id);
+    }
+
+    // Takes effect from the actor's next turn on: the turn already booked keeps its time
+    public void setSpeed(int id, int speed) {
+        intervals[id] = interval(speed);
+    }
+
+    // Push the actor's next turn back by ticks; zero or negative ticks change nothing
+    public void delay(int id, long ticks) {
+        if (!contains(id) || ticks <= 0) return;
+        due[id] += ticks;
+        book(id);
+    }
+
+    public void remove(int id) {
+        if (!contains(id)) return;
+        due[id] = ABSENT;
+        count--;
+    }
+
+    // Start over at time 0 with no actors
+    public void clear() {
+        Arrays.fill(due, ABSENT);
+        count = 0;
+        now = 0;
+        while (!calendar.isEmpty()) {
+            release(calendar.poll());
+        }
+        readySize = 0;
+        cursor = 0;
+    }
+
+    // The actor whose turn it is, or -1 when none is left. Advances the clock to its turn and
+    // books the following one.
+    public int next() {
+        int id;
+        while ((id = takeReady()) < 0) {
+            if (!openNextBucket()) return -1;
+        }
+        return id;
+    }
+
+    // Like next(), but only an actor due at the current time: -1, with nothing changed, when
+    // the next turn is later. Lets a caller gather everyone acting at the same moment.
+    public int nextIfDue() {
+        int id;
+        while ((id = takeReady()) < 0) {
+            if (calendar.isEmpty() || bucketTime[calendar.peek()] != now) return -1;
+            openNextBucket();
+        }
+        return id;
+    }
+
+    private int takeReady() {
+        while (cursor < readySize) {
+            int id = ready[cursor++];
+            if (due[id] != now) continue; // removed, delayed, or a duplicate already served
+            due[id] = now + intervals[id];
+            book(id);
+            return id;
+        }
+        return -1;
+    }
+
+    // Move every bucket due at the earliest time into ready, in id order
+    private boolean openNextBucket() {
+        if (calendar.isEmpty()) return false;
+        int first = calendar.peek();
+        now = bucketTime[first];
+        readySize = 0;
+        cursor = 0;
+        boolean sorted = true;
+        int merged = 0;
+        while (!calendar.isEmpty() && bucketTime[calendar.peek()] == now) {
+            int bucket = calendar.poll();
+            int size = bucketSize[bucket];
+            if (readySize + size > ready.length) ready = Arrays.copyOf(ready, Math.max(readySize + size, ready.length * 2));
+            System.arraycopy(bucketIds[bucket], 0, ready, readySize, size);
+            readySize += size;
+            sorted &= bucketSorted[bucket];
+            merged++;
+            release(bucket);
+        }
+        if (!sorted || merged > 1) Arrays.sort(ready, 0, readySize);
+        return true;
+    }
+
+    // File the actor under its due time
+    private void book(int id) {
+        long time = due[id];
+        int bucket = lastBucket;
+        if (bucket < 0 || bucketTime[bucket] != time) {
+            int slot = (int) (time & (CACHE_SLOTS - 1));
+            bucket = recent[slot];
+            if (bucket < 0 || bucketTime[bucket] != time || !calendar.contains(bucket)) {
+                bucket = newBucket(time);
+                recent[slot] = bucket;
+            }
+            lastBucket = bucket;
+        }
+        int size = bucketSize[bucket];
+        int[] ids = bucketIds[bucket];
+        if (size == ids.length) ids = bucketIds[bucket] = Arrays.copyOf(ids, Math.max(8, size * 2));
+        if (size > 0 && ids[size - 1] > id) bucketSorted[bucket] = false;
+        ids[size] = id;
+        bucketSize[bucket] = size + 1;
+    }
+
+    private int newBucket(long time) {
+        int bucket;
+        if (freeCount > 0) {
+            bucket = freeBuckets[--freeCount];
+        } else {
+            bucket = bucketCount++;
+            if (bucket == bucketIds.length) {
+                int capacity = Math.max(8, bucket * 2);
+                bucketIds = Arrays.copyOf(bucketIds, capacity);
+                bucketSize = Arrays.copyOf(bucketSize, capacity);
+                bucketTime = Arrays.copyOf(bucketTime, capacity);
+                bucketSorted = Arrays.copyOf(bucketSorted, capacity);
+                freeBuckets = Arrays.copyOf(freeBuckets, capacity);
+            }
+            bucketIds[bucket] = new int[8];
+        }
+        bucketTime[bucket] = time;
+        bucketSize[bucket] = 0;
+        bucketSorted[bucket] = true;
+        calendar.add(bucket, -time);
+        return bucket;
+    }
+
+    // Buckets keep their arrays for reuse
+    private void release(int bucket) {
+        if (bucket == lastBucket) lastBucket = -1;
+        calendar.remove(bucket);
+        freeBuckets[freeCount++] = bucket;
+    }
+}
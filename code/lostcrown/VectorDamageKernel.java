@@ -0,0 +1,44 @@
+package lostcrown;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// DamageKernel on the JDK Vector API, SPECIES_PREFERRED lanes per step. Only touched when
+// the jdk.incubator.vector module is present. Lane counts divide 64, so once the index is a
+// multiple of the lane count a step's flags sit in one bitset word and load as a mask
+// straight from it; the unaligned head and the short tail take the scalar loop.
+final class VectorDamageKernel {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+
+    private VectorDamageKernel() { }
+
+    static int apply(int[] damage, int[] defense, long[] defending, long[] invulnerable,
+                     int[] health, int[] effective, int from, int to) {
+        int aligned = Math.min(to, (from + LANES - 1) / LANES * LANES);
+        int defeated = DamageKernel.applyScalar(damage, defense, defending, invulnerable, health, effective, from, aligned);
+        int i = aligned;
+        for (; i + LANES <= to; i += LANES) {
+            int shift = i & 63;
+            VectorMask<Integer> halve = VectorMask.fromLong(SPECIES, defending[i >>> 6] >>> shift);
+            VectorMask<Integer> blocked = VectorMask.fromLong(SPECIES, invulnerable[i >>> 6] >>> shift);
+
+            // (int) (d * 0.5) truncates toward zero, which is (d + (d >>> 31)) >> 1
+            IntVector raw = IntVector.fromArray(SPECIES, damage, i);
+            IntVector halved = raw.add(raw.lanewise(VectorOperators.LSHR, 31)).lanewise(VectorOperators.ASHR, 1);
+            IntVector hit = raw.blend(halved, halve)
+                    .sub(IntVector.fromArray(SPECIES, defense, i))
+                    .max(1)
+                    .blend(0, blocked);
+
+            IntVector before = IntVector.fromArray(SPECIES, health, i);
+            IntVector after = before.sub(hit).max(0).blend(before, blocked);
+            after.intoArray(health, i);
+            hit.intoArray(effective, i);
+            defeated += before.compare(VectorOperators.GT, 0).and(after.compare(VectorOperators.EQ, 0)).trueCount();
+        }
+        return defeated + DamageKernel.applyScalar(damage, defense, defending, invulnerable, health, effective, i, to);
+    }
+}
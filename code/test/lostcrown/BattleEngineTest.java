@@ -0,0 +1,103 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import org.junit.jupiter.api.Test;
+
+class BattleEngineTest {
+    private static final int HEALTH = 1_000_000; // monsters outlast every test
+    private static final int KNOCKOUT = 1_000_000; // one monster attack ends the battle
+
+    // Twice the speed acts twice a round, half the speed every other round, and monsters due
+    // at the same moment share a phase
+    @Test
+    void mixedSpeedsActAsOftenAsTheirSpeed() {
+        Monster[] monsters = monsters(3);
+        monsters[0].setSpeed(200);
+        monsters[2].setSpeed(50);
+        Recording ai = new Recording(14); // four rounds
+        BattleEngine engine = engine(MoveSelector.ALWAYS_ATTACK, new SplittableRandom(1), ai);
+
+        assertFalse(engine.fight(knight(new Weapon("Sword", 0, 0, "None")), monsters));
+        assertEquals(List.of(0, 1, 2, 0, 0, 1, 0, 0, 1, 2, 0, 0, 1, 0), ai.actors);
+        assertEquals(List.of(3, 1, 2, 1, 3, 1, 2, 1, 3), ai.phases);
+        assertEquals(5, engine.getLastTurnCount());
+    }
+
+    // Every other round the Knight's special is ready, and the bashed monster sits out the
+    // rest of that round
+    @Test
+    void shieldBashStaggersTheTarget() {
+        Recording ai = new Recording(8);
+        BattleEngine engine = engine(MoveSelector.SPECIAL_WHEN_READY, new SplittableRandom(1), ai);
+
+        assertFalse(engine.fight(knight(new Weapon("Sword", 0, 0, "None")), monsters(2)));
+        assertEquals(List.of(1, 0, 1, 1, 0, 1, 1, 0), ai.actors);
+    }
+
+    // The Freeze lands on the first turn, before the target has acted: its turn moves back
+    // to one round later, it then acts every other round, and once the Freeze wears off at the
+    // start of round 4 it is back to every round from its next turn
+    @Test
+    void freezeSlowsTheTargetUntilItWearsOff() {
+        long[] rolls = {0};
+        RandomGenerator firstRollLands = () -> rolls[0]++ == 0 ? 0 : -1;
+        Monster[] monsters = monsters(2);
+        Recording ai = new Recording(13);
+        BattleEngine engine = engine(MoveSelector.ALWAYS_ATTACK, firstRollLands, ai);
+
+        assertFalse(engine.fight(knight(new Weapon("Frost Brand", 0, 0.5, "Freeze")), monsters));
+        assertEquals(List.of(1, 0, 1, 1, 0, 1, 1, 0, 1, 0, 1, 0, 1), ai.actors);
+        assertFalse(monsters[0].getStatusEffects().has(StatusEffect.FROZEN));
+        assertEquals(TurnScheduler.STANDARD_SPEED, monsters[0].getCurrentSpeed());
+    }
+
+    // --- Helpers ---
+
+    private static Monster[] monsters(int count) {
+        Monster[] monsters = new Monster[count];
+        for (int i = 0; i < count; i++) monsters[i] = new Monster("Ghoul", HEALTH, KNOCKOUT);
+        return monsters;
+    }
+
+    private static PlayerCharacter knight(Weapon weapon) {
+        PlayerCharacter knight = Campaign.newCharacter(1, "Hero");
+        knight.setEquippedWeapon(weapon);
+        return knight;
+    }
+
+    private static BattleEngine engine(MoveSelector moves, RandomGenerator random, MonsterAI ai) {
+        BattleEngine engine = new BattleEngine(moves, CombatEventBus.DISABLED, random);
+        engine.setMonsterAI(ai);
+        return engine;
+    }
+
+    // Records which monster decides, and how many act in each phase. Defends for the given
+    // number of decisions, then attacks, which ends the battle.
+    private static final class Recording implements MonsterAI {
+        final List<Integer> actors = new ArrayList<>();
+        final List<Integer> phases = new ArrayList<>();
+        private final int decisions;
+
+        Recording(int decisions) {
+            this.decisions = decisions;
+        }
+
+        @Override
+        public void phaseStarted(int actors) {
+            phases.add(actors);
+        }
+
+        @Override
+        public int chooseMove(PlayerCharacter player, Monster[] monsters, LiveIndex live, int index) {
+            if (actors.size() == decisions) return BattleEngine.ATTACK;
+            actors.add(index);
+            return BattleEngine.DEFEND;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// Both delivery modes over a ring far smaller than what goes through it: every event
+// arrives once and in order, each flush ends a batch right after the events published
+// before it, and close() hands over whatever is left
+class CombatEventBusTest {
+    private static final int BATCH_END = -1;
+
+    // Event amounts plus BATCH_END markers, in the order the sink saw them
+    private static final class Recorder implements CombatEventSink, AutoCloseable {
+        final List<Integer> seen = new ArrayList<>();
+        Thread thread;
+        boolean closed;
+
+        @Override
+        public void accept(CombatEvent event) {
+            thread = Thread.currentThread();
+            seen.add(event.getAmount());
+        }
+
+        @Override
+        public void endOfBatch() {
+            seen.add(BATCH_END);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void flushDeliversEverythingPublishedBeforeIt(boolean async) {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            Recorder sink = new Recorder();
+            CombatEventBus bus = new CombatEventBus(sink, 8, async);
+            List<Integer> expected = new ArrayList<>();
+            int next = 0;
+            for (int batch = 0; batch < 2000; batch++) {
+                for (int k = batch % 37; k > 0; k--) { // empty, partial and ring-overflowing batches
+                    bus.publish(CombatEvent.Type.DAMAGE_DEALT, "Ghoul", next, 0);
+                    expected.add(next++);
+                }
+                bus.flush();
+                expected.add(BATCH_END);
+                assertEquals(expected, sink.seen, "after batch " + batch);
+            }
+            bus.close();
+            assertTrue(sink.closed);
+            assertEquals(async, sink.thread != Thread.currentThread());
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void closeDrainsUnflushedEvents(boolean async) {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            Recorder sink = new Recorder();
+            CombatEventBus bus = new CombatEventBus(sink, 16, async);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                bus.publish(CombatEvent.Type.HEAL, "Hero", i, 0);
+                expected.add(i);
+            }
+            bus.close();
+            expected.add(BATCH_END);
+            assertEquals(expected, sink.seen);
+            assertTrue(sink.closed);
+            bus.close(); // a second close is a no-op
+            assertEquals(expected, sink.seen);
+        });
+    }
+
+    // The producer learns about a broken sink instead of waiting on a dead consumer
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void sinkFailureReachesTheProducer(boolean async) {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            CombatEventSink failing = event -> {
+                if (event.getAmount() == 5) throw new IllegalArgumentException("disk full");
+            };
+            CombatEventBus bus = new CombatEventBus(failing, 4, async);
+            RuntimeException thrown = assertThrows(RuntimeException.class, () -> {
+                for (int i = 0; i < 100; i++) {
+                    bus.publish(CombatEvent.Type.DAMAGE_DEALT, "Ghoul", i, 0);
+                }
+                bus.flush();
+            });
+            Throwable cause = async ? thrown.getCause() : thrown;
+            assertEquals("disk full", cause.getMessage());
+        });
+    }
+}
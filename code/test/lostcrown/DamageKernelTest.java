@@ -0,0 +1,143 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+// Every kernel path has to give each target exactly what takeDamage one by one would, over
+// the whole int range (overflow included) and over ranges that start and end mid-vector
+class DamageKernelTest {
+    private static final int TARGETS = 1000 + 37; // not a multiple of any lane count
+    private static final int ROUNDS = 2000;
+    private static final int UNTOUCHED = 0xDEAD;
+
+    private interface Kernel {
+        int apply(int[] damage, int[] defense, long[] defending, long[] invulnerable,
+                  int[] health, int[] effective, int from, int to);
+    }
+
+    @Test
+    void scalarMatchesTakeDamage() {
+        check(DamageKernel::applyScalar, 1);
+    }
+
+    @Test
+    void vectorMatchesTakeDamage() {
+        assertTrue(DamageKernel.VECTORIZED, "tests run with --add-modules jdk.incubator.vector");
+        check(VectorDamageKernel::apply, 2);
+    }
+
+    @Test
+    void hordeBatchMatchesOneByOne() {
+        SplittableRandom random = new SplittableRandom(3);
+        int[] damage = new int[TARGETS];
+        int[] effective = new int[TARGETS];
+        for (int round = 0; round < ROUNDS / 10; round++) {
+            long seed = random.nextLong();
+            Horde batch = randomHorde(new SplittableRandom(seed));
+            Horde oneByOne = randomHorde(new SplittableRandom(seed));
+            int from = random.nextInt(TARGETS + 1);
+            int to = from + random.nextInt(TARGETS - from + 1);
+            for (int i = 0; i < TARGETS; i++) damage[i] = anyInt(random);
+            Arrays.fill(effective, UNTOUCHED);
+
+            batch.takeDamage(from, to, damage, effective);
+            for (int i = from; i < to; i++) {
+                assertEquals(oneByOne.takeDamage(i, damage[i]), effective[i], "damage dealt to " + i);
+            }
+            assertEquals(oneByOne.getAliveCount(), batch.getAliveCount());
+            for (int i = 0; i < TARGETS; i++) {
+                assertEquals(oneByOne.getHealth(i), batch.getHealth(i), "health of " + i);
+                if (i < from || i >= to) assertEquals(UNTOUCHED, effective[i]);
+            }
+        }
+    }
+
+    private static void check(Kernel kernel, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] damage = new int[TARGETS];
+        int[] defense = new int[TARGETS];
+        long[] defending = new long[(TARGETS + 63) >>> 6];
+        long[] invulnerable = new long[(TARGETS + 63) >>> 6];
+        int[] health = new int[TARGETS];
+        int[] effective = new int[TARGETS];
+        int[] expectedHealth = new int[TARGETS];
+        int[] expectedEffective = new int[TARGETS];
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < TARGETS; i++) {
+                damage[i] = anyInt(random);
+                defense[i] = random.nextInt(4) == 0 ? anyInt(random) : Horde.MONSTER_DEFENSE;
+                health[i] = anyInt(random);
+            }
+            for (int w = 0; w < defending.length; w++) {
+                defending[w] = random.nextLong();
+                invulnerable[w] = random.nextLong() & random.nextLong(); // a quarter blocked
+            }
+            int from = random.nextInt(TARGETS + 1);
+            int to = from + random.nextInt(TARGETS - from + 1);
+            Arrays.fill(effective, UNTOUCHED);
+            System.arraycopy(health, 0, expectedHealth, 0, TARGETS);
+            System.arraycopy(effective, 0, expectedEffective, 0, TARGETS);
+
+            int expectedDefeated = 0;
+            for (int i = from; i < to; i++) {
+                if (bit(invulnerable, i)) {
+                    expectedEffective[i] = 0;
+                    continue;
+                }
+                // AbstractCharacter.takeDamage, step by step
+                double reductionFactor = bit(defending, i) ? 0.5 : 1.0;
+                int effectiveDamage = (int) (damage[i] * reductionFactor) - defense[i];
+                if (effectiveDamage < 1) effectiveDamage = 1;
+                boolean wasAlive = expectedHealth[i] > 0;
+                expectedHealth[i] -= effectiveDamage;
+                if (expectedHealth[i] < 0) expectedHealth[i] = 0;
+                if (wasAlive && expectedHealth[i] == 0) expectedDefeated++;
+                expectedEffective[i] = effectiveDamage;
+            }
+
+            int defeated = kernel.apply(damage, defense, defending, invulnerable, health, effective, from, to);
+            String range = "round " + round + ", targets " + from + ".." + to;
+            assertEquals(expectedDefeated, defeated, range);
+            assertArrayEquals(expectedHealth, health, range);
+            assertArrayEquals(expectedEffective, effective, range);
+        }
+    }
+
+    // Mostly the edges: MIN_VALUE, MAX_VALUE, small negatives (odd ones halve toward zero)
+    private static int anyInt(SplittableRandom random) {
+        switch (random.nextInt(6)) {
+            case 0: return Integer.MIN_VALUE;
+            case 1: return Integer.MAX_VALUE;
+            case 2: return -random.nextInt(100);
+            case 3: return random.nextInt(300);
+            default: return random.nextInt();
+        }
+    }
+
+    // Live, dead and barely alive members, some defending or invulnerable
+    private static Horde randomHorde(SplittableRandom random) {
+        Monster[] monsters = new Monster[TARGETS];
+        for (int i = 0; i < TARGETS; i++) {
+            monsters[i] = new Monster("Ghoul", 1 + random.nextInt(1000), 50);
+            monsters[i].setHealth(random.nextInt(4) == 0 ? random.nextInt(3) : random.nextInt(monsters[i].getMaxHealth() + 1));
+        }
+        Horde horde = Horde.of(monsters);
+        for (int i = 0; i < TARGETS; i++) {
+            switch (random.nextInt(4)) {
+                case 0: horde.defend(i); break;
+                case 1: horde.applyEffect(i, StatusEffect.INVULNERABLE, 1); break;
+                default: break;
+            }
+        }
+        return horde;
+    }
+
+    private static boolean bit(long[] bits, int i) {
+        return (bits[i >>> 6] & (1L << i)) != 0;
+    }
+}
@@ -0,0 +1,49 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class DifficultyTunerTest {
+    private static final DifficultyTable EASY = new DifficultyTable(new int[]{60, 20, 30, 5, 3, 7, 900, 90});
+    private static final int CAMPAIGNS = BalanceSimulator.LEAF_SIZE;
+    private static final long SEED = 11;
+
+    @Test
+    void evaluatesTheCandidateWithoutTouchingOtherCampaigns() {
+        ForkJoinPool tunerPool = new ForkJoinPool(2);
+        ForkJoinPool otherPool = new ForkJoinPool(2);
+        try {
+            BalanceSimulator other = new BalanceSimulator(SimulatedPlayer.CASUAL, SEED, otherPool);
+            BalanceSimulator.Stats alone = other.run(1, CAMPAIGNS);
+            DifficultyTable before = DifficultyTable.current();
+
+            // A candidate evaluated while another simulation plays the default table
+            DifficultyTuner tuner = new DifficultyTuner(() -> SimulatedPlayer.CASUAL, SEED, tunerPool, DifficultyTuner.linearTargets(0.99, 0.70));
+            tuner.setMaxCampaigns(CAMPAIGNS);
+            CompletableFuture<DifficultyTuner.Evaluation> easy = CompletableFuture.supplyAsync(() -> tuner.evaluate(EASY, Double.POSITIVE_INFINITY));
+            BalanceSimulator.Stats concurrent = other.run(1, CAMPAIGNS);
+            DifficultyTuner.Evaluation evaluation = easy.join();
+
+            assertEquals(alone.wins, concurrent.wins);
+            assertArrayEquals(alone.deathsByLevel, concurrent.deathsByLevel);
+            assertSame(before, DifficultyTable.current());
+
+            BalanceSimulator reference = new BalanceSimulator(SimulatedPlayer.CASUAL, SEED, otherPool);
+            reference.setDifficulty(EASY);
+            for (int choice = 1; choice <= BalanceSimulator.CLASS_NAMES.length; choice++) {
+                BalanceSimulator.Stats expected = reference.run(choice, 0, (int) evaluation.campaigns);
+                assertEquals(expected.wins, evaluation.won[choice][Campaign.MAX_LEVELS]);
+            }
+            assertNotEquals(alone.wins, evaluation.won[1][Campaign.MAX_LEVELS]);
+        } finally {
+            tunerPool.shutdown();
+            otherPool.shutdown();
+        }
+    }
+}
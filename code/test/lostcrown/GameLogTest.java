@@ -0,0 +1,180 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameLogTest {
+    private static final long SEED = 42;
+    private static final int CRASH_AFTER = 40; // input lines: partway into a later level's battle
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void tornLastFrameIsDropped() throws IOException {
+        Path file = directory.resolve("torn.log");
+        logMoves(file, 1, 5);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        try (GameLog log = new GameLog(file)) {
+            assertEquals(1, log.getRecoveredRuns());
+            assertEquals(FRAME_BYTES - 3, log.getDiscardedBytes());
+            assertEquals(List.of(1, 2, 3, 4), replayMoves(log.session(1)));
+        }
+    }
+
+    @Test
+    void corruptLastFrameIsDropped() throws IOException {
+        Path file = directory.resolve("corrupt.log");
+        logMoves(file, 1, 5);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x10; // the last move's payload: the CRC no longer matches
+        Files.write(file, bytes);
+
+        try (GameLog log = new GameLog(file)) {
+            assertEquals(FRAME_BYTES, log.getDiscardedBytes());
+            assertEquals(List.of(1, 2, 3, 4), replayMoves(log.session(1)));
+        }
+        // Recovery rewrote the file without the bad frame
+        try (GameLog log = new GameLog(file)) {
+            assertEquals(0, log.getDiscardedBytes());
+            assertEquals(List.of(1, 2, 3, 4), replayMoves(log.session(1)));
+        }
+    }
+
+    // A game cut off in the middle of a battle and resumed from the log plays on exactly as
+    // if it had never stopped
+    @Test
+    void midBattleRecoveryMatchesAnUninterruptedRun() throws IOException {
+        String uninterrupted = play(directory.resolve("whole.log"), input(false, 2_000));
+
+        Path file = directory.resolve("crashed.log");
+        play(file, input(false, CRASH_AFTER));
+        int level;
+        try (GameLog log = new GameLog(file)) {
+            GameLog.Session session = log.session(FinalProjectGame.LOCAL_SESSION);
+            level = session.load().getLevel();
+            session.replayFromSnapshot();
+            // Declined loot is stored, so a later level starts by keeping the current gear
+            assertTrue(level > 1, "the crash did not land in a later level");
+            assertEquals(-1, session.nextInt(ReplayJournal.STORED_WEAPON));
+            assertEquals(-1, session.nextInt(ReplayJournal.STORED_ARMOR));
+            assertEquals(1, session.nextInt(ReplayJournal.MOVE), "the crash did not land in a battle");
+        }
+        String resumed = play(file, input(true, 2_000));
+
+        // Everything after the interrupted level is played live in both runs
+        String next = "--- Entering Level " + (level + 1) + " ";
+        assertTrue(uninterrupted.contains(next), "the run ends at level " + level);
+        assertTrue(resumed.contains("Resuming at Level " + level + "."));
+        String ending = uninterrupted.substring(uninterrupted.indexOf(next));
+        assertTrue(resumed.endsWith(ending), "resumed run diverged:\n" + resumed.substring(Math.max(0, resumed.indexOf(next))));
+    }
+
+    // Runs finishing while others keep playing make most of the log dead; it rolls over to a
+    // file with just the live tails, which a restart recovers unchanged
+    @Test
+    void compactionKeepsEveryLiveTail() throws Exception {
+        Path file = directory.resolve("busy.log");
+        int sessions = 4;
+        List<List<Integer>> expected = new ArrayList<>();
+        try (GameLog log = new GameLog(file)) {
+            log.setCompactThreshold(4 * 1024);
+            List<Thread> threads = new ArrayList<>();
+            for (int s = 0; s < sessions; s++) {
+                List<Integer> moves = new ArrayList<>();
+                expected.add(moves);
+                GameLog.Session session = log.session(s);
+                long seed = s;
+                threads.add(new Thread(() -> playRuns(session, new Random(seed), moves)));
+            }
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) thread.join();
+
+            assertTrue(log.getCompactions() > 0, "the log never rolled");
+            assertTrue(Files.size(file) < 16 * 1024, "log is " + Files.size(file) + " bytes");
+        }
+        try (GameLog log = new GameLog(file)) {
+            assertEquals(0, log.getDiscardedBytes());
+            assertEquals(sessions, log.getRecoveredRuns());
+            for (int s = 0; s < sessions; s++) {
+                assertEquals(expected.get(s), replayMoves(log.session(s)));
+            }
+        }
+    }
+
+    // --- Helpers ---
+
+    private static final int FRAME_BYTES = 8 + 9 + 4; // header, session code and tag, an int
+
+    // One run with moves 1..count after its snapshot
+    private static void logMoves(Path file, long code, int count) throws IOException {
+        try (GameLog log = new GameLog(file)) {
+            GameLog.Session session = log.session(code);
+            session.save(Campaign.newCharacter(1, "Logged"), 1, 7, 0);
+            for (int move = 1; move <= count; move++) session.recordInt(ReplayJournal.MOVE, move);
+        }
+    }
+
+    private static List<Integer> replayMoves(GameLog.Session session) {
+        List<Integer> moves = new ArrayList<>();
+        session.replayFromSnapshot();
+        while (session.replaying()) moves.add(session.nextInt(ReplayJournal.MOVE));
+        return moves;
+    }
+
+    // Many short runs, each started with a snapshot and ended with END, and one left unfinished
+    // whose moves are kept
+    private static void playRuns(GameLog.Session session, Random random, List<Integer> unfinished) {
+        PlayerCharacter player = Campaign.newCharacter(1, "Busy");
+        for (int run = 0; run < 100; run++) {
+            session.save(player, 1, random.nextLong(), 0);
+            for (int turn = 0; turn < 10; turn++) session.recordInt(ReplayJournal.MOVE, random.nextInt(4) + 1);
+            session.clear();
+        }
+        session.save(player, 3, random.nextLong(), 0);
+        for (int turn = 0; turn < 10; turn++) {
+            int move = random.nextInt(4) + 1;
+            session.recordInt(ReplayJournal.MOVE, move);
+            unfinished.add(move);
+        }
+    }
+
+    // Knight named Hero attacking every turn; every other prompt reads "1" as well, which
+    // declines gear, misses quizzes and ends the game at the retry prompt
+    private static String input(boolean resume, int lines) {
+        StringBuilder input = new StringBuilder(resume ? "Y\n" : "1\nHero\n");
+        for (int i = 0; i < lines; i++) input.append("1\n");
+        return input.toString();
+    }
+
+    // Plays one session of the console game against the log; the input running out stands in
+    // for a crash, since the run is never cleared from the log
+    private static String play(Path file, String input) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(output, true, StandardCharsets.UTF_8);
+        try (GameLog log = new GameLog(file);
+             FinalProjectGame game = new FinalProjectGame(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                     out, new ConsoleCombatRenderer(out), CombatEventBus.DEFAULT_CAPACITY)) {
+            game.setSeed(SEED);
+            game.setGameLog(log.session(FinalProjectGame.LOCAL_SESSION));
+            game.startGame();
+        }
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,150 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class HordeTest {
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutDown() {
+        POOL.shutdown();
+    }
+
+    // A battle hands the horde back with no status clock; the survivors have to keep working
+    // on their own clock afterwards, and in the next battle
+    @Test
+    void survivorsCanBeReusedAfterABattle() {
+        Horde horde = Horde.uniform("Ghoul", 50, 10_000, 30);
+        BattleEngine engine = new BattleEngine(MoveSelector.ALWAYS_ATTACK, CombatEventBus.DISABLED, new SplittableRandom(1));
+        engine.setHordePool(null);
+        assertFalse(engine.fight(Campaign.newCharacter(1, "Hero"), horde));
+
+        horde.endTurnAll();
+        assertEquals(horde.getSpecialCooldown(0), horde.getSpecialReadyIn(0));
+
+        horde.setSpecialCooldown(0, 0);
+        horde.applyEffect(0, StatusEffect.STUNNED, 2);
+        assertTrue(horde.isStunned(0));
+        assertEquals(2, horde.getSpecialReadyIn(0));
+        horde.endTurnAll();
+        assertEquals(1, horde.getSpecialReadyIn(0));
+        horde.endTurnAll();
+        assertFalse(horde.isStunned(0));
+        assertEquals(0, horde.getSpecialReadyIn(0));
+
+        horde.applyEffect(1, StatusEffect.FROZEN, 3);
+        assertFalse(engine.fight(Campaign.newCharacter(1, "Hero"), horde));
+        assertFalse(horde.isStunned(1));
+        horde.endTurnAll();
+    }
+
+    // actAll against the one-by-one monster phase on twin hordes: same members acting, same
+    // stop when the target falls (or none when it survives), same state left behind
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 4, 5, 6, 7, 8})
+    void parallelPhaseMatchesOneByOne(int seed) {
+        int size = 12_000;
+        Horde parallel = randomHorde(new SplittableRandom(seed), size);
+        Horde sequential = randomHorde(new SplittableRandom(seed), size);
+        SplittableRandom random = new SplittableRandom(-seed);
+        int[] members = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (random.nextInt(5) > 0) members[count++] = i;
+        }
+        int stance = random.nextInt(3);
+        int health = 1 + random.nextInt(seed % 4 == 0 ? 10_000_000 : 300_000); // some survive the phase
+        PlayerCharacter parallelTarget = target(stance, health);
+        PlayerCharacter sequentialTarget = target(stance, health);
+
+        int acted = parallel.actAll(members, count, parallelTarget, POOL);
+        int expected = count;
+        for (int k = 0; k < count; k++) {
+            int i = members[k];
+            if (sequential.isStaggered(i)) {
+                // loses the action; the turn still ends
+            } else if (sequential.wantsSpecial(i)) {
+                sequential.specialAttack(i, sequentialTarget);
+            } else {
+                sequential.defend(i);
+            }
+            sequential.endTurn(i);
+            if (sequentialTarget.isDefeated()) {
+                expected = k + 1;
+                break;
+            }
+        }
+
+        assertEquals(expected, acted);
+        assertEquals(sequentialTarget.getHealth(), parallelTarget.getHealth());
+        for (int i = 0; i < size; i++) {
+            assertEquals(sequential.getHealth(i), parallel.getHealth(i), "health of " + i);
+            assertEquals(sequential.getSpecialCooldown(i), parallel.getSpecialCooldown(i), "cooldown of " + i);
+            assertEquals(sequential.isDefending(i), parallel.isDefending(i), "stance of " + i);
+            assertEquals(sequential.isStunned(i), parallel.isStunned(i), "stun of " + i);
+        }
+    }
+
+    // Whole battles with the monster phases split across a pool and run one by one; the
+    // Knight's Shield Bash staggers a member now and then
+    @Test
+    void parallelBattleMatchesOneByOne() {
+        boolean[] won = new boolean[2];
+        int[] turns = new int[2];
+        Horde[] hordes = new Horde[2];
+        for (int run = 0; run < 2; run++) {
+            hordes[run] = randomHorde(new SplittableRandom(99), 10_000);
+            BattleEngine engine = new BattleEngine(MoveSelector.SPECIAL_WHEN_READY, CombatEventBus.DISABLED, new SplittableRandom(5));
+            engine.setHordePool(run == 0 ? POOL : null);
+            won[run] = engine.fight(target(0, 400_000), hordes[run]); // several phases, the last one cut short
+            turns[run] = engine.getLastTurnCount();
+        }
+        assertTrue(turns[0] > 1);
+        assertEquals(won[1], won[0]);
+        assertEquals(turns[1], turns[0]);
+        for (int i = 0; i < hordes[0].size(); i++) {
+            assertEquals(hordes[1].getHealth(i), hordes[0].getHealth(i), "health of " + i);
+            assertEquals(hordes[1].getSpecialCooldown(i), hordes[0].getSpecialCooldown(i), "cooldown of " + i);
+        }
+    }
+
+    // Mixed health (above and below half), cooldowns, stuns, staggers and stances
+    private static Horde randomHorde(SplittableRandom random, int size) {
+        Monster[] monsters = new Monster[size];
+        for (int i = 0; i < size; i++) {
+            monsters[i] = new Monster("Ghoul", 100 + random.nextInt(900), 10 + random.nextInt(90));
+            monsters[i].setHealth(1 + random.nextInt(monsters[i].getMaxHealth()));
+            monsters[i].setSpecialCooldown(random.nextInt(Horde.SPECIAL_COOLDOWN_TIME + 1));
+        }
+        Horde horde = Horde.of(monsters);
+        for (int i = 0; i < size; i++) {
+            switch (random.nextInt(8)) {
+                case 0: horde.applyEffect(i, StatusEffect.STUNNED, 1 + random.nextInt(3)); break;
+                case 1: horde.defend(i); break;
+                case 2: horde.applyEffect(i, StatusEffect.INVULNERABLE, 1); break;
+                case 3: horde.applyEffect(i, StatusEffect.STAGGERED, 1); break;
+                default: break;
+            }
+        }
+        return horde;
+    }
+
+    // stance: 0 none, 1 defending, 2 invulnerable
+    private static PlayerCharacter target(int stance, int health) {
+        PlayerCharacter player = Campaign.newCharacter(1, "Hero");
+        player.setMaxHealth(Integer.MAX_VALUE);
+        player.setHealth(health);
+        if (stance == 1) player.defend();
+        if (stance == 2) player.applyEffect(StatusEffect.INVULNERABLE, 1);
+        return player;
+    }
+}
@@ -0,0 +1,93 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+import org.junit.jupiter.api.Test;
+
+class InventoryTest {
+    private static final int OPERATIONS = 300_000;
+    private static final int MAX_ITEMS = 64;
+
+    // Random adds and removes, with every query checked against a sort of the live items
+    @Test
+    void matchesBruteForceModel() {
+        SplittableRandom random = new SplittableRandom(12);
+        Inventory inventory = new Inventory();
+        TreeMap<Integer, Long> weapons = new TreeMap<>(); // slot -> item
+        TreeMap<Integer, Long> armor = new TreeMap<>();
+
+        for (int op = 0; op < OPERATIONS; op++) {
+            int size = weapons.size() + armor.size();
+            if (size > 0 && random.nextInt(MAX_ITEMS) < size) {
+                List<Integer> slots = new ArrayList<>(weapons.keySet());
+                slots.addAll(armor.keySet());
+                int slot = slots.get(random.nextInt(slots.size()));
+                Long expected = weapons.containsKey(slot) ? weapons.remove(slot) : armor.remove(slot);
+                assertEquals(expected, inventory.remove(slot));
+            } else if (random.nextBoolean()) {
+                long item = ItemCatalog.weapon(1 + random.nextInt(80), random.nextInt(-3, 12), random.nextInt(4) * 0.05, random.nextInt(3));
+                weapons.put(inventory.addWeapon(item), item);
+            } else {
+                long item = ItemCatalog.armor(1 + random.nextInt(48), random.nextInt(-3, 12));
+                armor.put(inventory.addArmor(item), item);
+            }
+            check(inventory, weapons, armor, random);
+        }
+    }
+
+    private static void check(Inventory inventory, TreeMap<Integer, Long> weapons, TreeMap<Integer, Long> armor, SplittableRandom random) {
+        assertEquals(weapons.size(), inventory.getWeaponCount());
+        assertEquals(armor.size(), inventory.getArmorCount());
+        int k = 1 + random.nextInt(6);
+
+        int[] byAttack = ranked(weapons, ItemCatalog::modifier);
+        int[] byDefense = ranked(armor, ItemCatalog::modifier);
+        assertEquals(byAttack.length > 0 ? byAttack[0] : -1, inventory.bestWeapon());
+        assertEquals(byDefense.length > 0 ? byDefense[0] : -1, inventory.bestArmor());
+        assertArrayEquals(Arrays.copyOf(byAttack, Math.min(k, byAttack.length)), top(k, inventory::topWeapons));
+        assertArrayEquals(Arrays.copyOf(byDefense, Math.min(k, byDefense.length)), top(k, inventory::topArmor));
+
+        for (int effect = ItemCatalog.EFFECT_STUN; effect <= ItemCatalog.EFFECT_FREEZE; effect++) {
+            TreeMap<Integer, Long> withEffect = new TreeMap<>();
+            for (var entry : weapons.entrySet()) {
+                if (ItemCatalog.effect(entry.getValue()) == effect) withEffect.put(entry.getKey(), entry.getValue());
+            }
+            int[] byChance = ranked(withEffect, ItemCatalog::chanceUnits);
+            int kind = effect;
+            assertArrayEquals(Arrays.copyOf(byChance, Math.min(k, byChance.length)), top(k, slots -> inventory.topWeaponsWithEffect(kind, slots)));
+
+            // Chances compare as stored, so a weapon rolled at exactly minChance is not above it
+            double minChance = random.nextInt(4) * 0.05;
+            int[] expected = withEffect.entrySet().stream()
+                    .filter(entry -> ItemCatalog.chanceUnits(entry.getValue()) > ItemCatalog.toChanceUnits(minChance))
+                    .mapToInt(entry -> entry.getKey()).toArray();
+            List<Integer> visited = new ArrayList<>();
+            inventory.forEachWeaponWithEffectAbove(effect, minChance, visited::add);
+            assertArrayEquals(expected, visited.stream().mapToInt(Integer::intValue).sorted().toArray());
+        }
+    }
+
+    // Slots by value, larger first, then lower slot first
+    private static int[] ranked(TreeMap<Integer, Long> items, ToLongFunction<Long> value) {
+        return items.keySet().stream()
+                .sorted(Comparator.comparingLong((Integer slot) -> -value.applyAsLong(items.get(slot))).thenComparingInt(slot -> slot))
+                .mapToInt(Integer::intValue).toArray();
+    }
+
+    private interface TopQuery {
+        int fill(int[] slots);
+    }
+
+    private static int[] top(int k, TopQuery query) {
+        int[] slots = new int[k];
+        return Arrays.copyOf(slots, query.fill(slots));
+    }
+}
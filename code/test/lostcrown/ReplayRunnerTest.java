@@ -0,0 +1,114 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReplayRunnerTest {
+    // Far off DEFAULT, so the run only replays with the rosters it was played against
+    private static final DifficultyTable EASY = new DifficultyTable(new int[]{60, 20, 30, 5, 3, 7, 900, 90});
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysWithTheRecordedDifficultyTable() throws IOException {
+        Path file = directory.resolve("easy.lcj");
+        record(file, 42, EASY, 5, SimulatedPlayer.EXPERT);
+
+        try (ReplayJournal.Reader reader = ReplayJournal.Reader.open(file)) {
+            assertEquals(ReplayJournal.VERSION, reader.getVersion());
+            assertEquals(EASY, reader.getDifficulty());
+        }
+        DifficultyTable before = DifficultyTable.current();
+        assertTrue(ReplayRunner.replay(file, CombatEventBus.DISABLED, DifficultyTable.DEFAULT));
+        assertSame(before, DifficultyTable.current());
+    }
+
+    // The optimizer goes back to stored gear when it suits a later roster better
+    @Test
+    void replaysGearEquippedFromTheInventory() throws IOException {
+        Path file = directory.resolve("optimizer.lcj");
+        Recording recording = record(file, 0, DifficultyTable.DEFAULT, 1, SimulatedPlayer.OPTIMIZER);
+        assertTrue(recording.storedEquips > 0, "the run never equipped stored gear");
+        assertTrue(ReplayRunner.replay(file, CombatEventBus.DISABLED, DifficultyTable.DEFAULT));
+    }
+
+    // One run of the policy under the table, journaled the way FinalProjectGame does it
+    private static Recording record(Path file, long seed, DifficultyTable difficulty, int classChoice, CampaignPlayer policy) throws IOException {
+        PlayerCharacter player = Campaign.newCharacter(classChoice, "Recorder");
+        try (ReplayJournal.Writer journal = ReplayJournal.Writer.create(file, seed, difficulty)) {
+            journal.recordInt(ReplayJournal.CLASS_CHOICE, classChoice);
+            journal.recordString(ReplayJournal.NAME, player.getName());
+            Recording recording = new Recording(policy, journal);
+            int result = new Campaign(recording, CombatEventBus.DISABLED, new RandomStreams(seed), difficulty).run(player);
+            journal.finish(result, player.getHealth());
+            return recording;
+        }
+    }
+
+    private static final class Recording implements CampaignPlayer {
+        private final CampaignPlayer player;
+        private final ReplayJournal.Writer journal;
+        int storedEquips;
+
+        Recording(CampaignPlayer player, ReplayJournal.Writer journal) {
+            this.player = player;
+            this.journal = journal;
+        }
+
+        @Override
+        public int chooseMove(PlayerCharacter character, Monster target) {
+            int move = player.chooseMove(character, target);
+            journal.recordInt(ReplayJournal.MOVE, move);
+            return move;
+        }
+
+        @Override
+        public void battleStarted(PlayerCharacter character, Monster[] monsters) {
+            player.battleStarted(character, monsters);
+        }
+
+        @Override
+        public boolean equipWeapon(int nextLevel, DifficultyTable difficulty, PlayerCharacter character, Weapon found) {
+            boolean equip = player.equipWeapon(nextLevel, difficulty, character, found);
+            journal.recordBoolean(ReplayJournal.EQUIP_WEAPON, equip);
+            return equip;
+        }
+
+        @Override
+        public boolean equipArmor(int nextLevel, DifficultyTable difficulty, PlayerCharacter character, Armor found) {
+            boolean equip = player.equipArmor(nextLevel, difficulty, character, found);
+            journal.recordBoolean(ReplayJournal.EQUIP_ARMOR, equip);
+            return equip;
+        }
+
+        @Override
+        public int storedWeapon(int level, DifficultyTable difficulty, PlayerCharacter character) {
+            int slot = player.storedWeapon(level, difficulty, character);
+            journal.recordInt(ReplayJournal.STORED_WEAPON, slot);
+            if (slot >= 0) storedEquips++;
+            return slot;
+        }
+
+        @Override
+        public int storedArmor(int level, DifficultyTable difficulty, PlayerCharacter character) {
+            int slot = player.storedArmor(level, difficulty, character);
+            journal.recordInt(ReplayJournal.STORED_ARMOR, slot);
+            if (slot >= 0) storedEquips++;
+            return slot;
+        }
+
+        @Override
+        public String answerQuiz(int level, String question) {
+            String answer = player.answerQuiz(level, question);
+            journal.recordString(ReplayJournal.QUIZ_ANSWER, answer);
+            return answer;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SaveGameTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotKeepsThePlayTime() {
+        ByteBuffer slot = ByteBuffer.allocate(SaveGame.SLOT_SIZE);
+        SaveGame.write(slot, 0, Campaign.newCharacter(2, "Saved"), 7, 42, 123_456, 1);
+        assertTrue(SaveGame.isValid(slot, 0));
+        SaveGame.Snapshot snapshot = SaveGame.read(slot, 0);
+        assertEquals(7, snapshot.getLevel());
+        assertEquals(42, snapshot.getRunSeed());
+        assertEquals(123_456, snapshot.getPlayedMillis());
+    }
+
+    // A version 2 slot is the version 3 layout cut before the play time
+    @Test
+    void version2SavesHaveNoPlayTime() {
+        ByteBuffer slot = ByteBuffer.allocate(SaveGame.SLOT_SIZE);
+        SaveGame.write(slot, 0, Campaign.newCharacter(2, "Saved"), 7, 42, 123_456, 1);
+        slot.putShort(4, (short) 2);
+        CRC32 crc = new CRC32();
+        crc.update(slot.slice(4, 216 - 4));
+        slot.putInt(216, (int) crc.getValue());
+        assertTrue(SaveGame.isValid(slot, 0));
+        assertEquals(-1, SaveGame.read(slot, 0).getPlayedMillis());
+    }
+
+    @Test
+    void inventorySurvivesASave() throws IOException {
+        PlayerCharacter hero = Campaign.newCharacter(1, "Packer");
+        Inventory packed = hero.getInventory();
+        packed.addWeapon(ItemCatalog.weapon(3, 12, 0.25, ItemCatalog.EFFECT_STUN));
+        packed.addArmor(ItemCatalog.armor(5, 9));
+        int removed = packed.addWeapon(ItemCatalog.weapon(4, 30, 0, ItemCatalog.EFFECT_NONE));
+        packed.addWeapon(ItemCatalog.weapon(7, 12, 0.1, ItemCatalog.EFFECT_FREEZE));
+        packed.remove(removed); // its slot is reused by the next item
+        packed.addArmor(ItemCatalog.armor(2, 14));
+
+        Path file = directory.resolve("inventory.sav");
+        try (SaveGame saveGame = new SaveGame(file)) {
+            saveGame.save(hero, 4, 42, 0);
+        }
+        try (SaveGame saveGame = new SaveGame(file)) {
+            Inventory loaded = saveGame.load().getPlayer().getInventory();
+            assertEquals(2, loaded.getWeaponCount());
+            assertEquals(2, loaded.getArmorCount());
+            // Equal attack still ranks the weapon stored first ahead
+            assertEquals(packed.getItem(packed.bestWeapon()), loaded.getItem(loaded.bestWeapon()));
+            assertEquals(packed.getItem(packed.bestArmor()), loaded.getItem(loaded.bestArmor()));
+            int[] freeze = new int[1];
+            assertEquals(1, loaded.topWeaponsWithEffect(ItemCatalog.EFFECT_FREEZE, freeze));
+            assertEquals(ItemCatalog.weapon(7, 12, 0.1, ItemCatalog.EFFECT_FREEZE), loaded.getItem(freeze[0]));
+        }
+    }
+
+    // A file of two 256-byte slots resumes from its newer one and is saved in the new layout
+    @Test
+    void legacySaveFileIsConverted() throws IOException {
+        Path file = directory.resolve("legacy.sav");
+        ByteBuffer legacy = ByteBuffer.allocate(2 * SaveGame.LEGACY_SLOT_SIZE);
+        legacy.put(legacySlot(Campaign.newCharacter(3, "Newer"), 6, 2));
+        legacy.put(legacySlot(Campaign.newCharacter(3, "Older"), 5, 1));
+        Files.write(file, legacy.array());
+
+        try (SaveGame saveGame = new SaveGame(file)) {
+            SaveGame.Snapshot snapshot = saveGame.load();
+            assertEquals("Newer", snapshot.getPlayer().getName());
+            assertEquals(6, snapshot.getLevel());
+            assertEquals(123_456, snapshot.getPlayedMillis());
+            saveGame.save(snapshot.getPlayer(), 7, 42, 0);
+        }
+        assertEquals(2 * SaveGame.SLOT_SIZE, Files.size(file));
+        try (SaveGame saveGame = new SaveGame(file)) {
+            assertEquals(7, saveGame.load().getLevel());
+        }
+    }
+
+    @Test
+    void legacySessionFileIsConverted() throws IOException {
+        Path file = directory.resolve("sessions.dat");
+        ByteBuffer legacy = ByteBuffer.allocate(3 * (8 + SaveGame.LEGACY_SLOT_SIZE));
+        for (long code = 1; code <= 3; code++) {
+            legacy.putLong(code == 2 ? 0 : code).put(legacySlot(Campaign.newCharacter(5, "Player " + code), (int) code, 1));
+        }
+        Files.write(file, legacy.array());
+
+        try (SessionStore store = new SessionStore(file, 1 << 20)) {
+            assertEquals(2, store.getStoredSessions());
+            try (SessionStore.Session session = store.open(3)) {
+                assertEquals("Player 3", session.load().getPlayer().getName());
+            }
+        }
+        assertEquals(3 * SessionStore.RECORD_SIZE, Files.size(file));
+        try (SessionStore store = new SessionStore(file, 1 << 20)) {
+            assertEquals(2, store.getStoredSessions());
+        }
+    }
+
+    // A version 3 slot as it was written before slots grew: the current layout cut before
+    // the inventory
+    private static byte[] legacySlot(PlayerCharacter player, int level, long sequence) {
+        ByteBuffer slot = ByteBuffer.allocate(SaveGame.SLOT_SIZE);
+        SaveGame.write(slot, 0, player, level, 42, 123_456, sequence);
+        slot.putShort(4, (short) 3);
+        CRC32 crc = new CRC32();
+        crc.update(slot.slice(4, 224 - 4));
+        slot.putInt(224, (int) crc.getValue());
+        return Arrays.copyOf(slot.array(), SaveGame.LEGACY_SLOT_SIZE);
+    }
+
+    // The leaderboard time of a resumed run includes what was played before the save
+    @Test
+    void resumedRunIsRankedWithItsWholeTime() throws IOException {
+        SaveGame saveGame = new SaveGame(directory.resolve("run.sav"));
+        PlayerCharacter hero = Campaign.newCharacter(2, "Resumed");
+        hero.setHealth(1);
+        saveGame.save(hero, Campaign.MAX_LEVELS, 42, 90_000);
+
+        try (Leaderboard leaderboard = new Leaderboard(directory.resolve("leaderboard.dat"))) {
+            StringBuilder input = new StringBuilder("Y\n");
+            for (int i = 0; i < 50; i++) input.append("1\n");
+            FinalProjectGame game = new FinalProjectGame(new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)),
+                    new PrintStream(new ByteArrayOutputStream()), CombatEventSink.NO_OP, CombatEventBus.DEFAULT_CAPACITY);
+            game.setSaveGame(saveGame);
+            game.setLeaderboard(leaderboard);
+            game.startGame();
+
+            List<Leaderboard.Entry> top = leaderboard.top(1);
+            assertEquals(1, top.size());
+            assertEquals("Resumed", top.get(0).getName());
+            assertTrue(top.get(0).getMillis() >= 90_000, "ranked with " + top.get(0).getMillis() + " ms");
+        } finally {
+            saveGame.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class SearchMonsterAITest {
+    private static final long BUDGET_NANOS = 30_000_000;
+    private static final long SLACK_NANOS = BUDGET_NANOS / 2; // depth 1, node-count checks, GC
+
+    @Test
+    void phaseOfThreeMonstersStaysWithinOneBudget() {
+        Monster[] ghouls = DifficultyTable.DEFAULT.ghouls(10);
+        assertEquals(3, ghouls.length);
+        PlayerCharacter player = Campaign.newCharacter(1, "Target");
+        player.setMaxHealth(20_000);
+        player.setHealth(20_000);
+
+        Timed ai = new Timed(new SearchMonsterAI(BUDGET_NANOS));
+        BattleEngine engine = new BattleEngine(SimulatedPlayer.CASUAL, CombatEventBus.DISABLED, new SplittableRandom(5));
+        engine.setMonsterAI(ai);
+        engine.fight(player, ghouls);
+
+        assertTrue(ai.fullPhases > 0, "no phase had all three monsters acting");
+        assertTrue(ai.longestNanos <= BUDGET_NANOS + SLACK_NANOS,
+                "phase took " + ai.longestNanos / 1_000_000 + " ms of a " + BUDGET_NANOS / 1_000_000 + " ms budget");
+    }
+
+    // Wall time from the start of each phase to the end of its last decision
+    private static final class Timed implements MonsterAI {
+        private final MonsterAI ai;
+        private long phaseStart;
+        long longestNanos;
+        int fullPhases;
+
+        Timed(MonsterAI ai) {
+            this.ai = ai;
+        }
+
+        @Override
+        public void battleStarted(PlayerCharacter player, Monster[] monsters) {
+            ai.battleStarted(player, monsters);
+        }
+
+        @Override
+        public void phaseStarted(int actors) {
+            if (actors == 3) fullPhases++;
+            phaseStart = System.nanoTime();
+            ai.phaseStarted(actors);
+        }
+
+        @Override
+        public int chooseMove(PlayerCharacter player, Monster[] monsters, LiveIndex live, int index) {
+            int move = ai.chooseMove(player, monsters, live, index);
+            longestNanos = Math.max(longestNanos, System.nanoTime() - phaseStart);
+            return move;
+        }
+    }
+}
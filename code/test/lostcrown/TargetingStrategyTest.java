@@ -0,0 +1,86 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+// Horde targeting reads an incrementally maintained heap; it has to pick exactly what a scan
+// of every live member would, whatever sequence of changes the horde went through
+class TargetingStrategyTest {
+    private static final int SIZE = 200;
+
+    @ParameterizedTest
+    @EnumSource(value = TargetingStrategy.class, names = {"LOWEST_HP", "HIGHEST_THREAT"})
+    void indexedTargetMatchesScan(TargetingStrategy strategy) {
+        SplittableRandom random = new SplittableRandom(strategy.ordinal());
+        Horde filled = randomHorde(random);
+        PlayerCharacter player = Campaign.newCharacter(5, "Target");
+        player.setMaxHealth(Integer.MAX_VALUE);
+        int[] damage = new int[SIZE];
+        int[] effective = new int[SIZE];
+
+        assertEquals(scan(filled, strategy), filled.bestTarget(strategy));
+        for (int step = 0; step < 20_000; step++) {
+            player.setHealth(Integer.MAX_VALUE);
+            int i = random.nextInt(SIZE);
+            switch (random.nextInt(9)) {
+                case 0: filled.takeDamage(i, random.nextInt(400)); break;
+                case 1: filled.setHealth(i, random.nextInt(filled.getMaxHealth(i) + 1)); break;
+                case 2: filled.specialAttack(i, player); break;
+                case 3: filled.endTurn(i); break;
+                case 4: filled.setSpecialCooldown(i, random.nextInt(4)); break;
+                case 5: filled.applyEffect(i, StatusEffect.STUNNED, 1 + random.nextInt(3)); break;
+                case 6:
+                    if (random.nextInt(20) == 0) filled.endTurnAll();
+                    break;
+                case 7: {
+                    int from = random.nextInt(SIZE);
+                    int to = Math.min(SIZE, from + random.nextInt(70));
+                    for (int k = from; k < to; k++) damage[k] = random.nextInt(300);
+                    filled.takeDamage(from, to, damage, effective);
+                    break;
+                }
+                default:
+                    filled.defend(i);
+            }
+            assertEquals(scan(filled, strategy), filled.bestTarget(strategy), "after step " + step);
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            filled.setHealth(i, 0);
+        }
+        assertEquals(-1, filled.bestTarget(strategy));
+    }
+
+    private static Horde randomHorde(SplittableRandom random) {
+        Monster[] monsters = new Monster[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            monsters[i] = new Monster("Ghoul", 100 + random.nextInt(900), random.nextInt(5) * 10);
+            monsters[i].setSpecialCooldown(random.nextInt(4));
+        }
+        return Horde.of(monsters);
+    }
+
+    // The pre-index selection: every live member in index order, first best score wins
+    private static int scan(Horde horde, TargetingStrategy strategy) {
+        int best = -1;
+        long bestScore = 0;
+        for (int i = 0; i < horde.size(); i++) {
+            if (horde.isDefeated(i)) continue;
+            long score;
+            if (strategy == TargetingStrategy.LOWEST_HP) {
+                score = -horde.getHealth(i);
+            } else {
+                long nextHit = horde.wantsSpecial(i) ? (int) (horde.getBaseAttack(i) * 1.8) : 0;
+                score = (nextHit << 32) | horde.getBaseAttack(i);
+            }
+            if (best < 0 || score > bestScore) {
+                best = i;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,142 @@
+package lostcrown;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class TurnSchedulerTest {
+    private static final int OPERATIONS = 200_000;
+    private static final int ACTORS = 40;
+
+    @Test
+    void standardSpeedsGiveTheClassicOrder() {
+        TurnScheduler turns = scheduler(100, 100, 100, 100);
+        for (int round = 0; round < 3; round++) {
+            for (int id = 0; id < 4; id++) {
+                assertEquals(id, turns.next());
+                assertEquals(round, turns.round());
+            }
+        }
+    }
+
+    // Twice the speed acts twice a round, half the speed every other round
+    @Test
+    void speedSetsHowOftenAnActorActs() {
+        TurnScheduler turns = scheduler(100, 200, 50);
+        assertArrayEquals(new int[]{0, 1, 2, 1, 0, 1, 1, 0, 1, 2, 1, 0, 1, 1}, take(turns, 14));
+        assertEquals(3_500, turns.now());
+    }
+
+    @Test
+    void delayPushesTheBookedTurnBack() {
+        TurnScheduler turns = scheduler(100, 100);
+        assertArrayEquals(new int[]{0, 1}, take(turns, 2));
+        turns.delay(1, 500);
+        turns.delay(1, 0);
+        turns.delay(1, -400);
+        assertEquals(1_500, turns.timeOf(1));
+        assertArrayEquals(new int[]{0, 1, 0, 1}, take(turns, 4));
+        assertEquals(2_500, turns.now());
+    }
+
+    // The turn already booked keeps its time; the change applies to the ones after it
+    @Test
+    void setSpeedTakesEffectFromTheNextTurn() {
+        TurnScheduler turns = scheduler(100, 100);
+        take(turns, 2);
+        turns.setSpeed(1, 50);
+        assertEquals(1_000, turns.timeOf(1));
+        assertEquals(2_000, TurnScheduler.interval(50));
+        assertEquals(2_000, turns.intervalOf(1));
+        assertArrayEquals(new int[]{0, 1, 0, 0, 1}, take(turns, 5));
+        assertEquals(3_000, turns.now());
+    }
+
+    @Test
+    void removedActorsLoseTheirTurns() {
+        TurnScheduler turns = scheduler(100, 100, 100);
+        assertEquals(0, turns.next());
+        turns.remove(1);
+        assertEquals(2, turns.size());
+        assertArrayEquals(new int[]{2, 0, 2}, take(turns, 3));
+    }
+
+    @Test
+    void nextIfDueStopsAtALaterTurn() {
+        TurnScheduler turns = scheduler(100, 100, 200);
+        assertEquals(0, turns.next());
+        assertEquals(1, turns.nextIfDue());
+        assertEquals(2, turns.nextIfDue());
+        assertEquals(-1, turns.nextIfDue());
+        assertEquals(0, turns.now());
+        assertEquals(2, turns.next());
+        assertEquals(500, turns.now());
+    }
+
+    // Random turns, speed changes, delays and removals against a scan for the lowest (time, id)
+    @Test
+    void matchesBruteForceModel() {
+        SplittableRandom random = new SplittableRandom(3);
+        TurnScheduler turns = new TurnScheduler();
+        long[] due = new long[ACTORS];
+        int[] intervals = new int[ACTORS];
+        boolean[] present = new boolean[ACTORS];
+        for (int id = 0; id < ACTORS; id++) {
+            int speed = randomSpeed(random);
+            turns.add(id, speed);
+            intervals[id] = TurnScheduler.interval(speed);
+            present[id] = true;
+        }
+        long now = 0;
+
+        for (int op = 0; op < OPERATIONS; op++) {
+            int id = random.nextInt(ACTORS);
+            int kind = random.nextInt(20);
+            if (kind == 0 && present[id]) {
+                turns.remove(id);
+                present[id] = false;
+            } else if (kind < 3) {
+                int speed = randomSpeed(random);
+                turns.setSpeed(id, speed);
+                intervals[id] = TurnScheduler.interval(speed);
+            } else if (kind < 5) {
+                long ticks = random.nextInt(-500, 3_000);
+                turns.delay(id, ticks);
+                if (present[id] && ticks > 0) due[id] += ticks;
+            } else {
+                boolean ifDue = kind < 10;
+                int expected = -1;
+                for (int a = 0; a < ACTORS; a++) {
+                    if (present[a] && (expected < 0 || due[a] < due[expected])) expected = a;
+                }
+                if (expected >= 0 && ifDue && due[expected] != now) expected = -1;
+                assertEquals(expected, ifDue ? turns.nextIfDue() : turns.next(), "operation " + op);
+                if (expected < 0) continue;
+                now = due[expected];
+                due[expected] += intervals[expected];
+                assertEquals(now, turns.now());
+            }
+            assertEquals(present[id] ? due[id] : -1, present[id] ? turns.timeOf(id) : -1);
+        }
+    }
+
+    private static int randomSpeed(SplittableRandom random) {
+        return random.nextInt(4) == 0 ? TurnScheduler.STANDARD_SPEED : 25 + random.nextInt(400);
+    }
+
+    private static TurnScheduler scheduler(int... speeds) {
+        TurnScheduler turns = new TurnScheduler();
+        for (int id = 0; id < speeds.length; id++) turns.add(id, speeds[id]);
+        return turns;
+    }
+
+    private static int[] take(TurnScheduler turns, int count) {
+        List<Integer> order = new ArrayList<>();
+        for (int k = 0; k < count; k++) order.add(turns.next());
+        return order.stream().mapToInt(Integer::intValue).toArray();
+    }
+}